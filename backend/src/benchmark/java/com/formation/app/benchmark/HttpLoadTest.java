@@ -0,0 +1,116 @@
+package com.formation.app.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test de charge HTTP minimal : N clients concurrents appellent la même URL pendant une durée fixe
+ * Sert à comparer le profil par défaut (pool Tomcat) et le profil virtual-threads sur un endpoint bloquant
+ *
+ * Usage : java HttpLoadTest &lt;url&gt; [concurrence=200] [durée en secondes=30]
+ * Le token JWT éventuel est lu dans la variable d'environnement LOADTEST_TOKEN
+ */
+public class HttpLoadTest {
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage : HttpLoadTest <url> [concurrence] [durée en secondes]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String token = System.getenv("LOADTEST_TOKEN");
+        
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (token != null && !token.isBlank()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+        
+        long deadline = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<Result>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(clients.submit(() -> run(client, request, deadline)));
+        }
+        
+        Result total = new Result();
+        for (Future<Result> future : futures) {
+            total.merge(future.get());
+        }
+        clients.shutdown();
+        
+        long[] latencies = Arrays.copyOf(total.latencies, total.count);
+        Arrays.sort(latencies);
+        System.out.printf("URL          : %s%n", uri);
+        System.out.printf("Concurrence  : %d clients, %d s%n", concurrency, durationSeconds);
+        System.out.printf("Requêtes     : %d (erreurs : %d)%n", total.count, total.errors);
+        System.out.printf("Débit        : %.1f req/s%n", (double) total.count / durationSeconds);
+        System.out.printf("Latence p50  : %.1f ms%n", percentile(latencies, 0.50));
+        System.out.printf("Latence p99  : %.1f ms%n", percentile(latencies, 0.99));
+        System.out.printf("Latence max  : %.1f ms%n", latencies.length == 0 ? 0.0 : latencies[latencies.length - 1] / 1_000_000.0);
+    }
+    
+    private static Result run(HttpClient client, HttpRequest request, long deadline) {
+        Result result = new Result();
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    result.errors++;
+                }
+            } catch (Exception e) {
+                result.errors++;
+            }
+            result.record(System.nanoTime() - start);
+        }
+        return result;
+    }
+    
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+    
+    /**
+     * Latences (ns) et erreurs d'un client
+     */
+    private static final class Result {
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+        
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+        
+        void merge(Result other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i]);
+            }
+            errors += other.errors;
+        }
+    }
+}
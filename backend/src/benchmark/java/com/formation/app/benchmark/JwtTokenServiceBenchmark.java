@@ -0,0 +1,89 @@
+package com.formation.app.benchmark;
+
+import com.formation.app.entity.Role;
+import com.formation.app.entity.User;
+import com.formation.app.security.JwtTokenService;
+import com.formation.app.security.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmark de la validation JWT faite par requête
+ * Compare l'ancien chemin (clé dérivée + parser construit à chaque appel, token parsé deux fois)
+ * avec le parser partagé et le parse unique de JwtTokenService
+ * Lancer avec : mvn -Pbenchmark test-compile exec:exec -Djmh.include=JwtTokenServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenServiceBenchmark {
+    
+    private static final String SECRET = "MySecretKeyForJWTTokenGeneration12345678901234567890";
+    
+    private JwtTokenService jwtTokenService;
+    private UserDetailsImpl userDetails;
+    private String token;
+    
+    @Setup
+    public void setUp() {
+        jwtTokenService = new JwtTokenService(SECRET, 3600000L);
+        User user = new User("USER001", "etud-0001", "encodedPassword", Role.ETUDIANT);
+        userDetails = new UserDetailsImpl(user, "ETU001", null);
+        token = jwtTokenService.generateToken(userDetails);
+    }
+    
+    /**
+     * Ancien chemin : extractUsername puis validateToken, chacun dérivant la clé et construisant un parser
+     */
+    @Benchmark
+    public boolean legacyDoubleParse() {
+        String username = legacyParse(token).getSubject();
+        Claims claims = legacyParse(token);
+        return username.equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
+    }
+    
+    /**
+     * Chemin actuel : un seul parse avec le parser partagé
+     */
+    @Benchmark
+    public boolean sharedParserSingleParse() {
+        Claims claims = jwtTokenService.parseClaims(token);
+        return jwtTokenService.validateToken(claims, userDetails);
+    }
+    
+    /**
+     * Chemin stateless complet : parse unique + reconstruction des UserDetails depuis les claims
+     */
+    @Benchmark
+    public UserDetailsImpl statelessExtractUserDetails() {
+        return jwtTokenService.extractUserDetails(jwtTokenService.parseClaims(token));
+    }
+    
+    private static Claims legacyParse(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -0,0 +1,121 @@
+package com.formation.app.benchmark;
+
+import com.formation.app.config.CacheConfig;
+import com.formation.app.controller.api.AuthRestController;
+import com.formation.app.entity.Role;
+import com.formation.app.entity.User;
+import com.formation.app.security.JwtTokenService;
+import com.formation.app.security.LoginRateLimiter;
+import com.formation.app.security.RefreshTokenService;
+import com.formation.app.security.UserDetailsImpl;
+import com.formation.app.security.UserDetailsServiceImpl;
+import com.formation.app.security.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de AuthRestController.login sous concurrence (16 threads appelants, comme des threads Tomcat)
+ * La vérification BCrypt passe par le pool borné (un thread par CPU) comme en production
+ * Lancer avec : mvn -Pbenchmark test-compile exec:exec -Djmh.include=LoginBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(16)
+@Fork(1)
+public class LoginBenchmark {
+    
+    @Param({"10", "12"})
+    public int strength;
+    
+    private ThreadPoolTaskExecutor executor;
+    private AuthRestController controller;
+    private AuthRestController.LoginRequest request;
+    private MockHttpServletRequest httpRequest;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(strength);
+        String hash = passwordEncoder.encode("password");
+        
+        // Chargement de l'utilisateur sans base : seul le coût BCrypt + JWT est mesuré
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(null) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                if (!"etud-0001".equals(username)) {
+                    throw new UsernameNotFoundException(username);
+                }
+                return new UserDetailsImpl(new User("USER001", "etud-0001", hash, Role.ETUDIANT), "ETU001", null);
+            }
+        };
+        
+        // Émission du refresh token sans base
+        RefreshTokenService refreshTokenService = new RefreshTokenService(null) {
+            @Override
+            public String issue(String userId) {
+                return "refresh-" + userId;
+            }
+        };
+        
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Runtime.getRuntime().availableProcessors());
+        executor.setMaxPoolSize(Runtime.getRuntime().availableProcessors());
+        executor.setQueueCapacity(1000);
+        executor.initialize();
+        
+        // Le hash est déjà au bon coût : aucun re-hachage, le repository n'est pas utilisé
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(passwordEncoder);
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        
+        controller = new AuthRestController(
+                new ProviderManager(provider),
+                new JwtTokenService("MySecretKeyForJWTTokenGeneration12345678901234567890", 3600000L),
+                userDetailsService,
+                new VerifiedTokenCache(new CacheConfig().verifiedTokenCaffeineCache(100)),
+                refreshTokenService,
+                new LoginRateLimiter(), // non initialisé : limitation désactivée pour mesurer le hachage
+                executor
+        );
+        
+        request = new AuthRestController.LoginRequest();
+        request.setLogin("etud-0001");
+        request.setPassword("password");
+        httpRequest = new MockHttpServletRequest();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+    
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> login() {
+        return controller.login(request, httpRequest).join();
+    }
+}
@@ -0,0 +1,109 @@
+package com.formation.app.benchmark;
+
+import com.formation.app.CentreFormationApplication;
+import com.formation.app.dto.NoteSaisie;
+import com.formation.app.service.NoteService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la saisie des notes d'un cours en fin de période (contexte Spring complet, H2 en mémoire)
+ * Compare un appel attribuerNote par étudiant (une transaction et 4 requêtes chacun)
+ * avec la saisie groupée attribuerNotes (requêtes constantes, écritures par lots JDBC)
+ * Les notes du cours sont supprimées avant chaque invocation : seul le chemin de création est mesuré
+ * Lancer avec : mvn -Pbenchmark test-compile exec:exec -Djmh.include=NoteBatchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NoteBatchBenchmark {
+    
+    private static final String COURS_CODE = "BENCH001";
+    
+    @Param({"100", "500"})
+    public int etudiants;
+    
+    private ConfigurableApplicationContext context;
+    private NoteService noteService;
+    private JdbcTemplate jdbcTemplate;
+    private List<NoteSaisie> saisies;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Profil test (H2), port aléatoire (la sécurité requiert le contexte web), sans envoi réel des emails
+        context = new SpringApplicationBuilder(CentreFormationApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.mail.host=localhost",
+                        "spring.mail.port=1",
+                        "notification.outbox.poll-interval-ms=3600000")
+                .run();
+        noteService = context.getBean(NoteService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        
+        jdbcTemplate.update("INSERT INTO formateurs (id, matricule, nom, specialite, email) VALUES (?, ?, ?, ?, ?)",
+                "FBENCH", "FMATBENCH", "Bench", "Java", "bench@email.com");
+        jdbcTemplate.update("INSERT INTO cours (code, titre, formateur_id) VALUES (?, ?, ?)",
+                COURS_CODE, "Cours benchmark", "FBENCH");
+        saisies = new ArrayList<>(etudiants);
+        for (int i = 0; i < etudiants; i++) {
+            String id = "EBENCH" + i;
+            jdbcTemplate.update("INSERT INTO etudiants (id, matricule, nom, prenom, email, date_inscription) " +
+                            "VALUES (?, ?, ?, ?, ?, CURRENT_DATE)",
+                    id, "MBENCH" + i, "Nom" + i, "Prenom" + i, "bench" + i + "@email.com");
+            saisies.add(new NoteSaisie(id, (float) (i % 21)));
+        }
+    }
+    
+    @Setup(Level.Invocation)
+    public void resetNotes() {
+        jdbcTemplate.update("DELETE FROM notes WHERE cours_code = ?", COURS_CODE);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    /**
+     * Ancien chemin : un appel (et une transaction) par étudiant
+     */
+    @Benchmark
+    public void attribuerNoteParEtudiant() {
+        for (NoteSaisie saisie : saisies) {
+            noteService.attribuerNote(saisie.getEtudiantId(), COURS_CODE, saisie.getValeur());
+        }
+    }
+    
+    /**
+     * Saisie groupée : une transaction, préchargements en IN et écritures par lots
+     */
+    @Benchmark
+    public Object attribuerNotesGroupees() {
+        return noteService.attribuerNotes(COURS_CODE, saisies);
+    }
+}
@@ -0,0 +1,77 @@
+package com.formation.app.benchmark;
+
+import com.formation.app.template.EmailTemplate;
+import com.formation.app.template.EmailTemplates;
+import com.formation.app.template.RenderedEmail;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark du rendu des emails de notification pour un envoi groupé de 10 000 messages
+ * Compare l'ancien String.format par appel avec les templates précompilés d'EmailTemplates
+ * (texte seul, puis texte + alternative HTML)
+ * Lancer avec : mvn -Pbenchmark test-compile exec:exec -Djmh.include=NotificationTemplateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NotificationTemplateBenchmark {
+    
+    private static final int MESSAGES = 10_000;
+    
+    private EmailTemplates emailTemplates;
+    private String[][] recipients;
+    
+    @Setup
+    public void setUp() {
+        emailTemplates = new EmailTemplates();
+        recipients = new String[MESSAGES][];
+        for (int i = 0; i < MESSAGES; i++) {
+            recipients[i] = new String[] {
+                    "Prénom" + i, "Nom" + i, "Cours de formation " + (i % 50), "CRS" + (i % 50)
+            };
+        }
+    }
+    
+    /**
+     * Ancien chemin : String.format analyse le format à chaque message
+     */
+    @Benchmark
+    public void legacyStringFormat(Blackhole blackhole) {
+        for (String[] r : recipients) {
+            blackhole.consume("Confirmation d'inscription - " + r[2]);
+            blackhole.consume(String.format(
+                "Bonjour %s %s,\n\n" +
+                "Votre inscription au cours '%s' a été confirmée.\n" +
+                "Code du cours: %s\n\n" +
+                "Cordialement,\n" +
+                "L'équipe du centre de formation",
+                r[0], r[1], r[2], r[3]));
+        }
+    }
+    
+    /**
+     * Templates précompilés : sujet, texte et HTML rendus dans le buffer du thread
+     */
+    @Benchmark
+    public void compiledTemplates(Blackhole blackhole) {
+        for (String[] r : recipients) {
+            RenderedEmail email = emailTemplates.render(EmailTemplate.INSCRIPTION, r[0], r[1], r[2], r[3]);
+            blackhole.consume(email);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.formation.app.benchmark;
+
+import com.formation.app.dto.NoteReportRow;
+import com.formation.app.entity.Cours;
+import com.formation.app.report.ReportRenderer;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark du rendu d'un rapport PDF de cours (sans base de données), en rapports par seconde
+ * Compare l'ancienne mise en page (un objet texte et un setFont par cellule, polices recréées à chaque page,
+ * String.format par note) avec ReportRenderer (polices par document, un objet texte par ligne de tableau,
+ * formats précalculés)
+ * Lancer avec : mvn -Pbenchmark test-compile exec:exec -Djmh.include=ReportRenderingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportRenderingBenchmark {
+    
+    @Param({"100", "1000"})
+    public int notes;
+    
+    private final ReportRenderer reportRenderer = new ReportRenderer(-1, "");
+    private Cours cours;
+    private List<NoteReportRow> rows;
+    
+    @Setup
+    public void setUp() {
+        cours = new Cours();
+        cours.setCode("BENCH001");
+        cours.setTitre("Cours de benchmark");
+        cours.setDescription("Cours utilisé pour mesurer le rendu des rapports PDF");
+        rows = new ArrayList<>(notes);
+        for (int i = 0; i < notes; i++) {
+            rows.add(new NoteReportRow("N" + i, 5f + (i % 15), LocalDate.of(2026, 1, 1).plusDays(i % 90),
+                    "E" + i, String.format("MAT%05d", i), "Nom" + i, "Prénom" + i, cours.getCode(), cours.getTitre()));
+        }
+    }
+    
+    /**
+     * Ancienne mise en page, reproduite à l'identique pour le tableau des notes
+     */
+    @Benchmark
+    public void avant() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            PDPageContentStream contentStream = new PDPageContentStream(document, page);
+            try {
+                PDType1Font fontTitle = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+                PDType1Font fontHeader = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+                PDType1Font fontNormal = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+                DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+                float margin = 50;
+                float yPosition = 750;
+                
+                contentStream.beginText();
+                contentStream.setFont(fontTitle, 18);
+                contentStream.newLineAtOffset(margin, yPosition);
+                contentStream.showText("RAPPORT DE COURS");
+                contentStream.endText();
+                yPosition -= 40;
+                
+                String[] entetes = {"Matricule", "Étudiant", "Note", "Date"};
+                float[] colonnes = {margin, margin + 150, margin + 350, margin + 450};
+                for (int i = 0; i < entetes.length; i++) {
+                    contentStream.beginText();
+                    contentStream.setFont(fontHeader, 11);
+                    contentStream.newLineAtOffset(colonnes[i], yPosition);
+                    contentStream.showText(entetes[i]);
+                    contentStream.endText();
+                }
+                contentStream.moveTo(margin, yPosition - 5);
+                contentStream.lineTo(550, yPosition - 5);
+                contentStream.stroke();
+                yPosition -= 25;
+                
+                for (NoteReportRow note : rows) {
+                    if (yPosition < 100) {
+                        contentStream.close();
+                        page = new PDPage(PDRectangle.A4);
+                        document.addPage(page);
+                        contentStream = new PDPageContentStream(document, page);
+                        yPosition = 750;
+                        fontTitle = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+                        fontHeader = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+                        fontNormal = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+                    }
+                    String nomComplet = note.getEtudiantPrenom() + " " + note.getEtudiantNom();
+                    if (nomComplet.length() > 20) {
+                        nomComplet = nomComplet.substring(0, 17) + "...";
+                    }
+                    String[] cellules = {
+                            note.getEtudiantMatricule(), nomComplet,
+                            String.format("%.2f", note.getValeur()), note.getDateSaisie().format(dateFormat)
+                    };
+                    for (int i = 0; i < cellules.length; i++) {
+                        contentStream.beginText();
+                        contentStream.setFont(fontNormal, 10);
+                        contentStream.newLineAtOffset(colonnes[i], yPosition);
+                        contentStream.showText(cellules[i]);
+                        contentStream.endText();
+                    }
+                    yPosition -= 20;
+                }
+            } finally {
+                contentStream.close();
+            }
+            document.save(OutputStream.nullOutputStream());
+        }
+    }
+    
+    /**
+     * ReportRenderer : rapport complet (informations, statistiques et tableau des notes)
+     */
+    @Benchmark
+    public void apres() throws IOException {
+        reportRenderer.renderCours(cours, rows, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,133 @@
+package com.formation.app.benchmark;
+
+import com.formation.app.CentreFormationApplication;
+import com.formation.app.entity.Cours;
+import com.formation.app.service.CoursService;
+import com.formation.app.service.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark mémoire des rapports PDF de cours : 10 000 notes, 8 téléchargements simultanés
+ * (contexte Spring complet, H2 en mémoire)
+ * Compare l'ancien chemin (document en mémoire, copie en byte[] puis dans la réponse) avec l'écriture
+ * en flux, document tamponné sur disque au-delà de report.pdf.max-main-memory-bytes (-1 : sans limite)
+ * Le pic de tas des pools heap est affiché à la fin de chaque itération, à comparer avec gc.alloc.rate.norm
+ * Lancer avec : mvn -Pbenchmark test-compile exec:exec -Djmh.include=ReportStreamingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(8)
+@Fork(value = 1, jvmArgs = {"-Xmx512m"})
+public class ReportStreamingBenchmark {
+    
+    private static final String COURS_CODE = "BENCH001";
+    private static final int NOTES = 10_000;
+    
+    @Param({"-1", "1048576"})
+    public long maxMainMemoryBytes;
+    
+    private ConfigurableApplicationContext context;
+    private ReportService reportService;
+    private Cours cours;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Profil test (H2), port aléatoire (la sécurité requiert le contexte web), sans envoi réel des emails
+        context = new SpringApplicationBuilder(CentreFormationApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "spring.mail.host=localhost",
+                        "spring.mail.port=1",
+                        "notification.outbox.poll-interval-ms=3600000",
+                        "report.pdf.max-main-memory-bytes=" + maxMainMemoryBytes)
+                .run();
+        reportService = context.getBean(ReportService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        
+        jdbcTemplate.update("INSERT INTO formateurs (id, matricule, nom, specialite, email) VALUES (?, ?, ?, ?, ?)",
+                "FBENCH", "FMATBENCH", "Bench", "Java", "bench@email.com");
+        jdbcTemplate.update("INSERT INTO cours (code, titre, formateur_id) VALUES (?, ?, ?)",
+                COURS_CODE, "Cours benchmark", "FBENCH");
+        List<Object[]> etudiants = new ArrayList<>(NOTES);
+        List<Object[]> notes = new ArrayList<>(NOTES);
+        for (int i = 0; i < NOTES; i++) {
+            etudiants.add(new Object[]{"EBENCH" + i, "MBENCH" + i, "Nom" + i, "Prenom" + i, "bench" + i + "@email.com"});
+            notes.add(new Object[]{"NBENCH" + i, (float) (i % 21), "EBENCH" + i, COURS_CODE});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO etudiants (id, matricule, nom, prenom, email, date_inscription) " +
+                "VALUES (?, ?, ?, ?, ?, CURRENT_DATE)", etudiants);
+        jdbcTemplate.batchUpdate("INSERT INTO notes (id, valeur, date_saisie, etudiant_id, cours_code) " +
+                "VALUES (?, ?, CURRENT_DATE, ?, ?)", notes);
+        cours = context.getBean(CoursService.class).getCoursByCode(COURS_CODE);
+    }
+    
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+    
+    @TearDown(Level.Iteration)
+    public void printPeak() {
+        long peak = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        System.out.printf(" [pic de tas : %d Mo]%n", peak / (1024 * 1024));
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    /**
+     * Ancien chemin : PDF complet en byte[], puis copié dans la réponse
+     */
+    @Benchmark
+    public void rapportEnMemoire() throws IOException {
+        byte[] pdf = reportService.genererRapportCours(cours);
+        OutputStream.nullOutputStream().write(pdf);
+    }
+    
+    /**
+     * Écriture directe dans le flux de la réponse
+     */
+    @Benchmark
+    public void rapportEnFlux() {
+        reportService.genererRapportCours(cours, OutputStream.nullOutputStream());
+    }
+    
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+    }
+}
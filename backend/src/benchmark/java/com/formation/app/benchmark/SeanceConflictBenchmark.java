@@ -0,0 +1,98 @@
+package com.formation.app.benchmark;
+
+import com.formation.app.planning.IntervalTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de la détection de chevauchement sur 100 000 séances (durées de 60 à 180 minutes)
+ * Compare le parcours linéaire d'un emploi du temps chargé (ancien verifierConflitHoraires)
+ * avec la recherche dans l'arbre d'intervalles de SeanceConflictIndex, et le coût d'une réservation
+ * Lancer avec : mvn -Pbenchmark test-compile exec:exec -Djmh.include=SeanceConflictBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SeanceConflictBenchmark {
+    
+    private static final int SEANCES = 100_000;
+    
+    // Créneaux répartis sur environ 10 ans, en minutes
+    private static final int HORIZON = 10 * 365 * 1440;
+    
+    private long[] starts;
+    private long[] ends;
+    private IntervalTree tree;
+    private long[] queries;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        starts = new long[SEANCES];
+        ends = new long[SEANCES];
+        tree = new IntervalTree();
+        for (int i = 0; i < SEANCES; i++) {
+            starts[i] = random.nextInt(HORIZON);
+            ends[i] = starts[i] + 60 + random.nextInt(121);
+            tree.insert(starts[i], ends[i], "S" + i);
+        }
+        queries = new long[1024];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = random.nextInt(HORIZON);
+        }
+    }
+    
+    private long nextQuery() {
+        next = (next + 1) & (queries.length - 1);
+        return queries[next];
+    }
+    
+    /**
+     * Ancien chemin : parcours de toutes les séances
+     */
+    @Benchmark
+    public boolean linearScan() {
+        long start = nextQuery();
+        long end = start + 90;
+        for (int i = 0; i < SEANCES; i++) {
+            if (starts[i] < end && ends[i] > start) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Recherche dans l'arbre d'intervalles (O(log n))
+     */
+    @Benchmark
+    public String intervalTree() {
+        long start = nextQuery();
+        return tree.findOverlap(start, start + 90, null);
+    }
+    
+    /**
+     * Réservation puis libération d'un créneau (maintenance incrémentale de l'index)
+     */
+    @Benchmark
+    public boolean reserveAndRelease() {
+        long start = nextQuery();
+        tree.insert(start, start + 90, "BENCH");
+        return tree.remove(start, "BENCH");
+    }
+}
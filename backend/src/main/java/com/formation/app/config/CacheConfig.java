@@ -1,6 +1,10 @@
 package com.formation.app.config;
 
+import com.formation.app.security.VerifiedTokenCache.CachedAuthentication;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
@@ -24,8 +28,37 @@ public class CacheConfig {
                 .maximumSize(1000); // Taille maximale du cache
     }
 
+    /**
+     * Cache des tokens JWT vérifiés : chaque entrée expire à la date "exp" de son token
+     * Enregistré dans le CacheManager pour exposer ses statistiques (cache.gets, cache.evictions...)
+     * via l'endpoint actuator /actuator/metrics
+     */
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
+    public Cache<Object, Object> verifiedTokenCaffeineCache(@Value("${jwt.cache.maximum-size:10000}") long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Object, Object>() {
+                    @Override
+                    public long expireAfterCreate(Object key, Object value, long currentTime) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Bean
+    public CacheManager cacheManager(Caffeine<Object, Object> caffeine, Cache<Object, Object> verifiedTokenCaffeineCache) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.setCaffeine(caffeine);
         // Définir les noms des caches à utiliser (doivent correspondre aux annotations @Cacheable)
@@ -34,9 +67,19 @@ public class CacheConfig {
                 "etudiants",
                 "formateurs",
                 "sessions",
-                "groupes"
+                "groupes",
+                "tokenVersions"
         ));
+        cacheManager.registerCustomCache("verifiedTokens", verifiedTokenCaffeineCache);
         return cacheManager;
     }
+
+    private static long remainingNanos(Object value) {
+        if (value instanceof CachedAuthentication cached) {
+            long remainingMillis = cached.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+        return 0;
+    }
 }
 
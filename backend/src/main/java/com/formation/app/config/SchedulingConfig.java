@@ -0,0 +1,135 @@
+package com.formation.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Active les tâches planifiées (@Scheduled) et définit les pools des traitements en arrière-plan
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    
+    @Value("${notification.outbox.threads:4}")
+    private int outboxThreads;
+    
+    @Value("${notification.outbox.batch-size:50}")
+    private int outboxBatchSize;
+    
+    @Value("${bulk-import.threads:2}")
+    private int bulkImportThreads;
+    
+    // Threads de hachage BCrypt partagés par les imports (0 : moitié des processeurs)
+    @Value("${etudiant.import.hashing-parallelism:0}")
+    private int importHashingThreads;
+    
+    @Value("${report.jobs.threads:2}")
+    private int reportThreads;
+    
+    @Value("${report.jobs.queue-capacity:50}")
+    private int reportQueueCapacity;
+    
+    // Rendus simultanés d'un export groupé (0 : nombre de processeurs)
+    @Value("${report.export.parallelism:0}")
+    private int reportExportParallelism;
+    
+    // N'a d'effet que si les threads virtuels sont actifs (profil virtual-threads, Java 21+)
+    @Value("${notification.outbox.virtual-threads:true}")
+    private boolean outboxVirtualThreads;
+    
+    /**
+     * Pool borné d'envoi des emails de l'outbox : limite les connexions SMTP simultanées
+     * Threads virtuels : un thread par lot, la concurrence reste bornée (l'appelant attend une place)
+     * Threads classiques : la file est bornée ; au-delà les emails restent dans l'outbox jusqu'au passage suivant
+     */
+    @Bean
+    public AsyncTaskExecutor emailDispatchExecutor(Environment environment) {
+        if (outboxVirtualThreads && Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("email-outbox-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(outboxThreads);
+            executor.setTaskTerminationTimeout(10000);
+            return executor;
+        }
+        
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(outboxThreads);
+        executor.setMaxPoolSize(outboxThreads);
+        executor.setQueueCapacity(outboxBatchSize);
+        executor.setThreadNamePrefix("email-outbox-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Pool des imports en masse : chaque import occupe un thread pendant toute sa durée
+     * Sans file d'attente : au-delà de bulk-import.threads imports simultanés, l'import est refusé
+     */
+    @Bean
+    public ThreadPoolTaskExecutor bulkImportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bulkImportThreads);
+        executor.setMaxPoolSize(bulkImportThreads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("bulk-import-");
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Pool de hachage des mots de passe des imports, distinct de passwordHashingExecutor :
+     * les imports simultanés ne peuvent pas occuper les threads de vérification des connexions
+     * File dimensionnée pour une tranche par thread et par import ; au-delà, l'import hache lui-même la tranche
+     */
+    @Bean
+    public ThreadPoolTaskExecutor importHashingExecutor() {
+        int threads = importHashingThreads > 0
+                ? importHashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * bulkImportThreads);
+        executor.setThreadNamePrefix("import-hash-");
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Pool de génération des rapports PDF : rendu hors des threads de requête, parallélisme borné
+     * File bornée : au-delà de report.jobs.queue-capacity rapports en attente, la demande est refusée
+     */
+    @Bean
+    public ThreadPoolTaskExecutor reportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(reportThreads);
+        executor.setMaxPoolSize(reportThreads);
+        executor.setQueueCapacity(reportQueueCapacity);
+        executor.setThreadNamePrefix("report-");
+        executor.initialize();
+        return executor;
+    }
+    
+    /**
+     * Pool fork-join des exports groupés de rapports : les PDF d'un export sont rendus en parallèle
+     * Distinct du pool commun, pour ne pas concurrencer les flux parallèles du reste de l'application
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool reportExportPool() {
+        int parallelism = reportExportParallelism > 0
+                ? reportExportParallelism
+                : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism);
+    }
+}
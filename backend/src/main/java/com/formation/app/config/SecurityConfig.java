@@ -1,10 +1,14 @@
 package com.formation.app.config;
 
+import com.formation.app.security.BCryptStrengthCalibrator;
 import com.formation.app.security.JwtAuthenticationFilter;
 import com.formation.app.security.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -34,12 +38,51 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final UserDetailsServiceImpl userDetailsService;
     
+    // Coût BCrypt fixe (0 = calibré au démarrage selon security.password.target-millis)
+    @Value("${security.password.bcrypt-strength:0}")
+    private int bcryptStrength;
+    
+    @Value("${security.password.target-millis:250}")
+    private long passwordTargetMillis;
+    
+    @Value("${security.password.min-strength:10}")
+    private int minBcryptStrength;
+    
+    @Value("${security.password.max-strength:14}")
+    private int maxBcryptStrength;
+    
+    @Value("${security.password.threads:0}")
+    private int passwordThreads;
+    
+    @Value("${security.password.queue-capacity:200}")
+    private int passwordQueueCapacity;
+    
     /**
      * Bean pour encoder les mots de passe
+     * Les hash existants avec un coût inférieur sont re-hachés à la connexion suivante
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength > 0
+                ? bcryptStrength
+                : BCryptStrengthCalibrator.calibrate(passwordTargetMillis, minBcryptStrength, maxBcryptStrength);
+        return new BCryptPasswordEncoder(strength);
+    }
+    
+    /**
+     * Pool borné pour la vérification et le re-hachage des mots de passe
+     * Les threads Tomcat ne sont pas bloqués par BCrypt ; au-delà de la file, le login est refusé (503)
+     */
+    @Bean
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        int threads = passwordThreads > 0 ? passwordThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(passwordQueueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.initialize();
+        return executor;
     }
     
     /**
@@ -47,9 +90,10 @@ public class SecurityConfig {
      */
     @Bean
     public AuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(passwordEncoder());
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        // Re-hachage à la connexion des hash dont le coût est inférieur au coût configuré
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
     
@@ -73,6 +117,9 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(auth -> auth
                 // IMPORTANT: L'ordre compte ! Les règles les plus spécifiques doivent être en premier
+                // Fin d'une réponse asynchrone (import en flux, rapports PDF/ZIP) : la requête a déjà été autorisée,
+                // et le token JWT n'est pas relu lors de ce second passage
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll() // Endpoints d'authentification publics
                 .requestMatchers("/api/diagnostic/**").permitAll() // Endpoints de diagnostic publics
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
@@ -174,7 +221,7 @@ public class SecurityConfig {
             .headers(headers -> headers
                 .frameOptions(frameOptions -> frameOptions.sameOrigin())
             );
-
+        
         return http.build();
     }
 }
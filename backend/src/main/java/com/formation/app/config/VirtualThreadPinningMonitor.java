@@ -0,0 +1,87 @@
+package com.formation.app.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnostic d'épinglage des threads virtuels (profil virtual-threads, Java 21+)
+ * Un thread virtuel qui bloque dans un bloc synchronized (driver JDBC, Jakarta Mail...) immobilise
+ * son thread porteur : chaque événement JFR jdk.VirtualThreadPinned au-delà du seuil est journalisé
+ * avec la pile d'appels, pour identifier le code à corriger
+ * Métrique : jvm.threads.virtual.pinned
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+    
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+    
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.virtual-threads.pinning-threshold-ms:20}")
+    private long thresholdMillis;
+    
+    private RecordingStream recordingStream;
+    private Counter pinnedCounter;
+    
+    @PostConstruct
+    void start() {
+        if (meterRegistry != null) {
+            pinnedCounter = Counter.builder("jvm.threads.virtual.pinned").register(meterRegistry);
+        }
+        
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT)
+                .withThreshold(Duration.ofMillis(thresholdMillis))
+                .withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("🔍 [VIRTUAL THREADS] Surveillance de l'épinglage active (seuil {} ms)", thresholdMillis);
+    }
+    
+    @PreDestroy
+    void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+    
+    private void onPinned(RecordedEvent event) {
+        if (pinnedCounter != null) {
+            pinnedCounter.increment();
+        }
+        log.warn("📌 [VIRTUAL THREADS] Thread porteur épinglé pendant {} ms :\n{}",
+                event.getDuration().toMillis(), formatStackTrace(event.getStackTrace()));
+    }
+    
+    private static String formatStackTrace(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "    (pile indisponible)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "    at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + "(ligne " + frame.getLineNumber() + ")")
+                .collect(Collectors.joining("\n"));
+    }
+}
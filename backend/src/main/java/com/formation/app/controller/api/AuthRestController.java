@@ -1,26 +1,30 @@
 package com.formation.app.controller.api;
 
-import com.formation.app.entity.Etudiant;
-import com.formation.app.entity.Formateur;
-import com.formation.app.entity.Role;
-import com.formation.app.entity.User;
-import com.formation.app.repository.EtudiantRepository;
-import com.formation.app.repository.FormateurRepository;
-import com.formation.app.repository.UserRepository;
 import com.formation.app.security.JwtTokenService;
+import com.formation.app.security.LoginRateLimiter;
+import com.formation.app.security.RefreshTokenService;
 import com.formation.app.security.UserDetailsImpl;
+import com.formation.app.security.UserDetailsServiceImpl;
+import com.formation.app.security.VerifiedTokenCache;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controller REST pour l'authentification
@@ -34,98 +38,161 @@ public class AuthRestController {
     
     private final AuthenticationManager authenticationManager;
     private final JwtTokenService jwtTokenService;
-    private final UserDetailsService userDetailsService;
-    private final UserRepository userRepository;
-    private final EtudiantRepository etudiantRepository;
-    private final FormateurRepository formateurRepository;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final Executor passwordHashingExecutor;
     
     /**
      * Endpoint de connexion
      * POST /api/auth/login
+     * La vérification BCrypt est exécutée sur le pool borné passwordHashingExecutor :
+     * le thread Tomcat est libéré, et si la file est pleine le login est refusé (503)
+     * Les tentatives abusives (par IP ou par identifiant saisi) sont refusées avant tout accès base
+     * et tout hachage (429)
      */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody LoginRequest request) {
-        log.info("🔐 [AUTH API] Tentative de connexion reçue");
-        log.info("📧 Login/Email: {}", request.getLogin());
-        log.info("🔑 Password: {}", request.getPassword() != null ? "***" : "null");
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> login(@RequestBody LoginRequest request,
+                                                                        HttpServletRequest httpRequest) {
+        log.debug("🔐 [AUTH API] Tentative de connexion: {}", request.getLogin());
         
+        // IP du client (X-Forwarded-For appliqué par server.forward-headers-strategy derrière nginx)
+        if (!loginRateLimiter.tryAcquireIp(httpRequest.getRemoteAddr())) {
+            return CompletableFuture.completedFuture(tooManyRequests());
+        }
+        if (!loginRateLimiter.tryAcquireLogin(request.getLogin())) {
+            return CompletableFuture.completedFuture(tooManyRequests());
+        }
+        
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(request), passwordHashingExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("⏳ [AUTH API] File d'authentification pleine, connexion refusée pour: {}", request.getLogin());
+            
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Service unavailable");
+            errorResponse.put("message", "Trop de connexions simultanées, veuillez réessayer");
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(errorResponse));
+        }
+    }
+    
+    /**
+     * Authentifie l'utilisateur et génère le token
+     * L'identité (utilisateur, rôle, étudiant/formateur lié) est résolue une seule fois
+     * par l'AuthenticationManager et réutilisée pour générer le token
+     */
+    private ResponseEntity<Map<String, Object>> authenticate(LoginRequest request) {
         try {
-            log.info("🔄 [AUTH API] Authentification en cours...");
             // Authentifier l'utilisateur
-            authenticationManager.authenticate(
+            Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     request.getLogin(),
                     request.getPassword()
                 )
             );
-            log.info("✅ [AUTH API] Authentification réussie");
-            
-            log.info("📥 [AUTH API] Chargement des UserDetails...");
-            // Charger les UserDetails
-            UserDetails userDetails = userDetailsService.loadUserByUsername(request.getLogin());
-            log.info("✅ [AUTH API] UserDetails chargés: {}", userDetails.getUsername());
             
-            log.info("🎫 [AUTH API] Génération du token JWT...");
-            // Générer le token JWT
-            String token = jwtTokenService.generateToken(userDetails);
-            log.info("✅ [AUTH API] Token généré");
-            
-            // Récupérer le rôle
-            UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
-            Role role = userDetailsImpl.getRole();
-            log.info("👤 [AUTH API] Rôle détecté: {}", role);
+            // Les UserDetails chargés pendant l'authentification contiennent déjà les IDs liés
+            UserDetailsImpl userDetailsImpl = (UserDetailsImpl) authentication.getPrincipal();
+            String refreshToken = refreshTokenService.issue(userDetailsImpl.getUserId());
+            loginRateLimiter.recordSuccess(request.getLogin());
             
-            // Récupérer l'ID de l'étudiant/formateur si applicable
-            String etudiantId = null;
-            String formateurId = null;
-            User user = userRepository.findById(userDetailsImpl.getUserId()).orElse(null);
-            if (user != null) {
-                if (role == Role.ETUDIANT) {
-                    Etudiant etudiant = etudiantRepository.findByUser(user).orElse(null);
-                    if (etudiant != null) {
-                        etudiantId = etudiant.getId();
-                        log.info("✅ [AUTH API] Étudiant ID trouvé: {}", etudiantId);
-                    }
-                } else if (role == Role.FORMATEUR) {
-                    Formateur formateur = formateurRepository.findByUser(user).orElse(null);
-                    if (formateur != null) {
-                        formateurId = formateur.getId();
-                        log.info("✅ [AUTH API] Formateur ID trouvé: {}", formateurId);
-                    }
-                }
+            log.info("✅ [AUTH API] Connexion réussie pour: {} (Rôle: {})",
+                    userDetailsImpl.getUsername(), userDetailsImpl.getRole());
+            return ResponseEntity.ok(buildTokenResponse(userDetailsImpl, refreshToken));
+        } catch (Exception e) {
+            if (e instanceof BadCredentialsException) {
+                loginRateLimiter.recordFailure(request.getLogin());
             }
+            log.warn("❌ [AUTH API] Échec de connexion pour {}: {} ({})",
+                    request.getLogin(), e.getMessage(), e.getClass().getSimpleName());
             
-            // Construire la réponse
-            Map<String, Object> response = new HashMap<>();
-            response.put("token", token);
-            response.put("type", "Bearer");
-            response.put("username", userDetails.getUsername());
-            response.put("roles", new String[]{role.name()});
-            response.put("userId", userDetailsImpl.getUserId());
-            if (etudiantId != null) {
-                response.put("etudiantId", etudiantId);
-            }
-            if (formateurId != null) {
-                response.put("formateurId", formateurId);
-            }
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Invalid credentials");
+            errorResponse.put("message", e.getMessage());
+            return ResponseEntity.status(401).body(errorResponse);
+        }
+    }
+    
+    private ResponseEntity<Map<String, Object>> tooManyRequests() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Too many requests");
+        errorResponse.put("message", "Trop de tentatives de connexion, veuillez réessayer plus tard");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginRateLimiter.getWindowSeconds()))
+                .body(errorResponse);
+    }
+    
+    /**
+     * Échange un refresh token contre un nouvel access token (le refresh token est renouvelé)
+     * POST /api/auth/refresh
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<Map<String, Object>> refresh(@RequestBody RefreshRequest request) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
             
-            log.info("✅ [AUTH API] Connexion réussie pour: {} (Rôle: {})", userDetails.getUsername(), role);
-            return ResponseEntity.ok(response);
+            // Identité rechargée : rôle et version des tokens à jour dans le nouvel access token
+            UserDetailsImpl userDetailsImpl = userDetailsService.loadUserById(rotation.userId());
+            return ResponseEntity.ok(buildTokenResponse(userDetailsImpl, rotation.refreshToken()));
         } catch (Exception e) {
-            log.error("❌ [AUTH API] Erreur lors de la connexion: {}", e.getMessage());
-            log.error("📊 [AUTH API] Type d'erreur: {}", e.getClass().getSimpleName());
-            if (e.getCause() != null) {
-                log.error("🔍 [AUTH API] Cause: {}", e.getCause().getMessage());
-            }
-            e.printStackTrace();
+            log.debug("❌ [AUTH API] Refresh refusé: {}", e.getMessage());
             
             Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("error", "Invalid credentials");
+            errorResponse.put("error", "Invalid refresh token");
             errorResponse.put("message", e.getMessage());
             return ResponseEntity.status(401).body(errorResponse);
         }
     }
     
+    /**
+     * Construit la réponse contenant l'access token, le refresh token et l'identité
+     */
+    private Map<String, Object> buildTokenResponse(UserDetailsImpl userDetailsImpl, String refreshToken) {
+        // Générer le token JWT (les identifiants sont signés dans les claims)
+        String token = jwtTokenService.generateToken(userDetailsImpl);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", token);
+        response.put("type", "Bearer");
+        response.put("expiresIn", jwtTokenService.getExpiration() / 1000);
+        response.put("refreshToken", refreshToken);
+        response.put("username", userDetailsImpl.getUsername());
+        response.put("roles", new String[]{userDetailsImpl.getRole().name()});
+        response.put("userId", userDetailsImpl.getUserId());
+        if (userDetailsImpl.getEtudiantId() != null) {
+            response.put("etudiantId", userDetailsImpl.getEtudiantId());
+        }
+        if (userDetailsImpl.getFormateurId() != null) {
+            response.put("formateurId", userDetailsImpl.getFormateurId());
+        }
+        return response;
+    }
+    
+    /**
+     * Endpoint de déconnexion : retire le token du cache des tokens vérifiés
+     * et révoque le refresh token de la connexion
+     * POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, Object>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshRequest request
+    ) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            verifiedTokenCache.evictToken(authHeader.substring(7));
+        }
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Déconnexion réussie");
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * Endpoint de test pour vérifier que le backend fonctionne
      * GET /api/auth/test
@@ -150,29 +217,14 @@ public class AuthRestController {
         try {
             String token = authHeader.substring(7); // Enlever "Bearer "
             String username = jwtTokenService.extractUsername(token);
-
+            
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
             UserDetailsImpl userDetailsImpl = (UserDetailsImpl) userDetails;
-            Role role = userDetailsImpl.getRole();
-
-            // Récupérer l'ID de l'étudiant/formateur si applicable
-            String etudiantId = null;
-            String formateurId = null;
-            User user = userRepository.findById(userDetailsImpl.getUserId()).orElse(null);
-            if (user != null) {
-                if (role == Role.ETUDIANT) {
-                    Etudiant etudiant = etudiantRepository.findByUser(user).orElse(null);
-                    if (etudiant != null) {
-                        etudiantId = etudiant.getId();
-                    }
-                } else if (role == Role.FORMATEUR) {
-                    Formateur formateur = formateurRepository.findByUser(user).orElse(null);
-                    if (formateur != null) {
-                        formateurId = formateur.getId();
-                    }
-                }
-            }
-
+            
+            // Les IDs étudiant/formateur sont résolus avec l'utilisateur
+            String etudiantId = userDetailsImpl.getEtudiantId();
+            String formateurId = userDetailsImpl.getFormateurId();
+            
             Map<String, Object> response = new HashMap<>();
             response.put("username", userDetails.getUsername());
             response.put("roles", userDetails.getAuthorities().stream()
@@ -185,7 +237,7 @@ public class AuthRestController {
             if (formateurId != null) {
                 response.put("formateurId", formateurId);
             }
-
+            
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -198,9 +250,17 @@ public class AuthRestController {
      * DTO pour la requête de login
      */
     @Data
-    static class LoginRequest {
+    public static class LoginRequest {
         private String login;
         private String password;
     }
+    
+    /**
+     * DTO pour l'échange et la révocation d'un refresh token
+     */
+    @Data
+    static class RefreshRequest {
+        private String refreshToken;
+    }
 }
 
@@ -1,5 +1,6 @@
 package com.formation.app.controller.api;
 
+import com.formation.app.dto.CursorPage;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Formateur;
 import com.formation.app.entity.Groupe;
@@ -41,14 +42,16 @@ public class CoursRestController {
     private final FormateurRepository formateurRepository;
     
     /**
-     * Liste tous les cours
-     * GET /api/cours
+     * Liste les cours par page, triés par code
+     * GET /api/cours?size=20&cursor=...
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR', 'ETUDIANT')")
-    public ResponseEntity<List<Cours>> getAllCours() {
-        List<Cours> cours = coursService.getAllCours();
-        return ResponseEntity.ok(cours);
+    public ResponseEntity<CursorPage<Cours>> getAllCours(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(coursService.getCoursPage(cursor, size));
     }
     
     /**
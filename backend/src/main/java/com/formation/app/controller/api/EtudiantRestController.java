@@ -1,20 +1,40 @@
 package com.formation.app.controller.api;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.EtudiantSummary;
+import com.formation.app.dto.ImportProgress;
+import com.formation.app.dto.PageResponse;
 import com.formation.app.entity.Etudiant;
 import com.formation.app.entity.Inscription;
 import com.formation.app.entity.Note;
+import com.formation.app.exception.ConflictException;
+import com.formation.app.service.EtudiantImportService;
 import com.formation.app.service.EtudiantService;
 import com.formation.app.service.InscriptionService;
 import com.formation.app.service.NoteService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 /**
  * Controller REST pour la gestion des étudiants
@@ -23,23 +43,45 @@ import java.util.Map;
 @RequestMapping("/api/etudiants")
 @RequiredArgsConstructor
 @CrossOrigin(origins = "*")
+@Slf4j
 public class EtudiantRestController {
     
     private final EtudiantService etudiantService;
     private final InscriptionService inscriptionService;
     private final NoteService noteService;
+    private final EtudiantImportService etudiantImportService;
+    private final Executor bulkImportExecutor;
+    
+    @Value("${bulk-import.timeout-minutes:30}")
+    private long importTimeoutMinutes;
     
     /**
-     * Liste tous les étudiants
-     * GET /api/etudiants
+     * Liste paginée des étudiants (vue allégée, sans inscriptions ni notes)
+     * GET /api/etudiants?size=20&cursor=...&nom=...&prenom=...&matricule=...&email=...
+     * Par défaut : pagination par curseur, triée par ID
+     * Avec le paramètre page : pagination numérotée, triable (sort, direction)
+     * Les filtres sont optionnels et recherchent les valeurs commençant par le texte saisi
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR', 'ETUDIANT')")
-    public ResponseEntity<List<Etudiant>> getAllEtudiants(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+    public ResponseEntity<?> getAllEtudiants(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "nom") String sort,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String nom,
+            @RequestParam(required = false) String prenom,
+            @RequestParam(required = false) String matricule,
+            @RequestParam(required = false) String email
     ) {
-        List<Etudiant> etudiants = etudiantService.getAllEtudiants();
+        if (page != null) {
+            Page<EtudiantSummary> etudiants = etudiantService.searchEtudiants(
+                    nom, prenom, matricule, email, page, size, sort, direction);
+            return ResponseEntity.ok(PageResponse.from(etudiants));
+        }
+        CursorPage<EtudiantSummary> etudiants = etudiantService.getEtudiantsPage(
+                nom, prenom, matricule, email, cursor, size);
         return ResponseEntity.ok(etudiants);
     }
     
@@ -76,6 +118,67 @@ public class EtudiantRestController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
+    /**
+     * Import en masse d'étudiants depuis un fichier CSV ou JSON (multipart, champ file)
+     * POST /api/etudiants/import
+     * Réponse en flux application/x-ndjson : une ligne ImportProgress par lot, puis le bilan (status TERMINE)
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseBodyEmitter importEtudiants(@RequestParam("file") MultipartFile file) throws IOException {
+        String fileName = file.getOriginalFilename();
+        boolean json = MediaType.APPLICATION_JSON_VALUE.equals(file.getContentType())
+                || (fileName != null && fileName.toLowerCase(Locale.ROOT).endsWith(".json"));
+        return startImport(file.getInputStream(), json);
+    }
+    
+    /**
+     * Import en masse d'étudiants depuis le corps de la requête (text/csv ou application/json)
+     * POST /api/etudiants/import
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseBodyEmitter importEtudiantsBody(HttpServletRequest request) throws IOException {
+        boolean json = request.getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE);
+        return startImport(request.getInputStream(), json);
+    }
+    
+    /**
+     * Lance l'import sur le pool bulkImportExecutor et publie l'avancement au fil des lots
+     */
+    private ResponseBodyEmitter startImport(InputStream in, boolean json) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(Duration.ofMinutes(importTimeoutMinutes).toMillis());
+        Consumer<ImportProgress> listener = progress -> {
+            try {
+                emitter.send(progress, MediaType.APPLICATION_JSON);
+                emitter.send("\n", MediaType.TEXT_PLAIN);
+            } catch (IOException | IllegalStateException e) {
+                // Client déconnecté : l'import continue, seul l'avancement n'est plus affiché
+                log.debug("Avancement de l'import non transmis: {}", e.getMessage());
+            }
+        };
+        
+        try {
+            bulkImportExecutor.execute(() -> {
+                try (InputStream input = in) {
+                    if (json) {
+                        etudiantImportService.importJson(input, listener);
+                    } else {
+                        etudiantImportService.importCsv(input, listener);
+                    }
+                    emitter.complete();
+                } catch (Exception e) {
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new ConflictException("Un import est déjà en cours, veuillez réessayer plus tard");
+        }
+        return emitter;
+    }
+    
     /**
      * Met à jour un étudiant
      * PUT /api/etudiants/{id}
@@ -1,5 +1,7 @@
 package com.formation.app.controller.api;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.FormateurSummary;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Formateur;
 import com.formation.app.service.CoursService;
@@ -25,14 +27,16 @@ public class FormateurRestController {
     private final CoursService coursService;
     
     /**
-     * Liste tous les formateurs
-     * GET /api/formateurs
+     * Liste les formateurs par page (vue allégée), triés par ID
+     * GET /api/formateurs?size=20&cursor=...
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
-    public ResponseEntity<List<Formateur>> getAllFormateurs() {
-        List<Formateur> formateurs = formateurService.getAllFormateurs();
-        return ResponseEntity.ok(formateurs);
+    public ResponseEntity<CursorPage<FormateurSummary>> getAllFormateurs(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(formateurService.getFormateursPage(cursor, size));
     }
     
     /**
@@ -1,12 +1,18 @@
 package com.formation.app.controller.api;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.InscriptionBatchResult;
 import com.formation.app.entity.Inscription;
+import com.formation.app.entity.Role;
+import com.formation.app.security.UserDetailsImpl;
 import com.formation.app.service.InscriptionService;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,15 +29,27 @@ public class InscriptionRestController {
     private final InscriptionService inscriptionService;
     
     /**
-     * Liste toutes les inscriptions
-     * GET /api/inscriptions
+     * Liste les inscriptions par page, triées par ID
+     * Un étudiant ne voit que ses propres inscriptions (ID étudiant lu depuis son token)
+     * GET /api/inscriptions?size=20&cursor=...
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR', 'ETUDIANT')")
-    public ResponseEntity<List<Inscription>> getAllInscriptions() {
-        // Cette méthode nécessiterait un repository pour lister toutes les inscriptions
-        // Pour l'instant, on retourne une liste vide ou on peut filtrer par cours/étudiant
-        return ResponseEntity.ok(List.of());
+    public ResponseEntity<CursorPage<Inscription>> getAllInscriptions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        String etudiantId = null;
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails
+                && userDetails.getRole() == Role.ETUDIANT) {
+            etudiantId = userDetails.getEtudiantId();
+            if (etudiantId == null) {
+                // Compte étudiant sans profil : aucune inscription à montrer
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+        }
+        return ResponseEntity.ok(inscriptionService.getInscriptionsPage(etudiantId, cursor, size));
     }
     
     /**
@@ -60,6 +78,20 @@ public class InscriptionRestController {
         return ResponseEntity.status(HttpStatus.CREATED).body(inscription);
     }
     
+    /**
+     * Inscrit un ensemble d'étudiants à un cours
+     * POST /api/inscriptions/batch
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
+    public ResponseEntity<InscriptionBatchResult> inscrireEtudiants(@RequestBody InscriptionBatchRequest request) {
+        InscriptionBatchResult result = inscriptionService.inscrireEtudiants(
+                request.getCoursCode(),
+                request.getEtudiantIds()
+        );
+        return ResponseEntity.ok(result);
+    }
+    
     /**
      * Désinscrit un étudiant d'un cours
      * DELETE /api/inscriptions/{id}
@@ -101,5 +133,13 @@ public class InscriptionRestController {
         private String etudiantId;
         private String coursCode;
     }
+    
+    /**
+     * DTO pour la requête d'inscription en masse
+     */
+    @Data
+    static class InscriptionBatchRequest {
+        private String coursCode;
+        private List<String> etudiantIds;
+    }
 }
-
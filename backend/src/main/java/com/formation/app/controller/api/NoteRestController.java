@@ -1,5 +1,8 @@
 package com.formation.app.controller.api;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.NoteBatchResult;
+import com.formation.app.dto.NoteSaisie;
 import com.formation.app.entity.Note;
 import com.formation.app.service.NoteService;
 import lombok.Data;
@@ -23,14 +26,16 @@ public class NoteRestController {
     private final NoteService noteService;
     
     /**
-     * Liste toutes les notes
-     * GET /api/notes
+     * Liste les notes par page, triées par ID
+     * GET /api/notes?size=20&cursor=...
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
-    public ResponseEntity<List<Note>> getAllNotes() {
-        // Cette méthode nécessiterait un repository pour lister toutes les notes
-        return ResponseEntity.ok(List.of());
+    public ResponseEntity<CursorPage<Note>> getAllNotes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(noteService.getNotesPage(cursor, size));
     }
     
     /**
@@ -59,6 +64,17 @@ public class NoteRestController {
         return ResponseEntity.status(HttpStatus.CREATED).body(note);
     }
     
+    /**
+     * Saisie groupée des notes d'un cours (création ou mise à jour)
+     * POST /api/notes/batch
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
+    public ResponseEntity<NoteBatchResult> attribuerNotes(@RequestBody NoteBatchRequest request) {
+        NoteBatchResult result = noteService.attribuerNotes(request.getCoursCode(), request.getNotes());
+        return ResponseEntity.ok(result);
+    }
+    
     /**
      * Met à jour une note
      * PUT /api/notes/{id}
@@ -112,5 +128,14 @@ public class NoteRestController {
     static class NoteUpdateRequest {
         private Float valeur;
     }
+    
+    /**
+     * DTO pour la saisie groupée des notes d'un cours
+     */
+    @Data
+    static class NoteBatchRequest {
+        private String coursCode;
+        private List<NoteSaisie> notes;
+    }
 }
 
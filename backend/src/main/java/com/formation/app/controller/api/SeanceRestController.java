@@ -1,5 +1,7 @@
 package com.formation.app.controller.api;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.SeanceRecurrence;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Formateur;
 import com.formation.app.entity.Role;
@@ -38,14 +40,16 @@ public class SeanceRestController {
     private final UserRepository userRepository;
     
     /**
-     * Liste toutes les séances
-     * GET /api/seances
+     * Liste les séances par page, triées par date, heure puis ID
+     * GET /api/seances?size=20&cursor=...
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR', 'ETUDIANT')")
-    public ResponseEntity<List<Seance>> getAllSeances() {
-        // Cette méthode nécessiterait un repository pour lister toutes les séances
-        return ResponseEntity.ok(List.of());
+    public ResponseEntity<CursorPage<Seance>> getAllSeances(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(seanceService.getSeancesPage(cursor, size));
     }
     
     /**
@@ -71,6 +75,9 @@ public class SeanceRestController {
         seance.setDate(LocalDate.parse((String) request.get("date")));
         seance.setHeure(java.time.LocalTime.parse((String) request.get("heure")));
         seance.setSalle((String) request.get("salle"));
+        if (request.get("dureeMinutes") instanceof Number duree) {
+            seance.setDureeMinutes(duree.intValue());
+        }
         
         // Extraire le cours depuis la requête
         Map<String, Object> coursMap = (Map<String, Object>) request.get("cours");
@@ -117,6 +124,17 @@ public class SeanceRestController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
+    /**
+     * Génère les séances d'une planification hebdomadaire (créneaux, période, exclusions)
+     * POST /api/seances/recurrence
+     */
+    @PostMapping("/recurrence")
+    @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
+    public ResponseEntity<List<Seance>> createSeancesRecurrentes(@RequestBody SeanceRecurrence recurrence) {
+        List<Seance> seances = seanceService.createSeancesRecurrentes(recurrence);
+        return ResponseEntity.status(HttpStatus.CREATED).body(seances);
+    }
+    
     /**
      * Met à jour une séance
      * PUT /api/seances/{id}
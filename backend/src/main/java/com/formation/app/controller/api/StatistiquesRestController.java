@@ -1,5 +1,7 @@
 package com.formation.app.controller.api;
 
+import com.formation.app.dto.CoursSuivi;
+import com.formation.app.dto.ReportJob;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Etudiant;
 import com.formation.app.entity.Role;
@@ -10,7 +12,10 @@ import com.formation.app.repository.UserRepository;
 import com.formation.app.security.UserDetailsImpl;
 import com.formation.app.service.CoursService;
 import com.formation.app.service.EtudiantService;
+import com.formation.app.service.ReportExportService;
+import com.formation.app.service.ReportJobService;
 import com.formation.app.service.ReportService;
+import com.formation.app.service.SessionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -20,7 +25,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -33,6 +42,9 @@ import java.util.Map;
 public class StatistiquesRestController {
     
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
+    private final ReportExportService reportExportService;
+    private final SessionService sessionService;
     private final EtudiantService etudiantService;
     private final CoursService coursService;
     private final UserRepository userRepository;
@@ -50,13 +62,13 @@ public class StatistiquesRestController {
     }
     
     /**
-     * Obtient la liste des cours les plus suivis
-     * GET /api/statistiques/cours-plus-suivis
+     * Obtient la liste des cours les plus suivis (classement recalculé périodiquement)
+     * GET /api/statistiques/cours-plus-suivis?limit=10
      */
     @GetMapping("/cours-plus-suivis")
     @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
-    public ResponseEntity<?> getCoursPlusSuivis() {
-        return ResponseEntity.ok(reportService.getCoursPlusSuivis());
+    public ResponseEntity<List<CoursSuivi>> getCoursPlusSuivis(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(reportService.getCoursPlusSuivis(limit));
     }
     
     /**
@@ -74,10 +86,11 @@ public class StatistiquesRestController {
     /**
      * Génère un rapport PDF de notes pour un étudiant
      * GET /api/statistiques/rapport-notes/{etudiantId}
+     * Le PDF est écrit directement dans la réponse (pas de copie intermédiaire en byte[])
      */
     @GetMapping("/rapport-notes/{etudiantId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR', 'ETUDIANT')")
-    public ResponseEntity<byte[]> genererRapportNotesPDF(@PathVariable String etudiantId) {
+    public ResponseEntity<StreamingResponseBody> genererRapportNotesPDF(@PathVariable String etudiantId) {
         Etudiant etudiant = etudiantService.getEtudiantById(etudiantId);
         if (etudiant == null) {
             throw new ResourceNotFoundException("Étudiant non trouvé avec l'ID: " + etudiantId);
@@ -101,42 +114,107 @@ public class StatistiquesRestController {
             }
         }
         
-        byte[] pdfBytes = reportService.genererRapportNotes(etudiant);
-        
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
         headers.setContentDispositionFormData("attachment", 
             "rapport-notes-" + etudiant.getMatricule() + ".pdf");
-        headers.setContentLength(pdfBytes.length);
         
         return ResponseEntity.ok()
             .headers(headers)
-            .body(pdfBytes);
+            .body(out -> reportService.genererRapportNotes(etudiant, out));
+    }
+    
+    /**
+     * Exporte les rapports de notes de tous les étudiants notés dans une session, en une archive ZIP
+     * GET /api/statistiques/rapports-notes/session/{sessionId}
+     * L'archive est écrite en flux au fil des rendus (PDF rendus en parallèle)
+     */
+    @GetMapping("/rapports-notes/session/{sessionId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
+    public ResponseEntity<StreamingResponseBody> exporterRapportsNotesSession(@PathVariable String sessionId) {
+        sessionService.getSessionById(sessionId);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", "rapports-notes-" + sessionId + ".zip");
+        
+        return ResponseEntity.ok()
+            .headers(headers)
+            .body(out -> reportExportService.exporterRapportsNotes(sessionId, out));
     }
     
     /**
      * Génère un rapport PDF pour un cours
      * GET /api/statistiques/rapport-cours/{coursCode}
+     * Servi depuis le cache disque si un PDF a déjà été généré pour les mêmes données,
+     * sinon rendu dans le cache puis servi depuis le fichier
      */
     @GetMapping("/rapport-cours/{coursCode}")
     @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
-    public ResponseEntity<byte[]> genererRapportCoursPDF(@PathVariable String coursCode) {
+    public ResponseEntity<StreamingResponseBody> genererRapportCoursPDF(@PathVariable String coursCode) {
         Cours cours = coursService.getCoursByCode(coursCode);
         if (cours == null) {
             throw new ResourceNotFoundException("Cours non trouvé avec le code: " + coursCode);
         }
         
-        byte[] pdfBytes = reportService.genererRapportCours(cours);
-        
+        Path artifact = reportJobService.genererRapportCours(cours);
+        return pdfFile(artifact, "rapport-cours-" + cours.getCode() + ".pdf");
+    }
+    
+    /**
+     * Demande la génération asynchrone du rapport PDF d'un cours
+     * POST /api/statistiques/rapports/cours/{coursCode}
+     */
+    @PostMapping("/rapports/cours/{coursCode}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
+    public ResponseEntity<ReportJob> soumettreRapportCours(@PathVariable String coursCode) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.soumettreRapportCours(coursCode));
+    }
+    
+    /**
+     * Demande la génération asynchrone du rapport PDF de notes d'un étudiant
+     * POST /api/statistiques/rapports/notes/{etudiantId}
+     */
+    @PostMapping("/rapports/notes/{etudiantId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
+    public ResponseEntity<ReportJob> soumettreRapportNotes(@PathVariable String etudiantId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.soumettreRapportNotes(etudiantId));
+    }
+    
+    /**
+     * Obtient l'état d'une génération de rapport
+     * GET /api/statistiques/rapports/{jobId}
+     */
+    @GetMapping("/rapports/{jobId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
+    public ResponseEntity<ReportJob> getRapportJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(jobId));
+    }
+    
+    /**
+     * Télécharge le PDF d'une génération terminée (409 tant qu'elle n'est pas terminée)
+     * GET /api/statistiques/rapports/{jobId}/pdf
+     */
+    @GetMapping("/rapports/{jobId}/pdf")
+    @PreAuthorize("hasAnyRole('ADMIN', 'FORMATEUR')")
+    public ResponseEntity<StreamingResponseBody> telechargerRapport(@PathVariable String jobId) {
+        ReportJob job = reportJobService.getJob(jobId);
+        Path artifact = reportJobService.getArtifact(jobId);
+        String prefix = ReportJob.TYPE_COURS.equals(job.getType()) ? "rapport-cours-" : "rapport-notes-";
+        return pdfFile(artifact, prefix + job.getCible() + ".pdf");
+    }
+    
+    /**
+     * Réponse PDF en pièce jointe, copiée en flux depuis le cache disque
+     */
+    private ResponseEntity<StreamingResponseBody> pdfFile(Path artifact, String filename) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
-        headers.setContentDispositionFormData("attachment", 
-            "rapport-cours-" + cours.getCode() + ".pdf");
-        headers.setContentLength(pdfBytes.length);
+        headers.setContentDispositionFormData("attachment", filename);
         
         return ResponseEntity.ok()
             .headers(headers)
-            .body(pdfBytes);
+            .body(out -> Files.copy(artifact, out));
     }
 }
 
@@ -1,18 +1,17 @@
 package com.formation.app.controller.web;
 
-import com.formation.app.entity.Cours;
+import com.formation.app.dto.InscriptionRow;
 import com.formation.app.entity.Inscription;
 import com.formation.app.service.CoursService;
 import com.formation.app.service.EtudiantService;
 import com.formation.app.service.InscriptionService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
-
 @Controller
 @RequestMapping("/admin/inscriptions")
 @RequiredArgsConstructor
@@ -22,14 +21,14 @@ public class InscriptionWebController {
     private final EtudiantService etudiantService;
     private final CoursService coursService;
     
+    private static final int PAGE_SIZE = 50;
+    
     @GetMapping
-    public String listInscriptions(Model model) {
-        // Récupérer toutes les inscriptions via les cours
-        List<Cours> cours = coursService.getAllCours();
-        List<Inscription> inscriptions = cours.stream()
-                .flatMap(c -> inscriptionService.getInscriptionsByCours(c.getCode()).stream())
-                .toList();
-        model.addAttribute("inscriptions", inscriptions);
+    public String listInscriptions(@RequestParam(defaultValue = "0") int page, Model model) {
+        // Une seule requête (étudiant et cours joints) par page, quel que soit le nombre de cours
+        Page<InscriptionRow> inscriptions = inscriptionService.getInscriptionRows(page, PAGE_SIZE);
+        model.addAttribute("inscriptions", inscriptions.getContent());
+        model.addAttribute("page", inscriptions);
         model.addAttribute("title", "Gestion des Inscriptions");
         return "admin/inscriptions/list";
     }
@@ -1,18 +1,17 @@
 package com.formation.app.controller.web;
 
-import com.formation.app.entity.Cours;
+import com.formation.app.dto.NoteRow;
 import com.formation.app.entity.Note;
 import com.formation.app.service.CoursService;
 import com.formation.app.service.EtudiantService;
 import com.formation.app.service.NoteService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
-
 @Controller
 @RequestMapping("/admin/notes")
 @RequiredArgsConstructor
@@ -22,14 +21,14 @@ public class NoteWebController {
     private final EtudiantService etudiantService;
     private final CoursService coursService;
     
+    private static final int PAGE_SIZE = 50;
+    
     @GetMapping
-    public String listNotes(Model model) {
-        // Récupérer toutes les notes via les cours
-        List<Cours> cours = coursService.getAllCours();
-        List<Note> notes = cours.stream()
-                .flatMap(c -> noteService.getNotesByCours(c.getCode()).stream())
-                .toList();
-        model.addAttribute("notes", notes);
+    public String listNotes(@RequestParam(defaultValue = "0") int page, Model model) {
+        // Une seule requête (étudiant et cours joints) par page, quel que soit le nombre de cours
+        Page<NoteRow> notes = noteService.getNoteRows(page, PAGE_SIZE);
+        model.addAttribute("notes", notes.getContent());
+        model.addAttribute("page", notes);
         model.addAttribute("title", "Gestion des Notes");
         return "admin/notes/list";
     }
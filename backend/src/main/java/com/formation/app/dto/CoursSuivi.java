@@ -0,0 +1,17 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entrée du classement des cours les plus suivis (nombre d'inscriptions actives)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CoursSuivi {
+    private String code;
+    private String titre;
+    private long nombreInscriptions;
+}
@@ -0,0 +1,21 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page de résultats paginée par curseur (keyset)
+ * nextCursor est opaque : le renvoyer tel quel dans le paramètre "cursor" pour obtenir la page suivante
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private String nextCursor;
+    private boolean hasNext;
+}
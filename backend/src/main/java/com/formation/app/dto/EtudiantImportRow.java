@@ -0,0 +1,19 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne d'un fichier d'import d'étudiants (CSV ou JSON)
+ * Le matricule est optionnel : il est généré s'il est absent
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EtudiantImportRow {
+    private String nom;
+    private String prenom;
+    private String email;
+    private String matricule;
+}
@@ -0,0 +1,22 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Vue allégée d'un étudiant pour les listes (sans inscriptions ni notes)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EtudiantSummary {
+    private String id;
+    private String matricule;
+    private String nom;
+    private String prenom;
+    private String email;
+    private LocalDate dateInscription;
+}
@@ -0,0 +1,19 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vue allégée d'un formateur pour les listes (sans utilisateur, cours ni séances)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormateurSummary {
+    private String id;
+    private String matricule;
+    private String nom;
+    private String specialite;
+    private String email;
+}
@@ -0,0 +1,38 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Avancement d'un import en masse, envoyé après chaque lot (une ligne JSON par événement)
+ * Les compteurs sont cumulés depuis le début de l'import ; errors ne contient que les erreurs du lot
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProgress {
+    
+    public static final String STATUS_EN_COURS = "EN_COURS";
+    public static final String STATUS_TERMINE = "TERMINE";
+    public static final String STATUS_ERREUR = "ERREUR";
+    
+    private String status;
+    private int processed;
+    private int created;
+    private int failed;
+    private List<ImportError> errors;
+    
+    /**
+     * Ligne rejetée (numéro de ligne du fichier CSV, ou rang de l'élément JSON)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportError {
+        private int line;
+        private String message;
+    }
+}
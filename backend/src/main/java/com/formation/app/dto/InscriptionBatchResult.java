@@ -0,0 +1,21 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Résultat d'une inscription en masse à un cours
+ * Les étudiants déjà inscrits (inscription active) sont ignorés et listés
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InscriptionBatchResult {
+    private String coursCode;
+    private int created;
+    private int reactivated;
+    private List<String> alreadyEnrolled;
+}
@@ -0,0 +1,17 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat d'une saisie groupée de notes : nombre de notes créées et mises à jour
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteBatchResult {
+    private String coursCode;
+    private int created;
+    private int updated;
+}
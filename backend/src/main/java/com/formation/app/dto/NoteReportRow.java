@@ -0,0 +1,26 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Ligne de note telle qu'elle figure dans un rapport PDF (étudiant et cours déjà résolus)
+ * Sert aussi au calcul de l'empreinte des données d'un rapport (cache des rapports générés)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteReportRow {
+    private String noteId;
+    private Float valeur;
+    private LocalDate dateSaisie;
+    private String etudiantId;
+    private String etudiantMatricule;
+    private String etudiantNom;
+    private String etudiantPrenom;
+    private String coursCode;
+    private String coursTitre;
+}
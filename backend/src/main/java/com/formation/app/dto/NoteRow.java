@@ -0,0 +1,21 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Ligne de la liste admin des notes (étudiant et cours déjà résolus, aucune relation à charger)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteRow {
+    private String id;
+    private String etudiantNomComplet;
+    private String coursTitre;
+    private Float valeur;
+    private LocalDate dateSaisie;
+}
@@ -0,0 +1,16 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Note saisie pour un étudiant dans une saisie groupée (POST /api/notes/batch)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSaisie {
+    private String etudiantId;
+    private Float valeur;
+}
@@ -0,0 +1,38 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Génération asynchrone d'un rapport PDF
+ * Le PDF est téléchargeable une fois le statut TERMINE (GET /api/statistiques/rapports/{id}/pdf)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJob {
+    
+    public static final String TYPE_COURS = "COURS";
+    public static final String TYPE_NOTES = "NOTES";
+    
+    public static final String STATUS_EN_ATTENTE = "EN_ATTENTE";
+    public static final String STATUS_EN_COURS = "EN_COURS";
+    public static final String STATUS_TERMINE = "TERMINE";
+    public static final String STATUS_ERREUR = "ERREUR";
+    
+    private String id;
+    private String type;
+    // Code du cours (COURS) ou ID de l'étudiant (NOTES)
+    private String cible;
+    private String status;
+    // Empreinte SHA-256 des données du rapport : nom du PDF dans le cache disque
+    private String empreinte;
+    // true si le PDF était déjà en cache (aucun rendu)
+    private boolean cache;
+    private Long taille;
+    private String message;
+    private LocalDateTime dateCreation;
+}
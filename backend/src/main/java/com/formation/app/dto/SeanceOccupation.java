@@ -0,0 +1,25 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Occupation d'une séance (créneau, formateur, salle, cours) pour le chargement de l'index des conflits
+ * Aucune relation à charger : une seule requête pour toutes les séances
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeanceOccupation {
+    private String id;
+    private LocalDate date;
+    private LocalTime heure;
+    private Integer dureeMinutes;
+    private String formateurId;
+    private String salle;
+    private String coursCode;
+}
@@ -0,0 +1,42 @@
+package com.formation.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Planification récurrente de séances (POST /api/seances/recurrence)
+ * Une séance est générée pour chaque créneau hebdomadaire entre dateDebut et dateFin (incluses),
+ * sauf aux dates exclues (jours fériés, vacances)
+ * La durée s'applique à toutes les séances (durée par défaut si absente)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeanceRecurrence {
+    private String coursCode;
+    private String formateurId;
+    private String salle;
+    private Integer dureeMinutes;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private List<Creneau> creneaux = new ArrayList<>();
+    private List<LocalDate> exclusions = new ArrayList<>();
+    
+    /**
+     * Créneau hebdomadaire : jour de la semaine (MONDAY...SUNDAY) et heure de début
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Creneau {
+        private DayOfWeek jour;
+        private LocalTime heure;
+    }
+}
@@ -0,0 +1,23 @@
+package com.formation.app.dto;
+
+import com.formation.app.entity.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Identité d'un utilisateur pour l'authentification : colonnes utiles de User et ID de l'étudiant/formateur lié
+ * Aucune entité chargée : pas de requête supplémentaire pour la relation User.etudiant
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserIdentity {
+    private String id;
+    private String login;
+    private String password;
+    private Role roles;
+    private Integer tokenVersion;
+    private String etudiantId;
+    private String formateurId;
+}
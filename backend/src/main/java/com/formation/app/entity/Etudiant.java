@@ -16,6 +16,8 @@ import java.util.List;
 @Table(name = "etudiants", uniqueConstraints = {
     @UniqueConstraint(columnNames = "matricule"),
     @UniqueConstraint(columnNames = "email")
+}, indexes = {
+    @Index(name = "idx_etudiant_nom_prenom", columnList = "nom, prenom")
 })
 @Data
 @NoArgsConstructor
@@ -15,6 +15,9 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "inscriptions", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"etudiant_id", "cours_code"})
+}, indexes = {
+    // Classement des cours les plus suivis : inscriptions actives regroupées par cours via l'index
+    @Index(name = "idx_inscription_status_cours", columnList = "status, cours_code")
 })
 @Data
 @NoArgsConstructor
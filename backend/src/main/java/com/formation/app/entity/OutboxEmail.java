@@ -0,0 +1,73 @@
+package com.formation.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité représentant un email en attente d'envoi (outbox transactionnelle)
+ * L'email est enregistré dans la même transaction que l'opération métier,
+ * puis envoyé en arrière-plan par EmailOutboxDispatcher
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+    @Index(name = "idx_email_outbox_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_email_outbox_digest", columnList = "recipient, digest_key, status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEmail {
+    
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENDING = "SENDING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+    
+    @Id
+    @Column(length = 50)
+    private String id;
+    
+    @Column(nullable = false, length = 150)
+    private String recipient;
+    
+    @Column(nullable = false, length = 255)
+    private String subject;
+    
+    @Column(nullable = false, length = 10000)
+    private String body;
+    
+    // Alternative HTML du message (null : texte brut seulement)
+    @Column(name = "html_body", length = 20000)
+    private String htmlBody;
+    
+    @Column(nullable = false, length = 20)
+    private String status; // PENDING, SENDING (en cours d'envoi), SENT, FAILED
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    // Prochaine tentative (PENDING) ou fin du bail d'envoi (SENDING)
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+    
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+    
+    // Récapitulatif (EmailTemplate) dans lequel la notification peut être regroupée (null : envoi individuel)
+    @Column(name = "digest_key", length = 50)
+    private String digestKey;
+    
+    // Ligne de la notification dans le récapitulatif
+    @Column(name = "digest_line", length = 500)
+    private String digestLine;
+}
@@ -0,0 +1,44 @@
+package com.formation.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entité représentant un refresh token (opaque)
+ * Seule l'empreinte SHA-256 du token est stockée ; les tokens d'une même connexion
+ * partagent une famille pour détecter la réutilisation d'un token déjà échangé
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_token_user", columnList = "user_id"),
+    @Index(name = "idx_refresh_token_family", columnList = "family_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+    
+    @Id
+    @Column(length = 50)
+    private String id;
+    
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+    
+    @Column(name = "user_id", nullable = false, length = 50)
+    private String userId;
+    
+    @Column(name = "family_id", nullable = false, length = 50)
+    private String familyId;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // true une fois échangé (rotation) ou révoqué
+    @Column(nullable = false)
+    private boolean revoked;
+}
@@ -33,6 +33,10 @@ public class Seance {
     @Column(nullable = false, length = 50)
     private String salle;
     
+    // Durée en minutes (null : durée par défaut seance.duree-defaut-minutes)
+    @Column(name = "duree_minutes")
+    private Integer dureeMinutes;
+    
     // Relation ManyToOne avec Cours
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cours_code", nullable = false)
@@ -45,6 +49,11 @@ public class Seance {
     @JsonIgnore
     private Formateur formateur;
     
+    // Constructeur sans durée (durée par défaut)
+    public Seance(String id, LocalDate date, LocalTime heure, String salle, Cours cours, Formateur formateur) {
+        this(id, date, heure, salle, null, cours, formateur);
+    }
+    
     // Getters personnalisés pour la sérialisation JSON (simplifiés)
     @JsonProperty("cours")
     public CoursInfo getCoursInfo() {
@@ -32,6 +32,10 @@ public class User {
     @Column(nullable = false, length = 20)
     private Role roles;
     
+    // Version des tokens JWT : incrémentée pour révoquer les tokens déjà émis
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+    
     // Relation OneToOne avec Etudiant (optionnelle)
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private Etudiant etudiant;
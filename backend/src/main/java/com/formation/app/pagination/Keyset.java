@@ -0,0 +1,95 @@
+package com.formation.app.pagination;
+
+import com.formation.app.dto.CursorPage;
+import com.formation.app.exception.BadRequestException;
+import org.springframework.data.domain.Limit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pagination par curseur (keyset) partagée par les endpoints de liste
+ * La page suivante est lue après la dernière clé retournée (WHERE clé > curseur ORDER BY clé) :
+ * contrairement à un OFFSET, une page profonde coûte autant que la première
+ * Le curseur contient les clés de tri encodées en Base64 URL-safe, le client ne doit pas l'interpréter
+ */
+public final class Keyset {
+    
+    public static final int MAX_SIZE = 100;
+    
+    private static final String SEPARATOR = "\u001F";
+    
+    private Keyset() {
+    }
+    
+    /**
+     * Valide la taille de page demandée et la plafonne à MAX_SIZE
+     */
+    public static int pageSize(int size) {
+        if (size < 1) {
+            throw new BadRequestException("Pagination invalide: size >= 1");
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+    
+    /**
+     * Limite de lecture : une ligne de plus que la page pour savoir s'il existe une page suivante
+     */
+    public static Limit limit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+    
+    /**
+     * Encode les clés de tri de la dernière ligne en curseur opaque
+     */
+    public static String encode(Object... keys) {
+        String joined = Arrays.stream(keys)
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Décode un curseur en ses clés de tri
+     * @param cursor curseur reçu du client
+     * @param parts nombre de clés attendu
+     * @return les clés, dans l'ordre du tri
+     */
+    public static String[] decode(String cursor, int parts) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keys = decoded.split(SEPARATOR, -1);
+            if (keys.length == parts) {
+                return keys;
+            }
+        } catch (IllegalArgumentException e) {
+            // Base64 invalide : traité comme un curseur mal formé
+        }
+        throw new BadRequestException("Curseur de pagination invalide");
+    }
+    
+    /**
+     * Indique si le client demande la première page (pas de curseur)
+     */
+    public static boolean isFirstPage(String cursor) {
+        return cursor == null || cursor.isBlank();
+    }
+    
+    /**
+     * Construit la page à partir des lignes lues avec limit(pageSize)
+     * @param rows lignes lues (au plus pageSize + 1)
+     * @param pageSize taille de page
+     * @param keys clés de tri d'une ligne, utilisées pour le curseur suivant
+     */
+    public static <T> CursorPage<T> page(List<T> rows, int pageSize, Function<T, Object[]> keys) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> content = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+        String nextCursor = hasNext ? encode(keys.apply(content.get(content.size() - 1))) : null;
+        return new CursorPage<>(content, pageSize, nextCursor, hasNext);
+    }
+}
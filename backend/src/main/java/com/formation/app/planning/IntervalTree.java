@@ -0,0 +1,184 @@
+package com.formation.app.planning;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Arbre d'intervalles semi-ouverts [début, fin[ identifiés par un ID
+ * Treap (arbre binaire de recherche équilibré par priorités aléatoires) trié par (début, ID),
+ * chaque nœud portant la fin maximale de son sous-arbre : insertion, suppression et recherche
+ * d'un chevauchement en O(log n) en moyenne
+ * Non thread-safe : la synchronisation est assurée par l'appelant (SeanceConflictIndex)
+ */
+public final class IntervalTree {
+    
+    private static final class Node {
+        final long start;
+        final long end;
+        final String id;
+        final int priority;
+        long maxEnd;
+        Node left;
+        Node right;
+        
+        Node(long start, long end, String id) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.maxEnd = end;
+        }
+    }
+    
+    private Node root;
+    private int size;
+    private boolean removed;
+    
+    /**
+     * Ajoute l'intervalle [start, end[ (l'ID doit être unique pour un même début)
+     */
+    public void insert(long start, long end, String id) {
+        root = insert(root, new Node(start, end, id));
+        size++;
+    }
+    
+    /**
+     * Retire l'intervalle commençant à start portant cet ID
+     * @return false si l'intervalle n'est pas présent
+     */
+    public boolean remove(long start, String id) {
+        removed = false;
+        root = remove(root, start, id);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+    
+    /**
+     * Cherche un intervalle qui chevauche [start, end[
+     * @param excludeId ID ignoré (la séance elle-même lors d'une modification), peut être null
+     * @return l'ID d'un intervalle chevauchant, ou null si aucun
+     */
+    public String findOverlap(long start, long end, String excludeId) {
+        return findOverlap(root, start, end, excludeId);
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    private static int compare(long start, String id, Node node) {
+        int c = Long.compare(start, node.start);
+        return c != 0 ? c : id.compareTo(node.id);
+    }
+    
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.id, node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+    
+    private Node remove(Node node, long start, String id) {
+        if (node == null) {
+            return null;
+        }
+        int c = compare(start, id, node);
+        if (c == 0) {
+            removed = true;
+            return merge(node.left, node.right);
+        }
+        if (c < 0) {
+            node.left = remove(node.left, start, id);
+        } else {
+            node.right = remove(node.right, start, id);
+        }
+        update(node);
+        return node;
+    }
+    
+    /**
+     * Fusionne deux sous-arbres dont toutes les clés de left précèdent celles de right
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+    
+    private static String findOverlap(Node node, long start, long end, String excludeId) {
+        // Aucun intervalle du sous-arbre ne se termine après le début recherché
+        if (node == null || node.maxEnd <= start) {
+            return null;
+        }
+        // Le nœud et son sous-arbre droit commencent après la fin recherchée
+        if (node.start >= end) {
+            return findOverlap(node.left, start, end, excludeId);
+        }
+        // Tout intervalle de gauche commence avant la fin recherchée : il chevauche s'il finit après le début
+        String found = findOverlap(node.left, start, end, excludeId);
+        if (found != null) {
+            return found;
+        }
+        if (node.end > start && !node.id.equals(excludeId)) {
+            return node.id;
+        }
+        return findOverlap(node.right, start, end, excludeId);
+    }
+    
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+    
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+    
+    private static void update(Node node) {
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+}
@@ -0,0 +1,453 @@
+package com.formation.app.planning;
+
+import com.formation.app.dto.SeanceOccupation;
+import com.formation.app.entity.Seance;
+import com.formation.app.exception.ConflictException;
+import com.formation.app.repository.SeanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index en mémoire des créneaux occupés, pour la détection des conflits de planning
+ * Un arbre d'intervalles par formateur, par salle et par cours (les conflits d'un étudiant
+ * sont vérifiés sur les cours auxquels il est inscrit) : recherche en O(log n), durées prises en compte
+ * L'index est chargé depuis la base au premier usage (une requête), puis maintenu à chaque
+ * création, modification ou suppression de séance
+ * Vérification et réservation sont atomiques (verrou d'écriture) : deux créations concurrentes
+ * ne peuvent pas réserver le même créneau ; une réservation est annulée si la transaction échoue
+ * L'index est local à l'instance et ne voit pas les séances écrites ailleurs (autre instance, SQL direct) :
+ * - par défaut (une seule instance), l'index est la seule vérification
+ * - seance.conflits.verification-base=true : avant chaque réservation, les séances en base du formateur
+ *   et de la salle sur la période sont relues (une requête) ; l'index est corrigé d'après la base
+ *   (séances ajoutées ou supprimées ailleurs) avant la vérification
+ * Même dans ce mode, deux instances qui réservent le même créneau au même instant ne sont pas sérialisées
+ * (aucune contrainte de la base n'exprime un chevauchement)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeanceConflictIndex {
+    
+    // Nombre de conflits reportés dans le message
+    private static final int MAX_REPORTED_CONFLICTS = 10;
+    
+    private final SeanceRepository seanceRepository;
+    
+    @Value("${seance.duree-defaut-minutes:90}")
+    private int dureeDefautMinutes;
+    
+    // Relire les séances concernées en base avant chaque réservation (déploiement multi-instances)
+    @Value("${seance.conflits.verification-base:false}")
+    private boolean verificationBase;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IntervalTree> formateurs = new HashMap<>();
+    private final Map<String, IntervalTree> salles = new HashMap<>();
+    private final Map<String, IntervalTree> cours = new HashMap<>();
+    private final Map<String, Slot> slots = new HashMap<>();
+    // Séances réservées par une transaction en cours sur cette instance (pas encore en base)
+    private final Set<String> pending = new HashSet<>();
+    private volatile boolean loaded;
+    
+    /**
+     * Créneau indexé d'une séance, en minutes depuis l'epoch : [debut, fin[
+     */
+    private record Slot(String id, long debut, long fin, String formateurId, String salle, String coursCode) {
+    }
+    
+    /**
+     * Durée appliquée aux séances sans durée explicite (minutes)
+     */
+    public int getDureeDefautMinutes() {
+        return dureeDefautMinutes;
+    }
+    
+    /**
+     * Réserve les créneaux de nouvelles séances (ID assignés), en vérifiant pour tout l'ensemble
+     * les conflits de formateur et de salle, y compris entre les séances de l'ensemble
+     * Tout ou rien : aucune séance n'est réservée en cas de conflit
+     * @throws ConflictException avec les premiers créneaux en conflit
+     */
+    public void reserve(List<Seance> seances) {
+        ensureLoaded();
+        List<Slot> candidats = seances.stream().map(this::slotOf).toList();
+        Map<String, Slot> enBase = verificationBase ? loadFromDatabase(candidats) : null;
+        List<Slot> reserved = new ArrayList<>(seances.size());
+        List<String> conflits = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            if (enBase != null) {
+                synchronize(enBase, candidats);
+            }
+            for (Slot slot : candidats) {
+                String conflit = findConflit(slot, enBase);
+                if (conflit != null) {
+                    conflits.add(conflit);
+                } else {
+                    add(slot);
+                    pending.add(slot.id());
+                    reserved.add(slot);
+                }
+            }
+            if (!conflits.isEmpty()) {
+                reserved.forEach(slot -> {
+                    remove(slot);
+                    pending.remove(slot.id());
+                });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        if (!conflits.isEmpty()) {
+            String detail = String.join(" ; ", conflits.subList(0, Math.min(conflits.size(), MAX_REPORTED_CONFLICTS)));
+            if (conflits.size() > MAX_REPORTED_CONFLICTS) {
+                detail += " ; ... (" + conflits.size() + " conflits)";
+            }
+            throw new ConflictException("Conflits d'horaire : " + detail);
+        }
+        onCompletion(reserved.stream().map(Slot::id).toList(), () -> reserved.forEach(this::remove));
+    }
+    
+    /**
+     * Déplace le créneau d'une séance modifiée (nouvelle date, heure, durée, salle ou formateur)
+     * Le créneau d'origine est restauré si la transaction échoue
+     * @throws ConflictException si le nouveau créneau est en conflit avec une autre séance
+     */
+    public void move(Seance seance) {
+        ensureLoaded();
+        Slot slot = slotOf(seance);
+        Map<String, Slot> enBase = verificationBase ? loadFromDatabase(List.of(slot)) : null;
+        Slot previous;
+        lock.writeLock().lock();
+        try {
+            if (enBase != null) {
+                synchronize(enBase, List.of(slot));
+            }
+            previous = slots.get(seance.getId());
+            if (previous != null) {
+                remove(previous);
+            }
+            String conflit = findConflit(slot, enBase);
+            if (conflit != null) {
+                if (previous != null) {
+                    add(previous);
+                }
+                throw new ConflictException(conflit);
+            }
+            add(slot);
+            pending.add(slot.id());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        onCompletion(List.of(slot.id()), () -> {
+            if (slot.equals(slots.get(slot.id()))) {
+                remove(slot);
+                if (previous != null) {
+                    add(previous);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Libère le créneau d'une séance supprimée, une fois la suppression validée
+     */
+    public void release(String seanceId) {
+        release(List.of(seanceId));
+    }
+    
+    /**
+     * Libère les créneaux de séances supprimées, une fois la suppression validée
+     * (séances supprimées en cascade avec leur cours, leur formateur ou leur session)
+     */
+    public void release(Collection<String> seanceIds) {
+        if (seanceIds.isEmpty()) {
+            return;
+        }
+        Runnable release = () -> {
+            lock.writeLock().lock();
+            try {
+                for (String seanceId : seanceIds) {
+                    Slot slot = slots.get(seanceId);
+                    if (slot != null) {
+                        remove(slot);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    release.run();
+                }
+            });
+        } else {
+            release.run();
+        }
+    }
+    
+    /**
+     * Vérifie si un formateur a déjà une séance chevauchant le créneau donné
+     */
+    public boolean hasConflitFormateur(String formateurId, LocalDate date, LocalTime heure, int dureeMinutes) {
+        ensureLoaded();
+        long debut = toMinutes(date, heure);
+        lock.readLock().lock();
+        try {
+            return overlaps(formateurs, formateurId, debut, debut + dureeMinutes, null) != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Vérifie si une séance de l'un des cours donnés chevauche le créneau (emploi du temps d'un étudiant)
+     */
+    public boolean hasConflitCours(Collection<String> coursCodes, LocalDate date, LocalTime heure, int dureeMinutes) {
+        ensureLoaded();
+        long debut = toMinutes(date, heure);
+        lock.readLock().lock();
+        try {
+            for (String coursCode : coursCodes) {
+                if (overlaps(cours, coursCode, debut, debut + dureeMinutes, null) != null) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Vide l'index : il sera rechargé depuis la base au prochain usage
+     * (après une modification des séances hors SeanceService)
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            formateurs.clear();
+            salles.clear();
+            cours.clear();
+            slots.clear();
+            pending.clear();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                long start = System.currentTimeMillis();
+                for (SeanceOccupation occupation : seanceRepository.findAllOccupations()) {
+                    add(slotOf(occupation));
+                }
+                loaded = true;
+                log.info("✅ [PLANNING] Index des conflits chargé : {} séances en {} ms",
+                        slots.size(), System.currentTimeMillis() - start);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Premier conflit de formateur ou de salle d'un créneau (verrou tenu par l'appelant)
+     * @param enBase séances relues en base sur la période (null : l'index fait foi)
+     * @return la description du conflit, ou null si le créneau est libre
+     */
+    private String findConflit(Slot slot, Map<String, Slot> enBase) {
+        LocalDateTime creneau = LocalDateTime.of(LocalDate.ofEpochDay(Math.floorDiv(slot.debut(), 1440)),
+                LocalTime.ofSecondOfDay(Math.floorMod(slot.debut(), 1440) * 60));
+        String seanceId = confirmedOverlap(formateurs, slot.formateurId(), slot, enBase);
+        if (seanceId != null) {
+            return creneau + " : le formateur a déjà une séance (" + seanceId + ")";
+        }
+        seanceId = confirmedOverlap(salles, slot.salle(), slot, enBase);
+        if (seanceId != null) {
+            return creneau + " : la salle " + slot.salle() + " est déjà occupée (" + seanceId + ")";
+        }
+        return null;
+    }
+    
+    /**
+     * Chevauchement confirmé : en vérification base, une séance indexée absente de la base
+     * (supprimée ailleurs) et non réservée par une transaction en cours est retirée de l'index
+     */
+    private String confirmedOverlap(Map<String, IntervalTree> trees, String key, Slot slot, Map<String, Slot> enBase) {
+        String seanceId = overlaps(trees, key, slot.debut(), slot.fin(), slot.id());
+        while (seanceId != null && enBase != null && !enBase.containsKey(seanceId) && !pending.contains(seanceId)) {
+            remove(slots.get(seanceId));
+            seanceId = overlaps(trees, key, slot.debut(), slot.fin(), slot.id());
+        }
+        return seanceId;
+    }
+    
+    /**
+     * Séances en base du formateur ou de la salle des créneaux, sur leur période (une requête)
+     * Les séances sont supposées durer moins d'un jour : la veille du premier créneau est incluse
+     */
+    private Map<String, Slot> loadFromDatabase(List<Slot> candidats) {
+        long debut = candidats.stream().mapToLong(Slot::debut).min().orElseThrow();
+        long fin = candidats.stream().mapToLong(Slot::fin).max().orElseThrow();
+        Set<String> formateurIds = new HashSet<>();
+        Set<String> sallesConcernees = new HashSet<>();
+        for (Slot slot : candidats) {
+            if (slot.formateurId() != null) {
+                formateurIds.add(slot.formateurId());
+            }
+            if (slot.salle() != null) {
+                sallesConcernees.add(slot.salle());
+            }
+        }
+        // IN () n'est pas accepté par toutes les bases : valeur impossible si la liste est vide
+        List<SeanceOccupation> occupations = seanceRepository.findOccupations(
+                LocalDate.ofEpochDay(Math.floorDiv(debut, 1440) - 1),
+                LocalDate.ofEpochDay(Math.floorDiv(fin - 1, 1440)),
+                formateurIds.isEmpty() ? Set.of("") : formateurIds,
+                sallesConcernees.isEmpty() ? Set.of("") : sallesConcernees);
+        Map<String, Slot> enBase = new HashMap<>();
+        for (SeanceOccupation occupation : occupations) {
+            enBase.put(occupation.getId(), slotOf(occupation));
+        }
+        return enBase;
+    }
+    
+    /**
+     * Ajoute ou corrige dans l'index les séances lues en base (créées ou modifiées ailleurs),
+     * sauf celles que cette instance est en train de réserver (verrou tenu par l'appelant)
+     */
+    private void synchronize(Map<String, Slot> enBase, List<Slot> candidats) {
+        Set<String> candidatIds = new HashSet<>();
+        candidats.forEach(slot -> candidatIds.add(slot.id()));
+        for (Slot slot : enBase.values()) {
+            if (pending.contains(slot.id()) || candidatIds.contains(slot.id())) {
+                continue;
+            }
+            Slot indexed = slots.get(slot.id());
+            if (!slot.equals(indexed)) {
+                if (indexed != null) {
+                    remove(indexed);
+                }
+                add(slot);
+            }
+        }
+    }
+    
+    private static String overlaps(Map<String, IntervalTree> trees, String key, long debut, long fin, String excludeId) {
+        IntervalTree tree = key != null ? trees.get(key) : null;
+        return tree != null ? tree.findOverlap(debut, fin, excludeId) : null;
+    }
+    
+    private void add(Slot slot) {
+        slots.put(slot.id(), slot);
+        insert(formateurs, slot.formateurId(), slot);
+        insert(salles, slot.salle(), slot);
+        insert(cours, slot.coursCode(), slot);
+    }
+    
+    private void remove(Slot slot) {
+        if (slots.remove(slot.id()) == null) {
+            return;
+        }
+        delete(formateurs, slot.formateurId(), slot);
+        delete(salles, slot.salle(), slot);
+        delete(cours, slot.coursCode(), slot);
+    }
+    
+    private static void insert(Map<String, IntervalTree> trees, String key, Slot slot) {
+        if (key != null) {
+            trees.computeIfAbsent(key, k -> new IntervalTree()).insert(slot.debut(), slot.fin(), slot.id());
+        }
+    }
+    
+    private static void delete(Map<String, IntervalTree> trees, String key, Slot slot) {
+        IntervalTree tree = key != null ? trees.get(key) : null;
+        if (tree != null) {
+            tree.remove(slot.debut(), slot.id());
+            if (tree.isEmpty()) {
+                trees.remove(key);
+            }
+        }
+    }
+    
+    private Slot slotOf(Seance seance) {
+        long debut = toMinutes(seance.getDate(), seance.getHeure());
+        return new Slot(seance.getId(), debut, debut + duree(seance.getDureeMinutes()),
+                seance.getFormateur() != null ? seance.getFormateur().getId() : null,
+                seance.getSalle(),
+                seance.getCours() != null ? seance.getCours().getCode() : null);
+    }
+    
+    private Slot slotOf(SeanceOccupation occupation) {
+        long debut = toMinutes(occupation.getDate(), occupation.getHeure());
+        return new Slot(occupation.getId(), debut, debut + duree(occupation.getDureeMinutes()),
+                occupation.getFormateurId(), occupation.getSalle(), occupation.getCoursCode());
+    }
+    
+    private int duree(Integer dureeMinutes) {
+        return dureeMinutes != null && dureeMinutes > 0 ? dureeMinutes : dureeDefautMinutes;
+    }
+    
+    private static long toMinutes(LocalDate date, LocalTime heure) {
+        return date.toEpochDay() * 1440 + heure.toSecondOfDay() / 60;
+    }
+    
+    /**
+     * En fin de transaction, les réservations ne sont plus en cours ; l'action d'annulation
+     * est exécutée (sous verrou d'écriture) si la transaction est annulée
+     * Hors transaction, les réservations sont considérées comme validées immédiatement
+     */
+    private void onCompletion(Collection<String> ids, Runnable rollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.writeLock().lock();
+            try {
+                ids.forEach(pending::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.writeLock().lock();
+                try {
+                    ids.forEach(pending::remove);
+                    if (status != STATUS_COMMITTED) {
+                        rollback.run();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        });
+    }
+}
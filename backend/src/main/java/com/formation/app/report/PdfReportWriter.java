@@ -0,0 +1,202 @@
+package com.formation.app.report;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Mise en page des rapports PDF : titres, lignes de texte et tableaux, avec saut de page automatique
+ * - polices créées une fois par document et réutilisées sur toutes les pages
+ *   (les polices PDFBox portent un dictionnaire modifiable : elles ne sont pas partagées entre documents)
+ * - un seul objet texte (BT/ET) et un seul changement de police par ligne de tableau,
+ *   les cellules étant positionnées par décalage relatif
+ * - formats de nombre et de date construits une fois (pas de String.format par cellule)
+ * Non thread-safe : une instance par document
+ */
+public final class PdfReportWriter implements Closeable {
+    
+    public static final float MARGIN = 50;
+    private static final float TOP = 750;
+    private static final float BOTTOM = 100;
+    private static final float LINE_HEIGHT = 20;
+    private static final float LINE_END = 550;
+    private static final float INDENT = 10;
+    
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    
+    private final PDDocument document;
+    private final PDFont bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+    private final PDFont regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+    // Même rendu que String.format("%.2f") : locale de formatage par défaut, arrondi au plus proche
+    private final DecimalFormat decimalFormat =
+            new DecimalFormat("0.00", DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT)));
+    private PDPageContentStream content;
+    private float y;
+    
+    public PdfReportWriter(PDDocument document) throws IOException {
+        this.document = document;
+        this.decimalFormat.setRoundingMode(RoundingMode.HALF_UP);
+        newPage();
+    }
+    
+    /**
+     * Titre du rapport (haut de la première page)
+     */
+    public void title(String text) throws IOException {
+        text(bold, 18, MARGIN, text);
+        y -= 40;
+    }
+    
+    /**
+     * Titre de section
+     * @param spaceAfter espace avant l'élément suivant
+     */
+    public void heading(String text, float spaceAfter) throws IOException {
+        breakPageIfNeeded();
+        text(bold, 14, MARGIN, text);
+        y -= spaceAfter;
+    }
+    
+    /**
+     * Ligne d'information en retrait (police normale, 12 pt)
+     */
+    public void line(String text) throws IOException {
+        breakPageIfNeeded();
+        text(regular, 12, MARGIN + INDENT, text);
+        y -= LINE_HEIGHT;
+    }
+    
+    /**
+     * Ligne d'information longue : le libellé (premier mot) sur sa propre ligne,
+     * puis le reste coupé entre les mots en lignes de maxChars caractères au plus
+     */
+    public void wrappedLine(String text, int maxChars) throws IOException {
+        int labelEnd = text.indexOf(' ');
+        if (text.length() <= maxChars || labelEnd < 0) {
+            line(text);
+            return;
+        }
+        line(text.substring(0, labelEnd));
+        String rest = text.substring(labelEnd + 1);
+        while (rest.length() > maxChars) {
+            int split = rest.substring(0, maxChars).lastIndexOf(' ');
+            if (split <= 0) {
+                split = maxChars;
+            }
+            line(rest.substring(0, split));
+            rest = rest.substring(split).trim();
+        }
+        if (!rest.isEmpty()) {
+            line(rest);
+        }
+    }
+    
+    /**
+     * Ligne de synthèse au niveau de la marge
+     */
+    public void summary(String text, boolean emphasized, float fontSize) throws IOException {
+        breakPageIfNeeded();
+        text(emphasized ? bold : regular, fontSize, MARGIN, text);
+        y -= LINE_HEIGHT;
+    }
+    
+    /**
+     * En-tête de tableau souligné
+     * @param columns position de chaque colonne, relative à la marge
+     */
+    public void tableHeader(float[] columns, String... cells) throws IOException {
+        breakPageIfNeeded();
+        row(bold, 11, columns, cells);
+        content.moveTo(MARGIN, y - 5);
+        content.lineTo(LINE_END, y - 5);
+        content.stroke();
+        y -= 25;
+    }
+    
+    /**
+     * Ligne de tableau (nouvelle page si le bas de page est atteint)
+     * @param columns position de chaque colonne, relative à la marge
+     */
+    public void tableRow(float[] columns, String... cells) throws IOException {
+        breakPageIfNeeded();
+        row(regular, 10, columns, cells);
+        y -= LINE_HEIGHT;
+    }
+    
+    public void space(float height) {
+        y -= height;
+    }
+    
+    /**
+     * Nombre à deux décimales, comme String.format("%.2f")
+     */
+    public String decimal(double value) {
+        // Arrondi sur la représentation décimale du nombre, comme Formatter (et non sur sa valeur binaire)
+        return decimalFormat.format(BigDecimal.valueOf(value));
+    }
+    
+    public static String date(LocalDate date) {
+        return date != null ? date.format(DATE_FORMAT) : "N/A";
+    }
+    
+    /**
+     * Tronque un texte à maxLength caractères, "..." compris
+     */
+    public static String abbreviate(String text, int maxLength) {
+        return text.length() > maxLength ? text.substring(0, maxLength - 3) + "..." : text;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        content.close();
+    }
+    
+    private void row(PDFont font, float fontSize, float[] columns, String[] cells) throws IOException {
+        content.beginText();
+        content.setFont(font, fontSize);
+        content.newLineAtOffset(MARGIN + columns[0], y);
+        content.showText(cells[0]);
+        for (int i = 1; i < cells.length; i++) {
+            // Décalage relatif au début de la cellule précédente
+            content.newLineAtOffset(columns[i] - columns[i - 1], 0);
+            content.showText(cells[i]);
+        }
+        content.endText();
+    }
+    
+    private void text(PDFont font, float fontSize, float x, String text) throws IOException {
+        content.beginText();
+        content.setFont(font, fontSize);
+        content.newLineAtOffset(x, y);
+        content.showText(text);
+        content.endText();
+    }
+    
+    private void breakPageIfNeeded() throws IOException {
+        if (y < BOTTOM) {
+            content.close();
+            newPage();
+        }
+    }
+    
+    private void newPage() throws IOException {
+        PDPage page = new PDPage(PDRectangle.A4);
+        document.addPage(page);
+        content = new PDPageContentStream(document, page);
+        y = TOP;
+    }
+}
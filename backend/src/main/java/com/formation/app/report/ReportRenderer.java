@@ -0,0 +1,128 @@
+package com.formation.app.report;
+
+import com.formation.app.dto.NoteReportRow;
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Etudiant;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Contenu des rapports PDF (notes d'un étudiant, bilan d'un cours), rendu à partir de lignes déjà chargées
+ * Aucun accès à la base : thread-safe, appelable en parallèle
+ * Le document en construction est tamponné en mémoire jusqu'à report.pdf.max-main-memory-bytes,
+ * puis dans un fichier temporaire
+ */
+@Component
+public class ReportRenderer {
+    
+    // Colonnes des tableaux, relatives à la marge
+    private static final float[] COLONNES_NOTES = {0, 350, 450};
+    private static final float[] COLONNES_COURS = {0, 150, 350, 450};
+    private static final int LONGUEUR_LIGNE = 80;
+    
+    private final long maxMainMemoryBytes;
+    private final String tempDir;
+    
+    /**
+     * @param maxMainMemoryBytes mémoire tampon maximale par document avant débordement sur disque (-1 : sans limite)
+     * @param tempDir répertoire des fichiers temporaires (java.io.tmpdir si vide)
+     */
+    public ReportRenderer(@Value("${report.pdf.max-main-memory-bytes:1048576}") long maxMainMemoryBytes,
+                          @Value("${report.pdf.temp-dir:}") String tempDir) {
+        this.maxMainMemoryBytes = maxMainMemoryBytes;
+        this.tempDir = tempDir;
+    }
+    
+    /**
+     * Rapport de notes d'un étudiant ; la moyenne générale est calculée sur les notes fournies
+     * @param out flux de sortie (non fermé)
+     */
+    public void renderNotes(Etudiant etudiant, List<NoteReportRow> notes, OutputStream out) throws IOException {
+        try (PDDocument document = newDocument()) {
+            try (PdfReportWriter writer = new PdfReportWriter(document)) {
+                writer.title("RAPPORT DE NOTES");
+                
+                writer.heading("Informations de l'étudiant", 25);
+                writer.line("Matricule: " + etudiant.getMatricule());
+                writer.line("Nom: " + etudiant.getNom() + " " + etudiant.getPrenom());
+                writer.line("Email: " + etudiant.getEmail());
+                writer.line("Date d'inscription: " + PdfReportWriter.date(etudiant.getDateInscription()));
+                writer.space(20);
+                
+                writer.heading("Notes", 30);
+                writer.tableHeader(COLONNES_NOTES, "Cours", "Note", "Date");
+                for (NoteReportRow note : notes) {
+                    writer.tableRow(COLONNES_NOTES,
+                            PdfReportWriter.abbreviate(note.getCoursTitre(), 30),
+                            writer.decimal(note.getValeur()),
+                            PdfReportWriter.date(note.getDateSaisie()));
+                }
+                writer.space(20);
+                
+                writer.summary("Moyenne générale: " + writer.decimal(moyenne(notes)), true, 12);
+                writer.summary("Nombre total de notes: " + notes.size(), false, 10);
+            }
+            document.save(out);
+        }
+    }
+    
+    /**
+     * Rapport d'un cours : informations, statistiques (calculées sur les notes fournies) et notes des étudiants
+     * @param out flux de sortie (non fermé)
+     */
+    public void renderCours(Cours cours, List<NoteReportRow> notes, OutputStream out) throws IOException {
+        try (PDDocument document = newDocument()) {
+            try (PdfReportWriter writer = new PdfReportWriter(document)) {
+                writer.title("RAPPORT DE COURS");
+                
+                writer.heading("Informations du cours", 25);
+                writer.line("Code: " + cours.getCode());
+                writer.wrappedLine("Titre: " + cours.getTitre(), LONGUEUR_LIGNE);
+                writer.wrappedLine("Description: " + (cours.getDescription() != null && !cours.getDescription().isEmpty()
+                        ? cours.getDescription() : "Aucune description"), LONGUEUR_LIGNE);
+                writer.space(20);
+                
+                long reussites = notes.stream().filter(n -> n.getValeur() >= 10.0).count();
+                double tauxReussite = notes.isEmpty() ? 0.0 : (double) reussites / notes.size() * 100;
+                writer.heading("Statistiques", 25);
+                writer.line("Moyenne du cours: " + writer.decimal(moyenne(notes)));
+                writer.line("Taux de réussite: " + writer.decimal(tauxReussite) + "%");
+                writer.line("Nombre d'étudiants notés: " + notes.size());
+                writer.space(20);
+                
+                writer.heading("Notes des étudiants", 30);
+                writer.tableHeader(COLONNES_COURS, "Matricule", "Étudiant", "Note", "Date");
+                for (NoteReportRow note : notes) {
+                    writer.tableRow(COLONNES_COURS,
+                            note.getEtudiantMatricule(),
+                            PdfReportWriter.abbreviate(note.getEtudiantPrenom() + " " + note.getEtudiantNom(), 20),
+                            writer.decimal(note.getValeur()),
+                            PdfReportWriter.date(note.getDateSaisie()));
+                }
+            }
+            document.save(out);
+        }
+    }
+    
+    private static double moyenne(List<NoteReportRow> notes) {
+        return notes.stream().mapToDouble(NoteReportRow::getValeur).average().orElse(0.0);
+    }
+    
+    /**
+     * Crée un document dont les flux sont tamponnés en mémoire puis sur disque au-delà du seuil
+     */
+    private PDDocument newDocument() {
+        MemoryUsageSetting memoryUsage = MemoryUsageSetting.setupMixed(maxMainMemoryBytes);
+        if (!tempDir.isBlank()) {
+            memoryUsage.setTempDir(new File(tempDir));
+        }
+        return new PDDocument(memoryUsage.streamCache);
+    }
+}
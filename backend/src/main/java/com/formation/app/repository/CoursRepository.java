@@ -3,6 +3,8 @@ package com.formation.app.repository;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Formateur;
 import com.formation.app.entity.Session;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -67,5 +69,14 @@ public interface CoursRepository extends JpaRepository<Cours, String> {
      * @return true si le cours existe
      */
     boolean existsByCode(String code);
+    
+    /**
+     * Page de cours triés par code, après un code donné (pagination par curseur)
+     * Le formateur et la session sont chargés dans la même requête
+     * @param code dernier code de la page précédente ("" pour la première page)
+     * @param limit nombre maximum de cours
+     * @return liste des cours
+     */
+    @EntityGraph(attributePaths = {"formateur", "session"})
+    List<Cours> findByCodeGreaterThanOrderByCodeAsc(String code, Limit limit);
 }
-
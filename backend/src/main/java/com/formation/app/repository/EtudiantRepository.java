@@ -1,10 +1,17 @@
 package com.formation.app.repository;
 
+import com.formation.app.dto.EtudiantSummary;
 import com.formation.app.entity.Etudiant;
 import com.formation.app.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -62,5 +69,97 @@ public interface EtudiantRepository extends JpaRepository<Etudiant, String> {
      * @return true si l'étudiant existe
      */
     boolean existsByEmail(String email);
+    
+    /**
+     * Filtre, parmi des matricules, ceux déjà utilisés (une requête pour un lot d'import)
+     * @param matricules les matricules à vérifier
+     * @return les matricules existants
+     */
+    @Query("SELECT e.matricule FROM Etudiant e WHERE e.matricule IN :matricules")
+    List<String> findExistingMatricules(@Param("matricules") Collection<String> matricules);
+    
+    /**
+     * Filtre, parmi des emails, ceux déjà utilisés (une requête pour un lot d'import)
+     * Comparaison insensible à la casse, quelle que soit la collation de la base
+     * @param emails les emails à vérifier, en minuscules
+     * @return les emails existants, en minuscules
+     */
+    @Query("SELECT LOWER(e.email) FROM Etudiant e WHERE LOWER(e.email) IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    /**
+     * Filtre, parmi des IDs, ceux des étudiants existants (une requête pour une saisie groupée)
+     * @param ids les IDs à vérifier
+     * @return les IDs existants
+     */
+    @Query("SELECT e.id FROM Etudiant e WHERE e.id IN :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+    
+    /**
+     * Étudiants ayant au moins une note dans une session (export groupé des rapports)
+     * Le compte utilisateur est joint dans la même requête (pas de chargement par étudiant)
+     * @param sessionId l'ID de la session
+     * @return étudiants triés par ID
+     */
+    @Query("SELECT e FROM Etudiant e LEFT JOIN FETCH e.user " +
+           "WHERE e.id IN (SELECT n.etudiant.id FROM Note n WHERE n.cours.session.id = :sessionId) " +
+           "ORDER BY e.id")
+    List<Etudiant> findWithNotesBySessionId(@Param("sessionId") String sessionId);
+    
+    /**
+     * Liste paginée des étudiants (vue allégée) avec filtres optionnels "commence par"
+     * Les collections (inscriptions, notes) ne sont pas chargées
+     * Les filtres sont des motifs LIKE préfixe ("dup%", caractères spéciaux échappés par '!') comparés sans LOWER :
+     * la collation insensible à la casse de la base s'applique et idx_etudiant_nom_prenom reste utilisable
+     * @param nom motif du début du nom (ignoré si null)
+     * @param prenom motif du début du prénom (ignoré si null)
+     * @param matricule motif du début du matricule (ignoré si null)
+     * @param email motif du début de l'email (ignoré si null)
+     * @param pageable page et tri demandés
+     * @return page d'étudiants
+     */
+    @Query(value = "SELECT new com.formation.app.dto.EtudiantSummary(" +
+                   "e.id, e.matricule, e.nom, e.prenom, e.email, e.dateInscription) " +
+                   "FROM Etudiant e " +
+                   "WHERE (:nom IS NULL OR e.nom LIKE :nom ESCAPE '!') " +
+                   "AND (:prenom IS NULL OR e.prenom LIKE :prenom ESCAPE '!') " +
+                   "AND (:matricule IS NULL OR e.matricule LIKE :matricule ESCAPE '!') " +
+                   "AND (:email IS NULL OR e.email LIKE :email ESCAPE '!')",
+           countQuery = "SELECT COUNT(e) FROM Etudiant e " +
+                   "WHERE (:nom IS NULL OR e.nom LIKE :nom ESCAPE '!') " +
+                   "AND (:prenom IS NULL OR e.prenom LIKE :prenom ESCAPE '!') " +
+                   "AND (:matricule IS NULL OR e.matricule LIKE :matricule ESCAPE '!') " +
+                   "AND (:email IS NULL OR e.email LIKE :email ESCAPE '!')")
+    Page<EtudiantSummary> findSummaries(@Param("nom") String nom,
+                                        @Param("prenom") String prenom,
+                                        @Param("matricule") String matricule,
+                                        @Param("email") String email,
+                                        Pageable pageable);
+    
+    /**
+     * Page d'étudiants (vue allégée) triés par ID, après un ID donné (pagination par curseur)
+     * Mêmes filtres optionnels "commence par" que findSummaries
+     * @param id dernier ID de la page précédente ("" pour la première page)
+     * @param nom motif du début du nom (ignoré si null)
+     * @param prenom motif du début du prénom (ignoré si null)
+     * @param matricule motif du début du matricule (ignoré si null)
+     * @param email motif du début de l'email (ignoré si null)
+     * @param limit nombre maximum d'étudiants
+     * @return liste d'étudiants
+     */
+    @Query("SELECT new com.formation.app.dto.EtudiantSummary(" +
+           "e.id, e.matricule, e.nom, e.prenom, e.email, e.dateInscription) " +
+           "FROM Etudiant e " +
+           "WHERE e.id > :id " +
+           "AND (:nom IS NULL OR e.nom LIKE :nom ESCAPE '!') " +
+           "AND (:prenom IS NULL OR e.prenom LIKE :prenom ESCAPE '!') " +
+           "AND (:matricule IS NULL OR e.matricule LIKE :matricule ESCAPE '!') " +
+           "AND (:email IS NULL OR e.email LIKE :email ESCAPE '!') " +
+           "ORDER BY e.id")
+    List<EtudiantSummary> findSummariesAfter(@Param("id") String id,
+                                             @Param("nom") String nom,
+                                             @Param("prenom") String prenom,
+                                             @Param("matricule") String matricule,
+                                             @Param("email") String email,
+                                             Limit limit);
 }
-
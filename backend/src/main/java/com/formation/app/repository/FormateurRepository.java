@@ -1,8 +1,12 @@
 package com.formation.app.repository;
 
+import com.formation.app.dto.FormateurSummary;
 import com.formation.app.entity.Formateur;
 import com.formation.app.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -62,5 +66,14 @@ public interface FormateurRepository extends JpaRepository<Formateur, String> {
      * @return Optional contenant le formateur si trouvé
      */
     Optional<Formateur> findByUser(User user);
+    
+    /**
+     * Page de formateurs (vue allégée) triés par ID, après un ID donné (pagination par curseur)
+     * @param id dernier ID de la page précédente ("" pour la première page)
+     * @param limit nombre maximum de formateurs
+     * @return liste des formateurs
+     */
+    @Query("SELECT new com.formation.app.dto.FormateurSummary(f.id, f.matricule, f.nom, f.specialite, f.email) " +
+           "FROM Formateur f WHERE f.id > :id ORDER BY f.id")
+    List<FormateurSummary> findSummariesAfter(@Param("id") String id, Limit limit);
 }
-
@@ -1,13 +1,20 @@
 package com.formation.app.repository;
 
+import com.formation.app.dto.CoursSuivi;
+import com.formation.app.dto.InscriptionRow;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Etudiant;
 import com.formation.app.entity.Inscription;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -62,6 +69,25 @@ public interface InscriptionRepository extends JpaRepository<Inscription, String
     @Query("SELECT i FROM Inscription i WHERE i.cours.code = :coursCode")
     List<Inscription> findByCoursCode(@Param("coursCode") String coursCode);
     
+    /**
+     * Liste les codes des cours auxquels un étudiant est inscrit (inscriptions actives)
+     * @param etudiantId l'ID de l'étudiant
+     * @return liste des codes de cours
+     */
+    @Query("SELECT i.cours.code FROM Inscription i WHERE i.etudiant.id = :etudiantId AND i.status = 'ACTIVE'")
+    List<String> findActiveCoursCodesByEtudiantId(@Param("etudiantId") String etudiantId);
+    
+    /**
+     * Trouve les inscriptions (tous statuts) d'un cours pour un ensemble d'étudiants
+     * Pré-vérification des doublons d'une inscription en masse, en une requête
+     * @param coursCode le code du cours
+     * @param etudiantIds les IDs des étudiants
+     * @return liste des inscriptions existantes
+     */
+    @Query("SELECT i FROM Inscription i WHERE i.cours.code = :coursCode AND i.etudiant.id IN :etudiantIds")
+    List<Inscription> findByCoursCodeAndEtudiantIds(@Param("coursCode") String coursCode,
+                                                     @Param("etudiantIds") Collection<String> etudiantIds);
+    
     /**
      * Compte le nombre d'inscriptions actives pour un cours
      * @param coursCode le code du cours
@@ -69,5 +95,47 @@ public interface InscriptionRepository extends JpaRepository<Inscription, String
      */
     @Query("SELECT COUNT(i) FROM Inscription i WHERE i.cours.code = :coursCode AND i.status = 'ACTIVE'")
     long countActiveInscriptionsByCoursCode(@Param("coursCode") String coursCode);
+    
+    /**
+     * Classement des cours par nombre d'inscriptions actives, en une requête agrégée
+     * Les cours sans inscription active n'y figurent pas
+     * @param pageable nombre de cours à retourner (première page)
+     * @return cours triés par nombre d'inscriptions décroissant, puis par code
+     */
+    @Query("SELECT new com.formation.app.dto.CoursSuivi(c.code, c.titre, COUNT(i)) " +
+           "FROM Inscription i JOIN i.cours c WHERE i.status = 'ACTIVE' " +
+           "GROUP BY c.code, c.titre ORDER BY COUNT(i) DESC, c.code")
+    List<CoursSuivi> findCoursPlusSuivis(Pageable pageable);
+    
+    /**
+     * Page d'inscriptions triées par ID, après un ID donné (pagination par curseur)
+     * @param id dernier ID de la page précédente ("" pour la première page)
+     * @param limit nombre maximum d'inscriptions
+     * @return liste des inscriptions avec étudiant et cours chargés
+     */
+    @EntityGraph(attributePaths = {"etudiant", "cours"})
+    List<Inscription> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+    
+    /**
+     * Page des inscriptions d'un étudiant triées par ID, après un ID donné (pagination par curseur)
+     * @param etudiantId l'ID de l'étudiant
+     * @param id dernier ID de la page précédente ("" pour la première page)
+     * @param limit nombre maximum d'inscriptions
+     * @return liste des inscriptions de l'étudiant avec étudiant et cours chargés
+     */
+    @EntityGraph(attributePaths = {"etudiant", "cours"})
+    List<Inscription> findByEtudiantIdAndIdGreaterThanOrderByIdAsc(String etudiantId, String id, Limit limit);
+    
+    /**
+     * Liste paginée des inscriptions pour l'administration, en lignes plates
+     * Étudiant et cours sont joints dans la même requête : une requête par page (plus le comptage)
+     * @param pageable page demandée
+     * @return page de lignes triées par cours, étudiant puis ID
+     */
+    @Query(value = "SELECT new com.formation.app.dto.InscriptionRow(" +
+                   "i.id, CONCAT(e.prenom, ' ', e.nom), c.titre, i.dateInscription, i.status) " +
+                   "FROM Inscription i JOIN i.etudiant e JOIN i.cours c " +
+                   "ORDER BY c.titre, e.nom, e.prenom, i.id",
+           countQuery = "SELECT COUNT(i) FROM Inscription i")
+    Page<InscriptionRow> findRows(Pageable pageable);
 }
-
@@ -1,13 +1,20 @@
 package com.formation.app.repository;
 
+import com.formation.app.dto.NoteReportRow;
+import com.formation.app.dto.NoteRow;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Etudiant;
 import com.formation.app.entity.Note;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -55,6 +62,50 @@ public interface NoteRepository extends JpaRepository<Note, String> {
     @Query("SELECT n FROM Note n WHERE n.cours.code = :coursCode")
     List<Note> findByCoursCode(@Param("coursCode") String coursCode);
     
+    /**
+     * Trouve les notes d'un cours pour un ensemble d'étudiants (préchargement d'une saisie groupée)
+     * L'étudiant n'est pas chargé : seul son ID (clé étrangère) est lu
+     * @param coursCode le code du cours
+     * @param etudiantIds les IDs des étudiants
+     * @return liste des notes existantes
+     */
+    @Query("SELECT n FROM Note n WHERE n.cours.code = :coursCode AND n.etudiant.id IN :etudiantIds")
+    List<Note> findByCoursCodeAndEtudiantIds(@Param("coursCode") String coursCode,
+                                              @Param("etudiantIds") Collection<String> etudiantIds);
+    
+    /**
+     * Lignes du rapport d'un cours, étudiants résolus dans la même requête
+     * @param coursCode le code du cours
+     * @return lignes triées par ID de note
+     */
+    @Query("SELECT new com.formation.app.dto.NoteReportRow(" +
+           "n.id, n.valeur, n.dateSaisie, e.id, e.matricule, e.nom, e.prenom, c.code, c.titre) " +
+           "FROM Note n JOIN n.etudiant e JOIN n.cours c " +
+           "WHERE c.code = :coursCode ORDER BY n.id")
+    List<NoteReportRow> findReportRowsByCoursCode(@Param("coursCode") String coursCode);
+    
+    /**
+     * Lignes du rapport de notes d'un étudiant, cours résolus dans la même requête
+     * @param etudiantId l'ID de l'étudiant
+     * @return lignes triées par ID de note
+     */
+    @Query("SELECT new com.formation.app.dto.NoteReportRow(" +
+           "n.id, n.valeur, n.dateSaisie, e.id, e.matricule, e.nom, e.prenom, c.code, c.titre) " +
+           "FROM Note n JOIN n.etudiant e JOIN n.cours c " +
+           "WHERE e.id = :etudiantId ORDER BY n.id")
+    List<NoteReportRow> findReportRowsByEtudiantId(@Param("etudiantId") String etudiantId);
+    
+    /**
+     * Lignes des rapports de notes de tous les étudiants notés dans une session (export groupé)
+     * @param sessionId l'ID de la session
+     * @return lignes triées par étudiant puis par ID de note
+     */
+    @Query("SELECT new com.formation.app.dto.NoteReportRow(" +
+           "n.id, n.valeur, n.dateSaisie, e.id, e.matricule, e.nom, e.prenom, c.code, c.titre) " +
+           "FROM Note n JOIN n.etudiant e JOIN n.cours c " +
+           "WHERE c.session.id = :sessionId ORDER BY e.id, n.id")
+    List<NoteReportRow> findReportRowsBySessionId(@Param("sessionId") String sessionId);
+    
     /**
      * Calcule la moyenne d'un étudiant pour un cours spécifique
      * @param etudiantId l'ID de l'étudiant
@@ -103,5 +154,26 @@ public interface NoteRepository extends JpaRepository<Note, String> {
      * @return liste des notes
      */
     List<Note> findByValeurLessThan(Float valeur);
+    
+    /**
+     * Page de notes triées par ID, après un ID donné (pagination par curseur)
+     * @param id dernier ID de la page précédente ("" pour la première page)
+     * @param limit nombre maximum de notes
+     * @return liste des notes avec étudiant et cours chargés
+     */
+    @EntityGraph(attributePaths = {"etudiant", "cours"})
+    List<Note> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+    
+    /**
+     * Liste paginée des notes pour l'administration, en lignes plates
+     * Étudiant et cours sont joints dans la même requête : une requête par page (plus le comptage)
+     * @param pageable page demandée
+     * @return page de lignes triées par cours, étudiant puis ID
+     */
+    @Query(value = "SELECT new com.formation.app.dto.NoteRow(" +
+                   "n.id, CONCAT(e.prenom, ' ', e.nom), c.titre, n.valeur, n.dateSaisie) " +
+                   "FROM Note n JOIN n.etudiant e JOIN n.cours c " +
+                   "ORDER BY c.titre, e.nom, e.prenom, n.id",
+           countQuery = "SELECT COUNT(n) FROM Note n")
+    Page<NoteRow> findRows(Pageable pageable);
 }
-
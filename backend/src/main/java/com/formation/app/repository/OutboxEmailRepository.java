@@ -0,0 +1,114 @@
+package com.formation.app.repository;
+
+import com.formation.app.entity.OutboxEmail;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository pour l'outbox des emails
+ */
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, String> {
+    
+    /**
+     * Trouve les emails à envoyer : en attente, ou en cours d'envoi avec un bail expiré (envoi interrompu)
+     * @param now date courante
+     * @param limit nombre maximum d'emails
+     * @return IDs des emails dus, les plus anciens d'abord
+     */
+    @Query("SELECT o.id FROM OutboxEmail o " +
+           "WHERE o.status IN ('PENDING', 'SENDING') AND o.nextAttemptAt <= :now " +
+           "ORDER BY o.nextAttemptAt")
+    List<String> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+    
+    /**
+     * Réserve un email pour l'envoi jusqu'à la fin du bail (un seul worker l'obtient)
+     * @param id l'ID de l'email
+     * @param now date courante
+     * @param leaseUntil fin du bail
+     * @return 1 si l'email a été réservé, 0 s'il ne l'est plus (déjà pris ou envoyé)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEmail o SET o.status = 'SENDING', o.nextAttemptAt = :leaseUntil " +
+           "WHERE o.id = :id AND o.status IN ('PENDING', 'SENDING') AND o.nextAttemptAt <= :now")
+    int claim(@Param("id") String id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    /**
+     * Trouve les notifications en attente d'un destinataire regroupables dans le même récapitulatif
+     * @param recipient destinataire
+     * @param digestKey récapitulatif (EmailTemplate)
+     * @return IDs des notifications, les plus anciennes d'abord
+     */
+    @Query("SELECT o.id FROM OutboxEmail o " +
+           "WHERE o.recipient = :recipient AND o.digestKey = :digestKey AND o.status = 'PENDING' " +
+           "ORDER BY o.createdAt")
+    List<String> findPendingDigestIds(@Param("recipient") String recipient, @Param("digestKey") String digestKey);
+    
+    /**
+     * Réserve une notification en attente avant la fin de sa fenêtre de regroupement (ajout à un récapitulatif)
+     * @param id l'ID de l'email
+     * @param leaseUntil fin du bail
+     * @return 1 si l'email a été réservé, 0 s'il ne l'est plus
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEmail o SET o.status = 'SENDING', o.nextAttemptAt = :leaseUntil " +
+           "WHERE o.id = :id AND o.status = 'PENDING'")
+    int claimPending(@Param("id") String id, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    /**
+     * Libère un email réservé qui n'a pas pu être confié à un worker (file pleine)
+     * @param id l'ID de l'email
+     * @param now date courante (l'email redevient dû immédiatement)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEmail o SET o.status = 'PENDING', o.nextAttemptAt = :now " +
+           "WHERE o.id = :id AND o.status = 'SENDING'")
+    void release(@Param("id") String id, @Param("now") LocalDateTime now);
+    
+    /**
+     * Marque un lot d'emails comme envoyés (une seule requête)
+     * @param ids les IDs des emails
+     * @param sentAt date d'envoi
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEmail o SET o.status = 'SENT', o.attempts = o.attempts + 1, o.sentAt = :sentAt, " +
+           "o.lastError = NULL WHERE o.id IN :ids")
+    void markSent(@Param("ids") Collection<String> ids, @Param("sentAt") LocalDateTime sentAt);
+    
+    /**
+     * Enregistre un échec d'envoi
+     * @param id l'ID de l'email
+     * @param status PENDING (nouvelle tentative) ou FAILED (abandon)
+     * @param nextAttemptAt date de la prochaine tentative
+     * @param error message d'erreur
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEmail o SET o.status = :status, o.attempts = o.attempts + 1, " +
+           "o.nextAttemptAt = :nextAttemptAt, o.lastError = :error WHERE o.id = :id")
+    void markFailure(@Param("id") String id, @Param("status") String status,
+                     @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+    
+    /**
+     * Supprime les emails envoyés avant une date
+     * @param before date limite
+     * @return nombre d'emails supprimés
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEmail o WHERE o.status = 'SENT' AND o.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
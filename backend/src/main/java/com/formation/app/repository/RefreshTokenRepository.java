@@ -0,0 +1,59 @@
+package com.formation.app.repository;
+
+import com.formation.app.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository pour l'entité RefreshToken
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+    
+    /**
+     * Trouve un refresh token par son empreinte
+     * @param tokenHash l'empreinte SHA-256 du token
+     * @return Optional contenant le refresh token si trouvé
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+    
+    /**
+     * Marque un refresh token comme utilisé, uniquement s'il ne l'est pas déjà
+     * @param id l'ID du refresh token
+     * @return 1 si le token a été consommé, 0 s'il l'était déjà (réutilisation)
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.id = :id AND r.revoked = false")
+    int consume(@Param("id") String id);
+    
+    /**
+     * Révoque tous les refresh tokens d'une famille (même connexion)
+     * @param familyId l'ID de la famille
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId")
+    void revokeFamily(@Param("familyId") String familyId);
+    
+    /**
+     * Supprime tous les refresh tokens d'un utilisateur
+     * @param userId l'ID de l'utilisateur
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.userId = :userId")
+    void deleteByUserId(@Param("userId") String userId);
+    
+    /**
+     * Supprime les refresh tokens expirés
+     * @param now la date courante
+     * @return nombre de tokens supprimés
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
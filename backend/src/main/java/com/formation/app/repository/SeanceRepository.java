@@ -1,8 +1,11 @@
 package com.formation.app.repository;
 
+import com.formation.app.dto.SeanceOccupation;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Formateur;
 import com.formation.app.entity.Seance;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,6 +13,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -99,6 +103,33 @@ public interface SeanceRepository extends JpaRepository<Seance, String> {
                                                    @Param("date") LocalDate date,
                                                    @Param("heure") LocalTime heure);
     
+    /**
+     * Liste les occupations de toutes les séances (chargement de l'index des conflits)
+     * @return liste des occupations, sans entité ni relation chargée
+     */
+    @Query("SELECT new com.formation.app.dto.SeanceOccupation(" +
+           "s.id, s.date, s.heure, s.dureeMinutes, s.formateur.id, s.salle, s.cours.code) " +
+           "FROM Seance s")
+    List<SeanceOccupation> findAllOccupations();
+    
+    /**
+     * Liste les occupations des séances d'un ensemble de formateurs ou de salles sur une période
+     * (vérification des conflits en base, déploiement multi-instances)
+     * @param dateDebut première date incluse
+     * @param dateFin dernière date incluse
+     * @param formateurIds les IDs des formateurs
+     * @param salles les salles
+     * @return liste des occupations, sans entité ni relation chargée
+     */
+    @Query("SELECT new com.formation.app.dto.SeanceOccupation(" +
+           "s.id, s.date, s.heure, s.dureeMinutes, s.formateur.id, s.salle, s.cours.code) " +
+           "FROM Seance s WHERE s.date BETWEEN :dateDebut AND :dateFin " +
+           "AND (s.formateur.id IN :formateurIds OR s.salle IN :salles)")
+    List<SeanceOccupation> findOccupations(@Param("dateDebut") LocalDate dateDebut,
+                                           @Param("dateFin") LocalDate dateFin,
+                                           @Param("formateurIds") Collection<String> formateurIds,
+                                           @Param("salles") Collection<String> salles);
+    
     /**
      * Trouve toutes les séances par date
      * @param date la date
@@ -122,5 +153,31 @@ public interface SeanceRepository extends JpaRepository<Seance, String> {
      */
     @Query("SELECT s FROM Seance s ORDER BY s.date, s.heure")
     List<Seance> findAllOrderByDateAndHeure();
+    
+    /**
+     * Première page des séances triées par date, heure puis ID (pagination par curseur)
+     * @param limit nombre maximum de séances
+     * @return liste des séances avec cours et formateur chargés
+     */
+    @EntityGraph(attributePaths = {"cours", "formateur"})
+    @Query("SELECT s FROM Seance s ORDER BY s.date, s.heure, s.id")
+    List<Seance> findFirstPage(Limit limit);
+    
+    /**
+     * Page de séances situées après la clé (date, heure, id) donnée
+     * @param date date de la dernière séance de la page précédente
+     * @param heure heure de la dernière séance de la page précédente
+     * @param id ID de la dernière séance de la page précédente
+     * @param limit nombre maximum de séances
+     * @return liste des séances avec cours et formateur chargés
+     */
+    @EntityGraph(attributePaths = {"cours", "formateur"})
+    @Query("SELECT s FROM Seance s " +
+           "WHERE s.date > :date " +
+           "OR (s.date = :date AND (s.heure > :heure OR (s.heure = :heure AND s.id > :id))) " +
+           "ORDER BY s.date, s.heure, s.id")
+    List<Seance> findPageAfter(@Param("date") LocalDate date,
+                               @Param("heure") LocalTime heure,
+                               @Param("id") String id,
+                               Limit limit);
 }
-
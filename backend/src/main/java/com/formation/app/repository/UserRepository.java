@@ -1,10 +1,16 @@
 package com.formation.app.repository;
 
+import com.formation.app.dto.UserIdentity;
 import com.formation.app.entity.Role;
 import com.formation.app.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,5 +40,95 @@ public interface UserRepository extends JpaRepository<User, String> {
      * @return true si l'utilisateur existe
      */
     boolean existsByLogin(String login);
+    
+    /**
+     * Filtre, parmi des logins, ceux déjà utilisés (une requête pour un lot d'import)
+     * @param logins les logins à vérifier
+     * @return les logins existants
+     */
+    @Query("SELECT u.login FROM User u WHERE u.login IN :logins")
+    List<String> findExistingLogins(@Param("logins") Collection<String> logins);
+    
+    /**
+     * Récupère uniquement la version des tokens d'un utilisateur
+     * @param id l'ID de l'utilisateur
+     * @return Optional contenant la version (0 si jamais révoquée)
+     */
+    @Query("SELECT COALESCE(u.tokenVersion, 0) FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") String id);
+    
+    /**
+     * Remplace le hash du mot de passe uniquement s'il n'a pas été modifié entre-temps
+     * @param id l'ID de l'utilisateur
+     * @param currentHash le hash lu lors de l'authentification
+     * @param newHash le nouveau hash
+     * @return nombre de lignes mises à jour (0 si le mot de passe a changé)
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :currentHash")
+    int updatePasswordIfUnchanged(@Param("id") String id,
+                                  @Param("currentHash") String currentHash,
+                                  @Param("newHash") String newHash);
+    
+    /**
+     * Résout l'utilisateur correspondant à un identifiant de connexion (login, email ou matricule
+     * d'un étudiant/formateur) avec l'ID de l'étudiant/formateur lié
+     * Le login est cherché en premier (une requête dans le cas courant), puis l'email et le matricule
+     * Seules les colonnes utiles sont lues : aucune entité chargée, donc pas de requête pour User.etudiant
+     * @param identifier le login, l'email ou le matricule saisi
+     * @return liste des identités trouvées (au plus une en pratique)
+     */
+    default List<UserIdentity> findIdentities(String identifier) {
+        Optional<UserIdentity> byLogin = findIdentityByLogin(identifier);
+        return byLogin.isPresent() ? List.of(byLogin.get()) : findIdentitiesByProfile(identifier);
+    }
+    
+    /**
+     * Identité d'un utilisateur par son login (index unique sur users.login)
+     * @param login le login saisi
+     * @return Optional contenant l'identité si trouvée
+     */
+    @Query("SELECT new com.formation.app.dto.UserIdentity(" +
+           "u.id, u.login, u.password, u.roles, u.tokenVersion, e.id, f.id) FROM User u " +
+           "LEFT JOIN Etudiant e ON e.user = u " +
+           "LEFT JOIN Formateur f ON f.user = u " +
+           "WHERE u.login = :login")
+    Optional<UserIdentity> findIdentityByLogin(@Param("login") String login);
+    
+    /**
+     * Identités dont l'étudiant ou le formateur lié a cet email ou ce matricule
+     * Une branche par colonne : chacune passe par l'index unique de sa colonne
+     * (une condition OR sur deux tables jointes imposerait un parcours complet de la jointure)
+     * @param identifier l'email ou le matricule saisi
+     * @return liste des identités trouvées
+     */
+    @Query("SELECT new com.formation.app.dto.UserIdentity(" +
+           "u.id, u.login, u.password, u.roles, u.tokenVersion, e.id, f.id) FROM Etudiant e JOIN e.user u " +
+           "LEFT JOIN Formateur f ON f.user = u WHERE e.email = :identifier " +
+           "UNION ALL " +
+           "SELECT new com.formation.app.dto.UserIdentity(" +
+           "u.id, u.login, u.password, u.roles, u.tokenVersion, e.id, f.id) FROM Etudiant e JOIN e.user u " +
+           "LEFT JOIN Formateur f ON f.user = u WHERE e.matricule = :identifier " +
+           "UNION ALL " +
+           "SELECT new com.formation.app.dto.UserIdentity(" +
+           "u.id, u.login, u.password, u.roles, u.tokenVersion, e.id, f.id) FROM Formateur f JOIN f.user u " +
+           "LEFT JOIN Etudiant e ON e.user = u WHERE f.email = :identifier " +
+           "UNION ALL " +
+           "SELECT new com.formation.app.dto.UserIdentity(" +
+           "u.id, u.login, u.password, u.roles, u.tokenVersion, e.id, f.id) FROM Formateur f JOIN f.user u " +
+           "LEFT JOIN Etudiant e ON e.user = u WHERE f.matricule = :identifier")
+    List<UserIdentity> findIdentitiesByProfile(@Param("identifier") String identifier);
+    
+    /**
+     * Charge un utilisateur par son ID avec l'ID de l'étudiant/formateur lié
+     * @param id l'ID de l'utilisateur
+     * @return Optional contenant l'identité si trouvée
+     */
+    @Query("SELECT new com.formation.app.dto.UserIdentity(" +
+           "u.id, u.login, u.password, u.roles, u.tokenVersion, e.id, f.id) FROM User u " +
+           "LEFT JOIN Etudiant e ON e.user = u " +
+           "LEFT JOIN Formateur f ON f.user = u " +
+           "WHERE u.id = :id")
+    Optional<UserIdentity> findIdentityById(@Param("id") String id);
 }
-
@@ -0,0 +1,47 @@
+package com.formation.app.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+/**
+ * Calibre le coût BCrypt sur la machine courante
+ * Chaque incrément du coût double le temps de hachage : on mesure le coût minimal
+ * puis on retient le coût le plus élevé dont la durée estimée reste sous la cible
+ */
+@Slf4j
+public final class BCryptStrengthCalibrator {
+    
+    private static final int WARMUP_ROUNDS = 2;
+    
+    private BCryptStrengthCalibrator() {
+    }
+    
+    /**
+     * Détermine le coût BCrypt pour une durée cible de vérification
+     * @param targetMillis durée cible d'une vérification de mot de passe
+     * @param minStrength coût minimal (jamais en dessous, même sur une machine lente)
+     * @param maxStrength coût maximal
+     * @return le coût retenu, entre minStrength et maxStrength
+     */
+    public static int calibrate(long targetMillis, int minStrength, int maxStrength) {
+        String salt = BCrypt.gensalt(minStrength);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            BCrypt.hashpw("calibration", salt);
+        }
+        
+        long start = System.nanoTime();
+        BCrypt.hashpw("calibration", salt);
+        double elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000.0, 0.001);
+        
+        int strength = minStrength;
+        double estimatedMillis = elapsedMillis;
+        while (strength < maxStrength && estimatedMillis * 2 <= targetMillis) {
+            strength++;
+            estimatedMillis *= 2;
+        }
+        
+        log.info("🔐 [BCRYPT] Coût calibré: {} (~{} ms par vérification, cible {} ms, mesure coût {}: {} ms)",
+                strength, Math.round(estimatedMillis), targetMillis, minStrength, Math.round(elapsedMillis));
+        return strength;
+    }
+}
@@ -0,0 +1,39 @@
+package com.formation.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compteurs de tentatives en mémoire, sans verrou : un AtomicLong par clé dans un cache Caffeine borné
+ * Les compteurs expirent après la durée fixée à la construction (le ttl par appel est ignoré)
+ */
+public class InMemoryLoginAttemptStore implements LoginAttemptStore {
+    
+    private final Cache<String, AtomicLong> counters;
+    
+    public InMemoryLoginAttemptStore(Duration ttl, long maximumSize) {
+        this.counters = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maximumSize)
+                .build();
+    }
+    
+    @Override
+    public long increment(String key, Duration ttl) {
+        return counters.get(key, k -> new AtomicLong()).incrementAndGet();
+    }
+    
+    @Override
+    public long get(String key) {
+        AtomicLong counter = counters.getIfPresent(key);
+        return counter != null ? counter.get() : 0;
+    }
+    
+    @Override
+    public void delete(String key) {
+        counters.invalidate(key);
+    }
+}
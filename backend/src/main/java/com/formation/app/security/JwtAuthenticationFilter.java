@@ -1,10 +1,12 @@
 package com.formation.app.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -18,6 +20,10 @@ import java.io.IOException;
 
 /**
  * Filtre pour intercepter les requêtes et valider les JWT tokens
+ * En mode stateless (jwt.stateless=true), l'utilisateur est reconstruit depuis les claims
+ * du token ; sa version est vérifiée (en cache) sauf si jwt.check-token-version=false
+ * Les tokens déjà vérifiés sont servis depuis VerifiedTokenCache jusqu'à leur expiration ;
+ * leur version est revérifiée à chaque requête (lecture en cache "tokenVersions")
  */
 @Component
 @RequiredArgsConstructor
@@ -25,6 +31,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenService jwtTokenService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
+    
+    // Révocation (changement de mot de passe, désactivation) : version lue en cache, évincée par UserService sur ce nœud ;
+    // les autres instances voient la nouvelle version à l'expiration de leur cache "tokenVersions" (10 minutes)
+    @Value("${jwt.check-token-version:true}")
+    private boolean checkTokenVersion;
     
     @Override
     protected void doFilterInternal(
@@ -42,7 +58,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
         
         // Vérifier si le header Authorization existe et commence par "Bearer "
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -54,34 +69,98 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
         
         try {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Token déjà vérifié : pas de vérification HMAC ni de parsing, seule la version est relue (en cache)
+                UsernamePasswordAuthenticationToken cached = verifiedTokenCache.get(jwt);
+                if (cached != null && isStillCurrent(cached)) {
+                    authenticate(request, cached);
+                } else {
+                    if (cached != null) {
+                        // Version changée depuis la mise en cache : le token est revérifié
+                        verifiedTokenCache.evictToken(jwt);
+                    }
+                    authenticateAndCache(request, jwt);
+                }
+            }
+        } catch (Exception e) {
+            // En cas d'erreur, on continue sans authentification
+            logger.error("Cannot set user authentication: {}", e);
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    /**
+     * Vérifie le token puis met l'authentification résolue en cache jusqu'à son expiration
+     */
+    private void authenticateAndCache(HttpServletRequest request, String jwt) {
+        // Vérifier la signature et l'expiration une seule fois
+        Claims claims = jwtTokenService.parseClaims(jwt);
+        
+        // Mode stateless : aucune requête base hormis la version du token (en cache)
+        UserDetailsImpl fromClaims = stateless ? jwtTokenService.extractUserDetails(claims) : null;
+        
+        UserDetails userDetails = null;
+        if (fromClaims != null) {
+            if (!checkTokenVersion || isTokenVersionCurrent(fromClaims)) {
+                userDetails = fromClaims;
+            }
+        } else {
             // Extraire le username depuis le token
-            username = jwtTokenService.extractUsername(jwt);
+            String username = claims.getSubject();
             
-            // Si le username existe et qu'il n'y a pas encore d'authentification
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (username != null) {
                 // Charger les UserDetails
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+                UserDetails loaded = this.userDetailsService.loadUserByUsername(username);
                 
                 // Valider le token
-                if (jwtTokenService.validateToken(jwt, userDetails)) {
-                    // Créer l'authentication token
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    // Définir l'authentification dans le SecurityContext
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                if (jwtTokenService.validateToken(claims, loaded)) {
+                    userDetails = loaded;
                 }
             }
-        } catch (Exception e) {
-            // En cas d'erreur, on continue sans authentification
-            logger.error("Cannot set user authentication: {}", e);
         }
         
-        filterChain.doFilter(request, response);
+        if (userDetails != null) {
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                    userDetails,
+                    null,
+                    userDetails.getAuthorities()
+            );
+            String userId = userDetails instanceof UserDetailsImpl impl ? impl.getUserId() : null;
+            verifiedTokenCache.put(jwt, authToken, userId, claims.getExpiration());
+            authenticate(request, authToken);
+        }
+    }
+    
+    /**
+     * Vérifie qu'une authentification en cache n'a pas été révoquée depuis sa mise en cache
+     * (un autre nœud a pu changer la version sans que ce cache soit évincé)
+     */
+    private boolean isStillCurrent(UsernamePasswordAuthenticationToken cached) {
+        return !checkTokenVersion
+                || !(cached.getPrincipal() instanceof UserDetailsImpl userDetails)
+                || isTokenVersionCurrent(userDetails);
+    }
+    
+    /**
+     * Vérifie que le token n'a pas été révoqué (version identique à celle de l'utilisateur)
+     */
+    private boolean isTokenVersionCurrent(UserDetailsImpl userDetails) {
+        Integer currentVersion = tokenVersionService.getCurrentVersion(userDetails.getUserId());
+        return currentVersion != null && currentVersion == userDetails.getTokenVersion();
+    }
+    
+    /**
+     * Définit l'authentification dans le SecurityContext
+     * Une copie est créée par requête : l'instance en cache est partagée entre threads
+     */
+    private void authenticate(HttpServletRequest request, UsernamePasswordAuthenticationToken verified) {
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                verified.getPrincipal(),
+                null,
+                verified.getAuthorities()
+        );
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
     }
 }
-
@@ -1,6 +1,9 @@
 package com.formation.app.security;
 
+import com.formation.app.entity.Role;
+import com.formation.app.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -8,6 +11,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,15 +19,45 @@ import java.util.function.Function;
 
 /**
  * Service pour la gestion des JWT tokens
+ * La clé HMAC et le parser sont construits une seule fois (thread-safe, réutilisés à chaque requête)
  */
 @Service
 public class JwtTokenService {
     
-    @Value("${jwt.secret}")
-    private String secret;
+    // Claims signées dans le token pour l'authentification sans accès base
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ETUDIANT_ID = "etudiantId";
+    public static final String CLAIM_FORMATEUR_ID = "formateurId";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
     
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final Long expiration;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    
+    public JwtTokenService(@Value("${jwt.secret}") String secret,
+                           @Value("${jwt.expiration}") Long expiration) {
+        this.expiration = expiration;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+    
+    /**
+     * Durée de validité des access tokens (millisecondes)
+     */
+    public long getExpiration() {
+        return expiration;
+    }
+    
+    /**
+     * Vérifie la signature et l'expiration du token et retourne ses claims
+     * Le token n'est parsé qu'une seule fois : utiliser les claims retournées pour toutes les lectures
+     */
+    public Claims parseClaims(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
     
     /**
      * Extrait le nom d'utilisateur depuis le token
@@ -43,26 +77,15 @@ public class JwtTokenService {
      * Extrait une claim spécifique depuis le token
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
     
     /**
-     * Extrait toutes les claims depuis le token
+     * Vérifie si les claims sont expirées
      */
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-    
-    /**
-     * Vérifie si le token est expiré
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
     
     /**
@@ -70,6 +93,17 @@ public class JwtTokenService {
      */
     public String generateToken(UserDetails userDetails) {
         Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof UserDetailsImpl userDetailsImpl) {
+            claims.put(CLAIM_ROLE, userDetailsImpl.getRole().name());
+            claims.put(CLAIM_USER_ID, userDetailsImpl.getUserId());
+            claims.put(CLAIM_TOKEN_VERSION, userDetailsImpl.getTokenVersion());
+            if (userDetailsImpl.getEtudiantId() != null) {
+                claims.put(CLAIM_ETUDIANT_ID, userDetailsImpl.getEtudiantId());
+            }
+            if (userDetailsImpl.getFormateurId() != null) {
+                claims.put(CLAIM_FORMATEUR_ID, userDetailsImpl.getFormateurId());
+            }
+        }
         return createToken(claims, userDetails.getUsername());
     }
     
@@ -85,12 +119,13 @@ public class JwtTokenService {
      * Crée un token JWT
      */
     private String createToken(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey)
                 .compact();
     }
     
@@ -98,16 +133,42 @@ public class JwtTokenService {
      * Valide un token
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(parseClaims(token), userDetails);
+    }
+    
+    /**
+     * Valide des claims déjà vérifiées pour un utilisateur
+     */
+    public boolean validateToken(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !isTokenExpired(claims);
     }
     
     /**
-     * Obtient la clé de signature
+     * Reconstruit les UserDetails à partir des claims signées du token
+     * @return null si le token ne contient pas les claims d'identité (ancien format)
      */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public UserDetailsImpl extractUserDetails(String token) {
+        return extractUserDetails(parseClaims(token));
+    }
+    
+    /**
+     * Reconstruit les UserDetails à partir de claims déjà vérifiées
+     * @return null si les claims d'identité sont absentes (ancien format)
+     */
+    public UserDetailsImpl extractUserDetails(Claims claims) {
+        String role = claims.get(CLAIM_ROLE, String.class);
+        String userId = claims.get(CLAIM_USER_ID, String.class);
+        if (role == null || userId == null) {
+            return null;
+        }
+        
+        User user = new User(userId, claims.getSubject(), null, Role.valueOf(role));
+        Integer version = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        user.setTokenVersion(version != null ? version : 0);
+        return new UserDetailsImpl(
+                user,
+                claims.get(CLAIM_ETUDIANT_ID, String.class),
+                claims.get(CLAIM_FORMATEUR_ID, String.class)
+        );
     }
 }
-
@@ -0,0 +1,32 @@
+package com.formation.app.security;
+
+import java.time.Duration;
+
+/**
+ * Stockage des compteurs de tentatives de connexion (par fenêtre de temps)
+ * L'implémentation par défaut est en mémoire (InMemoryLoginAttemptStore) ;
+ * déclarer un bean de ce type (Redis, base...) pour partager les compteurs entre plusieurs nœuds
+ */
+public interface LoginAttemptStore {
+    
+    /**
+     * Incrémente un compteur et retourne sa nouvelle valeur
+     * @param key la clé du compteur (identifiant + fenêtre)
+     * @param ttl durée de conservation du compteur
+     * @return la valeur après incrément
+     */
+    long increment(String key, Duration ttl);
+    
+    /**
+     * Lit la valeur d'un compteur
+     * @param key la clé du compteur
+     * @return la valeur, 0 si le compteur n'existe pas ou a expiré
+     */
+    long get(String key);
+    
+    /**
+     * Supprime un compteur
+     * @param key la clé du compteur
+     */
+    void delete(String key);
+}
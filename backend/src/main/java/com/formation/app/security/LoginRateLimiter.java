@@ -0,0 +1,184 @@
+package com.formation.app.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limiteur de tentatives de connexion à fenêtre glissante, par IP et par login
+ * - IP : toutes les tentatives sont comptées (rafales de credential stuffing) ; l'IP est celle du client,
+ *   résolue derrière le reverse proxy (server.forward-headers-strategy)
+ * - Login : seuls les échecs sont comptés, remis à zéro après une connexion réussie ; la clé est l'identifiant
+ *   saisi normalisé (espaces retirés, minuscules), sans accès base : un identifiant inventé ne coûte aucune requête
+ * La fenêtre glissante est estimée à partir de deux fenêtres fixes (courante + précédente pondérée)
+ * Métriques : auth.login.attempts{result=allowed|rejected_ip|rejected_login}
+ */
+@Component
+@Slf4j
+public class LoginRateLimiter {
+    
+    // Store partagé optionnel (plusieurs nœuds) ; sinon compteurs en mémoire
+    @Autowired(required = false)
+    private LoginAttemptStore sharedStore;
+    
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    
+    @Value("${security.login-rate-limit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${security.login-rate-limit.window-seconds:60}")
+    private long windowSeconds;
+    
+    @Value("${security.login-rate-limit.max-attempts-per-ip:30}")
+    private int maxAttemptsPerIp;
+    
+    @Value("${security.login-rate-limit.max-failures-per-login:5}")
+    private int maxFailuresPerLogin;
+    
+    @Value("${security.login-rate-limit.maximum-keys:100000}")
+    private long maximumKeys;
+    
+    private LoginAttemptStore store;
+    private Counter allowedCounter;
+    private Counter rejectedIpCounter;
+    private Counter rejectedLoginCounter;
+    
+    @PostConstruct
+    void init() {
+        store = sharedStore != null ? sharedStore : new InMemoryLoginAttemptStore(ttl(), maximumKeys);
+        if (meterRegistry != null) {
+            allowedCounter = attemptsCounter("allowed");
+            rejectedIpCounter = attemptsCounter("rejected_ip");
+            rejectedLoginCounter = attemptsCounter("rejected_login");
+        }
+    }
+    
+    /**
+     * Enregistre une tentative et indique si elle peut être traitée
+     * @return false si l'IP ou le login a dépassé sa limite
+     */
+    public boolean tryAcquire(String ip, String login) {
+        return tryAcquireLogin(login) && tryAcquireIp(ip);
+    }
+    
+    /**
+     * Enregistre une tentative depuis une IP et indique si elle peut être traitée
+     * Vérifiée en premier : une rafale refusée ne touche pas au compteur du login
+     * @return false si l'IP a dépassé sa limite
+     */
+    public boolean tryAcquireIp(String ip) {
+        if (!enabled) {
+            return true;
+        }
+        
+        if (estimate(ipKey(ip), System.currentTimeMillis(), true) > maxAttemptsPerIp) {
+            increment(rejectedIpCounter);
+            log.warn("🚫 [RATE LIMIT] Trop de tentatives depuis l'IP: {}", ip);
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Indique si une tentative peut être traitée au regard des échecs récents de ce login
+     * @return false si le login a dépassé sa limite
+     */
+    public boolean tryAcquireLogin(String login) {
+        if (!enabled) {
+            return true;
+        }
+        
+        if (estimate(loginKey(login), System.currentTimeMillis(), false) >= maxFailuresPerLogin) {
+            increment(rejectedLoginCounter);
+            log.warn("🚫 [RATE LIMIT] Trop d'échecs pour le login: {}", login);
+            return false;
+        }
+        
+        increment(allowedCounter);
+        return true;
+    }
+    
+    /**
+     * Enregistre un échec d'authentification pour un login
+     */
+    public void recordFailure(String login) {
+        if (enabled) {
+            store.increment(bucketKey(loginKey(login), currentBucket(System.currentTimeMillis())), ttl());
+        }
+    }
+    
+    /**
+     * Remet à zéro les échecs d'un login après une connexion réussie
+     */
+    public void recordSuccess(String login) {
+        if (enabled) {
+            long bucket = currentBucket(System.currentTimeMillis());
+            store.delete(bucketKey(loginKey(login), bucket));
+            store.delete(bucketKey(loginKey(login), bucket - 1));
+        }
+    }
+    
+    /**
+     * Durée de la fenêtre (utilisée pour l'en-tête Retry-After)
+     */
+    public long getWindowSeconds() {
+        return windowSeconds;
+    }
+    
+    /**
+     * Estime le nombre d'événements sur la fenêtre glissante se terminant maintenant
+     */
+    private double estimate(String key, long now, boolean record) {
+        long windowMillis = windowSeconds * 1000;
+        long bucket = currentBucket(now);
+        double elapsed = (now % windowMillis) / (double) windowMillis;
+        
+        long current = record
+                ? store.increment(bucketKey(key, bucket), ttl())
+                : store.get(bucketKey(key, bucket));
+        long previous = store.get(bucketKey(key, bucket - 1));
+        return current + previous * (1 - elapsed);
+    }
+    
+    // Les compteurs restent lisibles pendant la fenêtre suivante
+    private Duration ttl() {
+        return Duration.ofSeconds(windowSeconds * 2);
+    }
+    
+    private long currentBucket(long now) {
+        return now / (windowSeconds * 1000);
+    }
+    
+    private static String bucketKey(String key, long bucket) {
+        return key + ":" + bucket;
+    }
+    
+    private static String ipKey(String ip) {
+        return "ip:" + ip;
+    }
+    
+    private static String loginKey(String login) {
+        return "login:" + (login != null ? login.trim().toLowerCase(Locale.ROOT) : "");
+    }
+    
+    private Counter attemptsCounter(String result) {
+        return Counter.builder("auth.login.attempts")
+                .description("Tentatives de connexion filtrées par le limiteur")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.formation.app.security;
+
+import com.formation.app.entity.RefreshToken;
+import com.formation.app.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Service pour la gestion des refresh tokens (opaques, à usage unique)
+ * Chaque échange consomme le token et en émet un nouveau dans la même famille :
+ * la réutilisation d'un token déjà échangé révoque toute la famille
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class RefreshTokenService {
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    private final RefreshTokenRepository refreshTokenRepository;
+    
+    @Value("${jwt.refresh-expiration:2592000000}")
+    private long refreshExpiration;
+    
+    /**
+     * Résultat d'un échange : utilisateur concerné et nouveau refresh token
+     */
+    public record Rotation(String userId, String refreshToken) {
+    }
+    
+    /**
+     * Émet un refresh token pour une nouvelle connexion
+     * @return le token opaque à transmettre au client
+     */
+    public String issue(String userId) {
+        return issue(userId, UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Échange un refresh token contre un nouveau (rotation)
+     * @throws BadCredentialsException si le token est inconnu, expiré ou déjà utilisé
+     */
+    @Transactional(noRollbackFor = BadCredentialsException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new BadCredentialsException("Refresh token invalide"));
+        
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new BadCredentialsException("Refresh token expiré");
+        }
+        
+        if (refreshTokenRepository.consume(current.getId()) == 0) {
+            // Token déjà échangé : probable vol, toute la connexion est révoquée
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            log.warn("⚠️ [REFRESH] Réutilisation d'un refresh token pour l'utilisateur {}, famille révoquée",
+                    current.getUserId());
+            throw new BadCredentialsException("Refresh token déjà utilisé");
+        }
+        
+        return new Rotation(current.getUserId(), issue(current.getUserId(), current.getFamilyId()));
+    }
+    
+    /**
+     * Révoque la connexion associée à un refresh token (déconnexion)
+     */
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+    
+    /**
+     * Supprime tous les refresh tokens d'un utilisateur (changement de mot de passe, suppression)
+     */
+    public void revokeAll(String userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+    
+    /**
+     * Purge périodique des refresh tokens expirés
+     */
+    @Scheduled(cron = "${jwt.refresh-purge-cron:0 0 3 * * *}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("🧹 [REFRESH] {} refresh tokens expirés supprimés", deleted);
+        }
+    }
+    
+    private String issue(String userId, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        
+        RefreshToken refreshToken = new RefreshToken(
+                UUID.randomUUID().toString(),
+                hash(rawToken),
+                userId,
+                familyId,
+                LocalDateTime.now().plus(Duration.ofMillis(refreshExpiration)),
+                false
+        );
+        refreshTokenRepository.save(refreshToken);
+        return rawToken;
+    }
+    
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponible", e);
+        }
+    }
+}
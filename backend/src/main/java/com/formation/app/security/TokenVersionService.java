@@ -0,0 +1,37 @@
+package com.formation.app.security;
+
+import com.formation.app.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service pour la vérification de la version des tokens JWT (révocation)
+ * La version est mise en cache : UserService l'évince après la validation d'une révocation
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenVersionService {
+    
+    private final UserRepository userRepository;
+    
+    /**
+     * Obtient la version courante des tokens d'un utilisateur
+     * @return la version, ou null si l'utilisateur n'existe plus
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = "tokenVersions", key = "#userId")
+    public Integer getCurrentVersion(String userId) {
+        return userRepository.findTokenVersionById(userId).orElse(null);
+    }
+    
+    /**
+     * Retire la version en cache ; à appeler une fois la nouvelle version validée en base,
+     * sinon une lecture concurrente peut remettre l'ancienne version en cache
+     */
+    @CacheEvict(value = "tokenVersions", key = "#userId")
+    public void evict(String userId) {
+    }
+}
@@ -1,8 +1,8 @@
 package com.formation.app.security;
 
+import com.formation.app.dto.UserIdentity;
 import com.formation.app.entity.Role;
 import com.formation.app.entity.User;
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -14,12 +14,36 @@ import java.util.Collections;
 /**
  * Implémentation de UserDetails pour Spring Security
  */
-@AllArgsConstructor
 @Getter
 public class UserDetailsImpl implements UserDetails {
     
     private User user;
     
+    // Identifiants du profil lié (null si non applicable ou non résolu)
+    private String etudiantId;
+    private String formateurId;
+    
+    public UserDetailsImpl(User user) {
+        this.user = user;
+    }
+    
+    public UserDetailsImpl(User user, String etudiantId, String formateurId) {
+        this.user = user;
+        this.etudiantId = etudiantId;
+        this.formateurId = formateurId;
+    }
+    
+    /**
+     * À partir d'une identité lue en colonnes : l'utilisateur est reconstruit sans être chargé
+     * (détaché, sans relation étudiant)
+     */
+    public UserDetailsImpl(UserIdentity identity) {
+        this.user = new User(identity.getId(), identity.getLogin(), identity.getPassword(), identity.getRoles());
+        this.user.setTokenVersion(identity.getTokenVersion());
+        this.etudiantId = identity.getEtudiantId();
+        this.formateurId = identity.getFormateurId();
+    }
+    
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         // Convertir le rôle en GrantedAuthority
@@ -69,5 +93,11 @@ public class UserDetailsImpl implements UserDetails {
     public String getUserId() {
         return user.getId();
     }
+    
+    /**
+     * Obtient la version des tokens de l'utilisateur
+     */
+    public int getTokenVersion() {
+        return user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+    }
 }
-
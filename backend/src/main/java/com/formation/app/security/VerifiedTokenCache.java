@@ -0,0 +1,89 @@
+package com.formation.app.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Cache des tokens JWT déjà vérifiés (signature, expiration, version)
+ * Clé : empreinte SHA-256 du token (le token brut n'est jamais conservé)
+ * Chaque entrée expire à la date "exp" du token (voir CacheConfig)
+ */
+@Component
+public class VerifiedTokenCache {
+    
+    private final Cache<Object, Object> cache;
+    
+    public VerifiedTokenCache(@Qualifier("verifiedTokenCaffeineCache") Cache<Object, Object> cache) {
+        this.cache = cache;
+    }
+    
+    /**
+     * Authentification résolue pour un token, valable jusqu'à son expiration
+     */
+    public record CachedAuthentication(
+            UsernamePasswordAuthenticationToken authentication,
+            String userId,
+            long expiresAtMillis
+    ) {
+    }
+    
+    /**
+     * Obtient l'authentification d'un token déjà vérifié
+     * @return null si le token n'est pas en cache ou a expiré
+     */
+    public UsernamePasswordAuthenticationToken get(String token) {
+        Object value = cache.getIfPresent(digest(token));
+        if (value instanceof CachedAuthentication cached
+                && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return cached.authentication();
+        }
+        return null;
+    }
+    
+    /**
+     * Met en cache l'authentification d'un token vérifié jusqu'à son expiration
+     */
+    public void put(String token, UsernamePasswordAuthenticationToken authentication, String userId, Date expiration) {
+        if (expiration == null) {
+            return;
+        }
+        cache.put(digest(token), new CachedAuthentication(authentication, userId, expiration.getTime()));
+    }
+    
+    /**
+     * Retire un token du cache (déconnexion)
+     */
+    public void evictToken(String token) {
+        cache.invalidate(digest(token));
+    }
+    
+    /**
+     * Retire tous les tokens d'un utilisateur (changement de mot de passe, révocation, suppression)
+     */
+    public void evictUser(String userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.asMap().values().removeIf(value ->
+                value instanceof CachedAuthentication cached && Objects.equals(userId, cached.userId()));
+    }
+    
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponible", e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.formation.app.service;
+
+import com.formation.app.dto.CoursSuivi;
+import com.formation.app.exception.BadRequestException;
+import com.formation.app.repository.CoursRepository;
+import com.formation.app.repository.InscriptionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Classement des cours les plus suivis, servi depuis un instantané en mémoire
+ * - une requête agrégée (GROUP BY sur les inscriptions actives) calcule les statistiques.classement.taille premiers cours
+ * - l'instantané est recalculé toutes les statistiques.classement.refresh-interval-ms :
+ *   les lectures du dashboard n'interrogent pas la base
+ * - le classement peut donc avoir jusqu'à un intervalle de retard sur les inscriptions
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CoursClassementService {
+    
+    private final InscriptionRepository inscriptionRepository;
+    private final CoursRepository coursRepository;
+    
+    // Nombre de cours conservés dans le classement
+    @Value("${statistiques.classement.taille:10}")
+    private int taille;
+    
+    private volatile Classement classement;
+    
+    /**
+     * Cours les plus suivis, par nombre d'inscriptions actives décroissant
+     * @param limit nombre de cours (plafonné à statistiques.classement.taille)
+     */
+    public List<CoursSuivi> getCoursPlusSuivis(int limit) {
+        if (limit < 1) {
+            throw new BadRequestException("Nombre de cours invalide: limit >= 1");
+        }
+        List<CoursSuivi> cours = getClassement().cours();
+        return cours.subList(0, Math.min(limit, cours.size()));
+    }
+    
+    /**
+     * Instantané courant (calculé au premier appel s'il n'existe pas encore)
+     */
+    public Classement getClassement() {
+        Classement courant = classement;
+        if (courant == null) {
+            synchronized (this) {
+                courant = classement;
+                if (courant == null) {
+                    courant = rafraichir();
+                }
+            }
+        }
+        return courant;
+    }
+    
+    /**
+     * Recalcule le classement et le nombre de cours, puis remplace l'instantané
+     */
+    @Scheduled(fixedDelayString = "${statistiques.classement.refresh-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public Classement rafraichir() {
+        long start = System.currentTimeMillis();
+        List<CoursSuivi> cours = List.copyOf(inscriptionRepository.findCoursPlusSuivis(PageRequest.of(0, taille)));
+        Classement nouveau = new Classement(cours, coursRepository.count(), LocalDateTime.now());
+        classement = nouveau;
+        log.debug("✅ [STATISTIQUES] Classement des cours recalculé ({} cours) en {} ms", cours.size(),
+                System.currentTimeMillis() - start);
+        return nouveau;
+    }
+    
+    /**
+     * Instantané immuable du classement
+     * @param cours cours les plus suivis, du plus suivi au moins suivi
+     * @param nombreTotalCours nombre de cours au moment du calcul
+     * @param dateCalcul date du calcul
+     */
+    public record Classement(List<CoursSuivi> cours, long nombreTotalCours, LocalDateTime dateCalcul) {
+    }
+}
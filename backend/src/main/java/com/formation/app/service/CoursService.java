@@ -1,24 +1,35 @@
 package com.formation.app.service;
 
+import com.formation.app.dto.CursorPage;
 import com.formation.app.entity.Cours;
+import com.formation.app.entity.CoursGroupe;
 import com.formation.app.entity.Formateur;
 import com.formation.app.entity.Groupe;
+import com.formation.app.entity.Seance;
 import com.formation.app.entity.Session;
 import com.formation.app.exception.BadRequestException;
 import com.formation.app.exception.ResourceNotFoundException;
+import com.formation.app.pagination.Keyset;
+import com.formation.app.planning.SeanceConflictIndex;
 import com.formation.app.repository.CoursGroupeRepository;
 import com.formation.app.repository.CoursRepository;
 import com.formation.app.repository.FormateurRepository;
 import com.formation.app.repository.GroupeRepository;
 import com.formation.app.repository.SessionRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service pour la gestion des cours
@@ -33,6 +44,8 @@ public class CoursService {
     private final SessionRepository sessionRepository;
     private final GroupeRepository groupeRepository;
     private final CoursGroupeRepository coursGroupeRepository;
+    private final SeanceConflictIndex conflictIndex;
+    private final EntityManager entityManager;
     
     /**
      * Crée un nouveau cours
@@ -106,7 +119,10 @@ public class CoursService {
     @CacheEvict(value = "cours", allEntries = true)
     public void deleteCours(String code) {
         Cours cours = getCoursByCode(code);
+        List<String> seanceIds = cours.getSeances().stream().map(Seance::getId).toList();
         coursRepository.delete(cours);
+        // Séances supprimées en cascade : créneaux libérés dans l'index des conflits après validation
+        conflictIndex.release(seanceIds);
     }
     
     /**
@@ -118,6 +134,19 @@ public class CoursService {
         return coursRepository.findAll();
     }
     
+    /**
+     * Liste les cours par page, triés par code (pagination par curseur)
+     * @param cursor curseur de la page précédente (null pour la première page)
+     * @param size taille de page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Cours> getCoursPage(String cursor, int size) {
+        int pageSize = Keyset.pageSize(size);
+        String after = Keyset.isFirstPage(cursor) ? "" : Keyset.decode(cursor, 1)[0];
+        List<Cours> cours = coursRepository.findByCodeGreaterThanOrderByCodeAsc(after, Keyset.limit(pageSize));
+        return Keyset.page(cours, pageSize, c -> new Object[]{c.getCode()});
+    }
+    
     /**
      * Trouve un cours par son code
      */
@@ -170,22 +199,26 @@ public class CoursService {
     public void assignToGroupes(String coursCode, List<String> groupeIds) {
         Cours cours = getCoursByCode(coursCode);
         
+        // Charger tous les groupes en une requête (doublons ignorés)
+        Set<String> ids = new LinkedHashSet<>(groupeIds);
+        Map<String, Groupe> groupes = groupeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Groupe::getId, Function.identity()));
+        for (String groupeId : ids) {
+            if (!groupes.containsKey(groupeId)) {
+                throw new ResourceNotFoundException("Groupe", "id", groupeId);
+            }
+        }
+        
         // Supprimer les associations existantes
         coursGroupeRepository.deleteByCoursCode(coursCode);
         
-        // Créer les nouvelles associations
-        for (String groupeId : groupeIds) {
-            Groupe groupe = groupeRepository.findById(groupeId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Groupe", "id", groupeId));
-            
-            // Vérifier si l'association existe déjà
-            if (!coursGroupeRepository.existsByCoursCodeAndGroupeId(coursCode, groupeId)) {
-                com.formation.app.entity.CoursGroupe coursGroupe = new com.formation.app.entity.CoursGroupe();
-                coursGroupe.setId(UUID.randomUUID().toString());
-                coursGroupe.setCours(cours);
-                coursGroupe.setGroupe(groupe);
-                coursGroupeRepository.save(coursGroupe);
-            }
+        // Créer les nouvelles associations (insertions envoyées par lots JDBC)
+        for (String groupeId : ids) {
+            CoursGroupe coursGroupe = new CoursGroupe();
+            coursGroupe.setId(UUID.randomUUID().toString());
+            coursGroupe.setCours(cours);
+            coursGroupe.setGroupe(groupes.get(groupeId));
+            entityManager.persist(coursGroupe);
         }
     }
     
@@ -0,0 +1,291 @@
+package com.formation.app.service;
+
+import com.formation.app.entity.OutboxEmail;
+import com.formation.app.repository.OutboxEmailRepository;
+import com.formation.app.template.EmailTemplate;
+import com.formation.app.template.EmailTemplates;
+import com.formation.app.template.RenderedEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Envoi en arrière-plan des emails de l'outbox
+ * - Chaque passage (poll-interval-ms) réserve les emails dus (bail), les regroupe par destinataire,
+ *   puis répartit les messages en lots de smtp-batch-size
+ * - Chaque lot est confié au pool borné emailDispatchExecutor et envoyé sur une seule connexion SMTP
+ * - En cas d'échec SMTP : nouvelle tentative avec backoff exponentiel, abandon (FAILED) après max-attempts
+ * - Un email réservé par un envoi interrompu (arrêt, crash) est repris à l'expiration de son bail
+ * - Les notifications regroupables (digestKey) d'un même destinataire sont fusionnées en un seul récapitulatif
+ * Métriques : notification.outbox.deliveries{result=sent|retry|failed}, notification.outbox.coalesced
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+    
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final EmailService emailService;
+    private final EmailTemplates emailTemplates;
+    private final Executor emailDispatchExecutor;
+    
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+    
+    @Value("${notification.outbox.batch-size:50}")
+    private int batchSize;
+    
+    @Value("${notification.outbox.smtp-batch-size:20}")
+    private int smtpBatchSize;
+    
+    @Value("${notification.outbox.max-attempts:6}")
+    private int maxAttempts;
+    
+    @Value("${notification.outbox.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+    
+    @Value("${notification.outbox.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+    
+    @Value("${notification.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+    
+    @Value("${notification.outbox.retention-days:7}")
+    private long retentionDays;
+    
+    private Counter sentCounter;
+    private Counter retryCounter;
+    private Counter failedCounter;
+    private Counter coalescedCounter;
+    
+    @PostConstruct
+    void init() {
+        if (meterRegistry != null) {
+            sentCounter = deliveriesCounter("sent");
+            retryCounter = deliveriesCounter("retry");
+            failedCounter = deliveriesCounter("failed");
+            coalescedCounter = Counter.builder("notification.outbox.coalesced").register(meterRegistry);
+        }
+    }
+    
+    /**
+     * Réserve les emails dus, les regroupe par destinataire puis confie les lots aux workers
+     * Le regroupement précède le découpage en lots : un destinataire reçoit un seul récapitulatif par passage
+     */
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> claimedIds = new ArrayList<>();
+        for (String id : outboxEmailRepository.findDueIds(now, Limit.of(batchSize))) {
+            // Un seul passage (ou nœud) obtient la réservation
+            if (outboxEmailRepository.claim(id, now, now.plusSeconds(leaseSeconds)) == 1) {
+                claimedIds.add(id);
+            }
+        }
+        if (claimedIds.isEmpty()) {
+            return;
+        }
+        
+        List<List<OutboxEmail>> groups = coalesce(outboxEmailRepository.findAllById(claimedIds));
+        for (int from = 0; from < groups.size(); from += smtpBatchSize) {
+            List<List<OutboxEmail>> batch = groups.subList(from, Math.min(from + smtpBatchSize, groups.size()));
+            if (!submit(batch)) {
+                // File pleine : ce lot et les suivants sont libérés et repris au prochain passage
+                groups.subList(from, groups.size()).forEach(group ->
+                        group.forEach(email -> outboxEmailRepository.release(email.getId(), now)));
+                log.warn("⚠️ [OUTBOX] File d'envoi pleine, reprise au prochain passage");
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Confie un lot de messages (un groupe par message) à un worker
+     * @return false si la file des workers est pleine
+     */
+    private boolean submit(List<List<OutboxEmail>> batch) {
+        try {
+            List<List<OutboxEmail>> messages = List.copyOf(batch);
+            emailDispatchExecutor.execute(() -> deliverGroups(messages));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Envoie un lot d'emails réservés sur une seule connexion SMTP et enregistre les résultats
+     */
+    void deliver(List<String> ids) {
+        List<OutboxEmail> emails = outboxEmailRepository.findAllById(ids);
+        if (!emails.isEmpty()) {
+            deliverGroups(coalesce(emails));
+        }
+    }
+    
+    /**
+     * Envoie un message par groupe (l'email seul, ou le récapitulatif de ses notifications regroupées)
+     * sur une seule connexion SMTP et enregistre les résultats
+     */
+    private void deliverGroups(List<List<OutboxEmail>> groups) {
+        List<OutboxEmail> messages = new ArrayList<>(groups.size());
+        for (List<OutboxEmail> group : groups) {
+            messages.add(group.size() == 1 ? group.get(0) : digest(group));
+        }
+        
+        Map<String, Exception> failures;
+        try {
+            failures = emailService.deliverBatch(messages);
+        } catch (Exception e) {
+            // Erreur de connexion ou d'authentification : tout le lot est en échec
+            failures = new HashMap<>();
+            for (OutboxEmail message : messages) {
+                failures.put(message.getId(), e);
+            }
+        }
+        
+        List<String> sentIds = new ArrayList<>();
+        for (List<OutboxEmail> group : groups) {
+            // L'ID du message est celui de la notification la plus ancienne du groupe
+            Exception error = failures.get(group.get(0).getId());
+            if (error == null) {
+                group.forEach(email -> sentIds.add(email.getId()));
+                increment(coalescedCounter, group.size() - 1);
+            } else {
+                group.forEach(email -> recordFailure(email, error));
+            }
+        }
+        if (!sentIds.isEmpty()) {
+            outboxEmailRepository.markSent(sentIds, LocalDateTime.now());
+            increment(sentCounter, sentIds.size());
+        }
+    }
+    
+    /**
+     * Regroupe les notifications par destinataire et récapitulatif, en réservant aussi celles du
+     * même destinataire encore dans leur fenêtre de regroupement
+     * @return les groupes, chacun trié du plus ancien au plus récent (l'ID du message est celui du premier)
+     */
+    private List<List<OutboxEmail>> coalesce(List<OutboxEmail> emails) {
+        Map<String, List<OutboxEmail>> groups = new LinkedHashMap<>();
+        for (OutboxEmail email : emails) {
+            String key = email.getDigestKey() == null
+                    ? email.getId()
+                    : email.getDigestKey() + "|" + email.getRecipient();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(email);
+        }
+        
+        LocalDateTime leaseUntil = LocalDateTime.now().plusSeconds(leaseSeconds);
+        for (List<OutboxEmail> group : groups.values()) {
+            OutboxEmail first = group.get(0);
+            if (first.getDigestKey() != null) {
+                List<String> pendingIds = new ArrayList<>();
+                for (String id : outboxEmailRepository.findPendingDigestIds(first.getRecipient(), first.getDigestKey())) {
+                    if (outboxEmailRepository.claimPending(id, leaseUntil) == 1) {
+                        pendingIds.add(id);
+                    }
+                }
+                if (!pendingIds.isEmpty()) {
+                    group.addAll(outboxEmailRepository.findAllById(pendingIds));
+                }
+                group.sort(Comparator.comparing(OutboxEmail::getCreatedAt));
+            }
+        }
+        return new ArrayList<>(groups.values());
+    }
+    
+    /**
+     * Construit le récapitulatif d'un groupe de notifications (non enregistré dans l'outbox)
+     */
+    private OutboxEmail digest(List<OutboxEmail> group) {
+        OutboxEmail first = group.get(0);
+        String lines = group.stream()
+                .map(email -> "- " + email.getDigestLine())
+                .collect(Collectors.joining("\n"));
+        RenderedEmail rendered = emailTemplates.render(EmailTemplate.valueOf(first.getDigestKey()),
+                String.valueOf(group.size()), lines);
+        
+        OutboxEmail message = new OutboxEmail();
+        message.setId(first.getId());
+        message.setRecipient(first.getRecipient());
+        message.setSubject(rendered.subject());
+        message.setBody(rendered.text());
+        message.setHtmlBody(rendered.html());
+        return message;
+    }
+    
+    private void recordFailure(OutboxEmail email, Exception e) {
+        int attempts = email.getAttempts() + 1;
+        String error = truncate(e.getMessage());
+        if (attempts >= maxAttempts) {
+            outboxEmailRepository.markFailure(email.getId(), OutboxEmail.STATUS_FAILED, LocalDateTime.now(), error);
+            increment(failedCounter, 1);
+            log.error("❌ [OUTBOX] Abandon de l'email {} à {} après {} tentatives: {}",
+                    email.getId(), email.getRecipient(), attempts, error);
+        } else {
+            Duration backoff = backoff(attempts);
+            outboxEmailRepository.markFailure(email.getId(), OutboxEmail.STATUS_PENDING,
+                    LocalDateTime.now().plus(backoff), error);
+            increment(retryCounter, 1);
+            log.warn("⚠️ [OUTBOX] Échec d'envoi de l'email {} à {} (tentative {}), nouvel essai dans {}s: {}",
+                    email.getId(), email.getRecipient(), attempts, backoff.toSeconds(), error);
+        }
+    }
+    
+    /**
+     * Supprime les emails envoyés depuis plus de retention-days jours
+     */
+    @Scheduled(cron = "${notification.outbox.purge-cron:0 30 3 * * *}")
+    public void purgeSent() {
+        int deleted = outboxEmailRepository.deleteSentBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("🧹 [OUTBOX] {} emails envoyés supprimés", deleted);
+        }
+    }
+    
+    /**
+     * Délai avant la tentative suivante : initial * 2^(tentatives - 1), plafonné
+     */
+    Duration backoff(int attempts) {
+        long seconds = initialBackoffSeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, maxBackoffSeconds));
+    }
+    
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+    
+    private Counter deliveriesCounter(String result) {
+        return Counter.builder("notification.outbox.deliveries")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    private void increment(Counter counter, int amount) {
+        if (counter != null && amount > 0) {
+            counter.increment(amount);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.formation.app.service;
+
+import com.formation.app.entity.OutboxEmail;
+import com.formation.app.template.EmailTemplate;
+import com.formation.app.template.RenderedEmail;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Service d'enregistrement des emails dans l'outbox
+ * L'enregistrement rejoint la transaction de l'appelant : l'email n'est envoyé que si
+ * l'opération métier est validée, et l'appelant n'attend jamais le serveur SMTP
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class EmailOutboxService {
+    
+    private final EntityManager entityManager;
+    
+    // Fenêtre de regroupement des notifications par destinataire (0 : envoi individuel)
+    @Value("${notification.digest.window-minutes:5}")
+    private long digestWindowMinutes;
+    
+    /**
+     * Met un email en file d'envoi (texte brut)
+     */
+    public OutboxEmail enqueue(String to, String subject, String text) {
+        return enqueue(to, new RenderedEmail(subject, text, null));
+    }
+    
+    /**
+     * Met un email rendu depuis un template en file d'envoi (texte et alternative HTML)
+     */
+    public OutboxEmail enqueue(String to, RenderedEmail rendered) {
+        LocalDateTime now = LocalDateTime.now();
+        return save(to, rendered, now, null, null);
+    }
+    
+    /**
+     * Met en file une notification regroupable : elle attend la fin de la fenêtre de regroupement,
+     * puis est envoyée avec les autres notifications en attente du même destinataire dans un seul récapitulatif
+     * @param digest template du récapitulatif
+     * @param digestLine ligne de la notification dans le récapitulatif
+     */
+    public OutboxEmail enqueueDigest(String to, RenderedEmail rendered, EmailTemplate digest, String digestLine) {
+        LocalDateTime now = LocalDateTime.now();
+        if (digestWindowMinutes <= 0) {
+            return save(to, rendered, now, null, null);
+        }
+        return save(to, rendered, now.plusMinutes(digestWindowMinutes), digest.name(), digestLine);
+    }
+    
+    private OutboxEmail save(String to, RenderedEmail rendered, LocalDateTime sendAt, String digestKey, String digestLine) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEmail email = new OutboxEmail(
+                UUID.randomUUID().toString(),
+                to,
+                rendered.subject(),
+                rendered.text(),
+                rendered.html(),
+                OutboxEmail.STATUS_PENDING,
+                0,
+                sendAt,
+                now,
+                null,
+                null,
+                digestKey,
+                digestLine
+        );
+        // persist : pas de SELECT préalable (save sur un ID assigné ferait un merge)
+        entityManager.persist(email);
+        return email;
+    }
+}
@@ -1,12 +1,26 @@
 package com.formation.app.service;
 
+import com.formation.app.entity.OutboxEmail;
+import com.formation.app.template.EmailTemplate;
+import com.formation.app.template.EmailTemplates;
+import com.formation.app.template.RenderedEmail;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Service pour l'envoi d'emails
  * Si JavaMailSender n'est pas configuré, les emails seront seulement loggés
@@ -18,6 +32,9 @@ public class EmailService {
     @Autowired(required = false)
     private JavaMailSender mailSender;
     
+    @Autowired
+    private EmailTemplates emailTemplates;
+    
     @Value("${spring.mail.username:}")
     private String fromEmail;
     
@@ -29,25 +46,7 @@ public class EmailService {
      */
     public void sendEmail(String to, String subject, String text) {
         try {
-            if (mailSender != null) {
-                // Envoyer l'email via SMTP si configuré
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setFrom(fromEmail.isEmpty() ? "noreply@formation.com" : fromEmail);
-                message.setTo(to);
-                message.setSubject(subject);
-                message.setText(text);
-                
-                mailSender.send(message);
-                log.info("✅ Email envoyé avec succès à: {}", to);
-            } else {
-                // Si le serveur SMTP n'est pas configuré, logger seulement
-                log.info("=== EMAIL (SMTP non configuré - log seulement) ===");
-                log.info("À: {}", to);
-                log.info("Sujet: {}", subject);
-                log.info("Message:\n{}", text);
-                log.info("==================================================");
-                log.warn("⚠️ Pour envoyer de vrais emails, configurez spring.mail.* dans application.properties");
-            }
+            deliver(to, subject, text);
         } catch (Exception e) {
             log.error("❌ Erreur lors de l'envoi de l'email à {}: {}", to, e.getMessage());
             // Ne pas faire échouer la création de l'utilisateur si l'email échoue
@@ -55,10 +54,118 @@ public class EmailService {
         }
     }
     
+    /**
+     * Envoie un email et propage les erreurs SMTP (utilisé par l'outbox pour les nouvelles tentatives)
+     */
+    public void deliver(String to, String subject, String text) {
+        deliver(to, subject, text, null);
+    }
+    
+    /**
+     * Envoie un email avec une alternative HTML optionnelle et propage les erreurs SMTP
+     */
+    public void deliver(String to, String subject, String text, String html) {
+        if (mailSender != null) {
+            // Envoyer l'email via SMTP si configuré
+            mailSender.send(createMessage(to, subject, text, html));
+            log.info("✅ Email envoyé avec succès à: {}", to);
+        } else {
+            // Si le serveur SMTP n'est pas configuré, logger seulement
+            log.info("=== EMAIL (SMTP non configuré - log seulement) ===");
+            log.info("À: {}", to);
+            log.info("Sujet: {}", subject);
+            log.info("Message:\n{}", text);
+            log.info("==================================================");
+            log.warn("⚠️ Pour envoyer de vrais emails, configurez spring.mail.* dans application.properties");
+        }
+    }
+    
+    /**
+     * Envoie un lot d'emails de l'outbox sur une seule connexion SMTP (une seule poignée de main TLS)
+     * @param emails emails à envoyer
+     * @return les erreurs d'envoi par ID d'email (vide si tout a été envoyé)
+     */
+    public Map<String, Exception> deliverBatch(List<OutboxEmail> emails) {
+        if (mailSender == null) {
+            emails.forEach(email -> deliver(email.getRecipient(), email.getSubject(), email.getBody(), email.getHtmlBody()));
+            return Map.of();
+        }
+        
+        // JavaMailSender envoie un tableau de messages sur le même transport
+        Map<String, Exception> failures = new HashMap<>();
+        Map<MimeMessage, String> ids = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+        for (OutboxEmail email : emails) {
+            try {
+                MimeMessage message = createMessage(email.getRecipient(), email.getSubject(), email.getBody(), email.getHtmlBody());
+                messages.add(message);
+                ids.put(message, email.getId());
+            } catch (MailPreparationException e) {
+                // Message invalide (adresse mal formée...) : les autres emails du lot sont envoyés
+                failures.put(email.getId(), e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+        
+        try {
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+            log.info("✅ Lot de {} emails envoyé", messages.size());
+        } catch (MailSendException e) {
+            // Seuls les messages en échec sont signalés ; les autres ont été acceptés par le serveur
+            Map<String, Exception> sendFailures = new HashMap<>();
+            e.getFailedMessages().forEach((message, error) -> {
+                String id = ids.get(message);
+                if (id != null) {
+                    sendFailures.put(id, error);
+                }
+            });
+            if (sendFailures.isEmpty()) {
+                ids.values().forEach(id -> sendFailures.put(id, e));
+            }
+            failures.putAll(sendFailures);
+        }
+        return failures;
+    }
+    
+    /**
+     * Construit le message MIME : texte brut seul, ou multipart/alternative texte + HTML
+     */
+    private MimeMessage createMessage(String to, String subject, String text, String html) {
+        MimeMessage message = mailSender.createMimeMessage();
+        try {
+            MimeMessageHelper helper = new MimeMessageHelper(message, html != null, "UTF-8");
+            helper.setFrom(fromEmail.isEmpty() ? "noreply@formation.com" : fromEmail);
+            helper.setTo(to);
+            helper.setSubject(subject);
+            if (html != null) {
+                helper.setText(text, html);
+            } else {
+                helper.setText(text);
+            }
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Email invalide pour " + to, e);
+        }
+        return message;
+    }
+    
     /**
      * Envoie les identifiants de connexion à un nouvel utilisateur
      */
     public void sendCredentialsEmail(String email, String nom, String prenom, String matricule, String role) {
+        RenderedEmail credentials = renderCredentials(nom, prenom, matricule, role);
+        try {
+            deliver(email, credentials.subject(), credentials.text(), credentials.html());
+        } catch (Exception e) {
+            log.error("❌ Erreur lors de l'envoi de l'email à {}: {}", email, e.getMessage());
+        }
+    }
+    
+    /**
+     * Rend l'email d'identifiants de connexion (texte et HTML)
+     */
+    public RenderedEmail renderCredentials(String nom, String prenom, String matricule, String role) {
         String roleText = role.equals("ETUDIANT") ? "étudiant" : "formateur";
         String loginUrl = frontendUrl + "/login";
         
@@ -67,27 +174,6 @@ public class EmailService {
             ? prenom + " " + nom 
             : nom;
         
-        String subject = "Bienvenue au Centre de Formation - Vos identifiants de connexion";
-        String text = String.format(
-            "Bonjour %s,\n\n" +
-            "Votre compte %s a été créé avec succès au Centre de Formation.\n\n" +
-            "Vos identifiants de connexion :\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n" +
-            "Matricule (Login) : %s\n" +
-            "Mot de passe      : %s\n" +
-            "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n\n" +
-            "⚠️ IMPORTANT : Pour votre sécurité, veuillez changer votre mot de passe après votre première connexion.\n\n" +
-            "Pour vous connecter, rendez-vous sur :\n" +
-            "%s\n\n" +
-            "Cordialement,\n" +
-            "L'équipe du Centre de Formation",
-            nomComplet,
-            roleText,
-            matricule.toLowerCase(),
-            matricule.toLowerCase(),
-            loginUrl
-        );
-        
-        sendEmail(email, subject, text);
+        return emailTemplates.render(EmailTemplate.IDENTIFIANTS, nomComplet, roleText, matricule.toLowerCase(), loginUrl);
     }
 }
@@ -0,0 +1,479 @@
+package com.formation.app.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.app.dto.EtudiantImportRow;
+import com.formation.app.dto.ImportProgress;
+import com.formation.app.entity.Etudiant;
+import com.formation.app.entity.Role;
+import com.formation.app.entity.User;
+import com.formation.app.exception.BadRequestException;
+import com.formation.app.repository.EtudiantRepository;
+import com.formation.app.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Import en masse d'étudiants depuis un fichier CSV ou JSON, lu en flux et traité par lots
+ * Pour chaque lot :
+ * - unicité vérifiée en mémoire (doublons du fichier) puis par une requête IN par colonne (matricule, email, login)
+ * - mots de passe hachés en parallèle sur le pool dédié importHashingExecutor (distinct de celui des connexions, qui ne sont donc pas bloquées)
+ * - insertions dans une transaction par lot (batching JDBC hibernate.jdbc.batch_size), emails d'identifiants mis en file (outbox)
+ * Une ligne invalide est rejetée sans interrompre l'import ; l'avancement est publié après chaque lot
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EtudiantImportService {
+    
+    private final EtudiantRepository etudiantRepository;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final NotificationService notificationService;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Executor importHashingExecutor;
+    
+    @Value("${etudiant.import.batch-size:500}")
+    private int batchSize;
+    
+    // Tranches hachées en parallèle par lot, une par thread du pool importHashingExecutor (0 : moitié des processeurs)
+    @Value("${etudiant.import.hashing-parallelism:0}")
+    private int hashingParallelism;
+    
+    /**
+     * Importe un fichier CSV (en-tête obligatoire : nom, prenom, email et matricule optionnel ; séparateur , ou ;)
+     * @param listener reçoit l'avancement après chaque lot, puis le bilan final
+     * @return le bilan final
+     */
+    public ImportProgress importCsv(InputStream in, Consumer<ImportProgress> listener) {
+        return importRows(new CsvRowReader(in), listener);
+    }
+    
+    /**
+     * Importe un tableau JSON d'objets { nom, prenom, email, matricule }
+     * @param listener reçoit l'avancement après chaque lot, puis le bilan final
+     * @return le bilan final
+     */
+    public ImportProgress importJson(InputStream in, Consumer<ImportProgress> listener) {
+        return importRows(new JsonRowReader(in), listener);
+    }
+    
+    private ImportProgress importRows(RowReader reader, Consumer<ImportProgress> listener) {
+        ImportState state = new ImportState();
+        List<NumberedRow> chunk = new ArrayList<>(batchSize);
+        try {
+            NumberedRow row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == batchSize) {
+                    listener.accept(processChunk(chunk, state));
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                listener.accept(processChunk(chunk, state));
+            }
+        } catch (IOException | BadRequestException e) {
+            // Fichier illisible : les lots déjà traités restent enregistrés
+            log.warn("⚠️ [IMPORT] Import interrompu après {} lignes: {}", state.processed, e.getMessage());
+            ImportProgress error = state.progress(ImportProgress.STATUS_ERREUR,
+                    List.of(new ImportProgress.ImportError(reader.line(), "Fichier invalide: " + e.getMessage())));
+            listener.accept(error);
+            return error;
+        }
+        
+        ImportProgress summary = state.progress(ImportProgress.STATUS_TERMINE, List.of());
+        listener.accept(summary);
+        log.info("✅ [IMPORT] {} étudiants importés, {} lignes rejetées", state.created, state.failed);
+        return summary;
+    }
+    
+    /**
+     * Valide, hache et enregistre un lot
+     * @return l'avancement cumulé avec les erreurs du lot
+     */
+    private ImportProgress processChunk(List<NumberedRow> chunk, ImportState state) {
+        List<ImportProgress.ImportError> errors = new ArrayList<>();
+        List<Candidate> candidates = validate(chunk, state, errors);
+        
+        if (!candidates.isEmpty()) {
+            String[] hashes = hashPasswords(candidates);
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    for (int i = 0; i < candidates.size(); i++) {
+                        persist(candidates.get(i), hashes[i]);
+                    }
+                });
+                state.created += candidates.size();
+            } catch (DataAccessException e) {
+                // Conflit concurrent (autre création entre la vérification et l'insertion) : lot rejeté
+                log.warn("⚠️ [IMPORT] Enregistrement du lot impossible: {}", e.getMessage());
+                candidates.forEach(candidate -> errors.add(new ImportProgress.ImportError(
+                        candidate.line, "Enregistrement impossible (conflit avec des données existantes)")));
+            }
+        }
+        
+        state.processed += chunk.size();
+        state.failed += errors.size();
+        return state.progress(ImportProgress.STATUS_EN_COURS, errors);
+    }
+    
+    /**
+     * Contrôle les champs et l'unicité des lignes du lot
+     * Les doublons du fichier sont détectés en mémoire, les doublons en base par une requête par colonne
+     */
+    private List<Candidate> validate(List<NumberedRow> chunk, ImportState state, List<ImportProgress.ImportError> errors) {
+        List<Candidate> candidates = new ArrayList<>(chunk.size());
+        for (NumberedRow numbered : chunk) {
+            String error = checkFields(numbered.row);
+            if (error != null) {
+                errors.add(new ImportProgress.ImportError(numbered.line, error));
+                continue;
+            }
+            EtudiantImportRow row = numbered.row;
+            String email = row.getEmail().trim();
+            String matricule = isBlank(row.getMatricule()) ? null : row.getMatricule().trim();
+            
+            if (!state.emails.add(email.toLowerCase(Locale.ROOT))) {
+                errors.add(new ImportProgress.ImportError(numbered.line, "Email en double dans le fichier: " + email));
+                continue;
+            }
+            boolean generated = matricule == null;
+            if (generated) {
+                matricule = generateMatricule(state);
+            } else if (!state.logins.add(matricule.toLowerCase(Locale.ROOT))) {
+                errors.add(new ImportProgress.ImportError(numbered.line, "Matricule en double dans le fichier: " + matricule));
+                continue;
+            }
+            candidates.add(new Candidate(numbered.line, row.getNom().trim(), row.getPrenom().trim(), email, matricule, generated));
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        
+        // Doublons en base : une requête IN par colonne pour tout le lot
+        Set<String> existingEmails = new HashSet<>(etudiantRepository.findExistingEmails(
+                candidates.stream().map(c -> c.email.toLowerCase(Locale.ROOT)).toList()));
+        Set<String> existingMatricules = lowerCase(etudiantRepository.findExistingMatricules(
+                candidates.stream().map(c -> c.matricule).toList()));
+        Set<String> existingLogins = lowerCase(userRepository.findExistingLogins(
+                candidates.stream().map(Candidate::login).toList()));
+        
+        List<Candidate> accepted = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            if (existingEmails.contains(candidate.email.toLowerCase(Locale.ROOT))) {
+                errors.add(new ImportProgress.ImportError(candidate.line, "Un étudiant avec cet email existe déjà"));
+                continue;
+            }
+            boolean taken = existingMatricules.contains(candidate.login()) || existingLogins.contains(candidate.login());
+            if (taken && !candidate.generated) {
+                errors.add(new ImportProgress.ImportError(candidate.line, "Un étudiant avec ce matricule existe déjà"));
+                continue;
+            }
+            while (taken) {
+                // Collision d'un matricule généré (improbable) : nouveau tirage vérifié individuellement
+                candidate.matricule = generateMatricule(state);
+                taken = etudiantRepository.existsByMatricule(candidate.matricule)
+                        || userRepository.existsByLogin(candidate.login());
+            }
+            accepted.add(candidate);
+        }
+        return accepted;
+    }
+    
+    private static String checkFields(EtudiantImportRow row) {
+        if (row == null) {
+            return "Ligne vide";
+        }
+        if (isBlank(row.getNom()) || isBlank(row.getPrenom()) || isBlank(row.getEmail())) {
+            return "Champs obligatoires manquants (nom, prenom, email)";
+        }
+        if (!row.getEmail().contains("@")) {
+            return "Email invalide: " + row.getEmail().trim();
+        }
+        if (row.getNom().trim().length() > 100 || row.getPrenom().trim().length() > 100
+                || row.getEmail().trim().length() > 150
+                || (row.getMatricule() != null && row.getMatricule().trim().length() > 50)) {
+            return "Valeur trop longue";
+        }
+        return null;
+    }
+    
+    private static String generateMatricule(ImportState state) {
+        String matricule;
+        do {
+            matricule = "ETUD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        } while (!state.logins.add(matricule.toLowerCase(Locale.ROOT)));
+        return matricule;
+    }
+    
+    /**
+     * Hache les mots de passe du lot en parallèle (tranches réparties sur le pool de hachage des imports)
+     * Si le pool est saturé, la tranche est hachée par le thread de l'import
+     */
+    private String[] hashPasswords(List<Candidate> candidates) {
+        String[] hashes = new String[candidates.size()];
+        int parallelism = hashingParallelism > 0
+                ? hashingParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int slices = Math.min(parallelism, candidates.size());
+        int sliceSize = (candidates.size() + slices - 1) / slices;
+        
+        List<CompletableFuture<Void>> futures = new ArrayList<>(slices);
+        for (int start = 0; start < candidates.size(); start += sliceSize) {
+            int from = start;
+            int to = Math.min(start + sliceSize, candidates.size());
+            Runnable slice = () -> {
+                for (int i = from; i < to; i++) {
+                    // Mot de passe initial : le login (matricule en minuscules), comme pour une création unitaire
+                    hashes[i] = passwordEncoder.encode(candidates.get(i).login());
+                }
+            };
+            try {
+                futures.add(CompletableFuture.runAsync(slice, importHashingExecutor));
+            } catch (RejectedExecutionException e) {
+                slice.run();
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        return hashes;
+    }
+    
+    /**
+     * Insère l'utilisateur et l'étudiant (persist : pas de SELECT préalable comme avec save sur un ID assigné)
+     * et met l'email d'identifiants en file dans la même transaction
+     */
+    private void persist(Candidate candidate, String passwordHash) {
+        User user = new User(UUID.randomUUID().toString(), candidate.login(), passwordHash, Role.ETUDIANT);
+        entityManager.persist(user);
+        
+        Etudiant etudiant = new Etudiant(UUID.randomUUID().toString(), candidate.matricule,
+                candidate.nom, candidate.prenom, candidate.email, LocalDate.now());
+        etudiant.setUser(user);
+        entityManager.persist(etudiant);
+        
+        notificationService.sendEtudiantCredentials(etudiant);
+    }
+    
+    private static Set<String> lowerCase(List<String> values) {
+        return values.stream().map(value -> value.toLowerCase(Locale.ROOT)).collect(Collectors.toSet());
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+    
+    /**
+     * Compteurs cumulés et valeurs déjà vues depuis le début de l'import
+     */
+    private static final class ImportState {
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> logins = new HashSet<>();
+        private int processed;
+        private int created;
+        private int failed;
+        
+        ImportProgress progress(String status, List<ImportProgress.ImportError> errors) {
+            return new ImportProgress(status, processed, created, failed, errors);
+        }
+    }
+    
+    private record NumberedRow(int line, EtudiantImportRow row) {
+    }
+    
+    /**
+     * Ligne validée en attente d'insertion
+     */
+    private static final class Candidate {
+        private final int line;
+        private final String nom;
+        private final String prenom;
+        private final String email;
+        private final boolean generated;
+        private String matricule;
+        
+        Candidate(int line, String nom, String prenom, String email, String matricule, boolean generated) {
+            this.line = line;
+            this.nom = nom;
+            this.prenom = prenom;
+            this.email = email;
+            this.matricule = matricule;
+            this.generated = generated;
+        }
+        
+        String login() {
+            return matricule.toLowerCase(Locale.ROOT);
+        }
+    }
+    
+    /**
+     * Lecture en flux des lignes d'un fichier d'import
+     */
+    private interface RowReader {
+        
+        /**
+         * @return la ligne suivante, ou null en fin de fichier
+         */
+        NumberedRow next() throws IOException;
+        
+        /**
+         * @return le numéro de la dernière ligne lue
+         */
+        int line();
+    }
+    
+    /**
+     * CSV avec en-tête ; valeurs entre guillemets acceptées ("" pour un guillemet), sans retour à la ligne
+     */
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private Map<String, Integer> columns;
+        private char separator;
+        private int line;
+        
+        CsvRowReader(InputStream in) {
+            this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        
+        @Override
+        public NumberedRow next() throws IOException {
+            if (columns == null) {
+                readHeader();
+            }
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                List<String> values = split(text, separator);
+                return new NumberedRow(line, new EtudiantImportRow(
+                        value(values, "nom"), value(values, "prenom"), value(values, "email"), value(values, "matricule")));
+            }
+            return null;
+        }
+        
+        @Override
+        public int line() {
+            return line;
+        }
+        
+        private void readHeader() throws IOException {
+            String header = reader.readLine();
+            line++;
+            if (header == null) {
+                throw new BadRequestException("Fichier CSV vide");
+            }
+            // BOM UTF-8 ajouté par les tableurs
+            if (header.startsWith("\uFEFF")) {
+                header = header.substring(1);
+            }
+            separator = header.indexOf(';') >= 0 ? ';' : ',';
+            columns = new HashMap<>();
+            List<String> names = split(header, separator);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!columns.keySet().containsAll(List.of("nom", "prenom", "email"))) {
+                throw new BadRequestException("En-tête CSV attendu : nom, prenom, email[, matricule]");
+            }
+        }
+        
+        private String value(List<String> values, String column) {
+            Integer index = columns.get(column);
+            return index != null && index < values.size() ? values.get(index) : null;
+        }
+        
+        private static List<String> split(String text, char separator) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == separator) {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+    
+    /**
+     * Tableau JSON lu élément par élément (le fichier n'est jamais chargé entièrement)
+     */
+    private final class JsonRowReader implements RowReader {
+        private final InputStream in;
+        private JsonParser parser;
+        private int index;
+        
+        JsonRowReader(InputStream in) {
+            this.in = in;
+        }
+        
+        @Override
+        public NumberedRow next() throws IOException {
+            if (parser == null) {
+                parser = objectMapper.getFactory().createParser(in);
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    throw new BadRequestException("Un tableau JSON d'étudiants est attendu");
+                }
+            }
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            index++;
+            return new NumberedRow(index, objectMapper.readValue(parser, EtudiantImportRow.class));
+        }
+        
+        @Override
+        public int line() {
+            return index;
+        }
+    }
+}
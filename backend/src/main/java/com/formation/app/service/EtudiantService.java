@@ -1,18 +1,25 @@
 package com.formation.app.service;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.EtudiantSummary;
 import com.formation.app.entity.Etudiant;
 import com.formation.app.entity.Role;
 import com.formation.app.entity.User;
 import com.formation.app.exception.BadRequestException;
 import com.formation.app.exception.ResourceNotFoundException;
+import com.formation.app.pagination.Keyset;
 import com.formation.app.repository.EtudiantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -28,6 +35,10 @@ public class EtudiantService {
     private final UserService userService;
     private final NotificationService notificationService;
     
+    // Colonnes autorisées pour le tri des listes paginées
+    private static final Set<String> SORTABLE_FIELDS = Set.of("nom", "prenom", "matricule", "email", "dateInscription");
+    private static final int MAX_PAGE_SIZE = 100;
+    
     /**
      * Crée un nouvel étudiant
      */
@@ -143,6 +154,55 @@ public class EtudiantService {
         return etudiantRepository.findAll();
     }
     
+    /**
+     * Liste paginée des étudiants (vue allégée), triée et filtrée
+     * Le tri est complété par l'ID pour un ordre stable entre les pages
+     */
+    @Transactional(readOnly = true)
+    public Page<EtudiantSummary> searchEtudiants(String nom, String prenom, String matricule, String email,
+                                                 int page, int size, String sort, String direction) {
+        if (!SORTABLE_FIELDS.contains(sort)) {
+            throw new BadRequestException("Tri non supporté: " + sort + " (autorisés: " + SORTABLE_FIELDS + ")");
+        }
+        if (page < 0 || size < 1) {
+            throw new BadRequestException("Pagination invalide: page >= 0 et size >= 1");
+        }
+        
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        PageRequest pageRequest = PageRequest.of(page, Math.min(size, MAX_PAGE_SIZE),
+                Sort.by(sortDirection, sort).and(Sort.by(Sort.Direction.ASC, "id")));
+        
+        return etudiantRepository.findSummaries(prefixPattern(nom), prefixPattern(prenom),
+                prefixPattern(matricule), prefixPattern(email), pageRequest);
+    }
+    
+    /**
+     * Liste les étudiants par page (vue allégée), triés par ID (pagination par curseur)
+     * Mêmes filtres que searchEtudiants ; le coût d'une page ne dépend pas de sa profondeur
+     * @param cursor curseur de la page précédente (null pour la première page)
+     * @param size taille de page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<EtudiantSummary> getEtudiantsPage(String nom, String prenom, String matricule, String email,
+                                                        String cursor, int size) {
+        int pageSize = Keyset.pageSize(size);
+        String after = Keyset.isFirstPage(cursor) ? "" : Keyset.decode(cursor, 1)[0];
+        List<EtudiantSummary> etudiants = etudiantRepository.findSummariesAfter(after, prefixPattern(nom),
+                prefixPattern(prenom), prefixPattern(matricule), prefixPattern(email), Keyset.limit(pageSize));
+        return Keyset.page(etudiants, pageSize, e -> new Object[]{e.getId()});
+    }
+    
+    /**
+     * Motif LIKE "commence par" : les jokers saisis (%, _) sont échappés par '!' et cherchés littéralement
+     * @return null si le filtre est vide
+     */
+    static String prefixPattern(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+    }
+    
     /**
      * Trouve un étudiant par son ID
      */
@@ -1,10 +1,15 @@
 package com.formation.app.service;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.FormateurSummary;
 import com.formation.app.entity.Formateur;
 import com.formation.app.entity.Role;
+import com.formation.app.entity.Seance;
 import com.formation.app.entity.User;
 import com.formation.app.exception.BadRequestException;
 import com.formation.app.exception.ResourceNotFoundException;
+import com.formation.app.pagination.Keyset;
+import com.formation.app.planning.SeanceConflictIndex;
 import com.formation.app.repository.FormateurRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Service pour la gestion des formateurs
@@ -26,6 +32,7 @@ public class FormateurService {
     private final FormateurRepository formateurRepository;
     private final UserService userService;
     private final NotificationService notificationService;
+    private final SeanceConflictIndex conflictIndex;
     
     /**
      * Crée un nouveau formateur
@@ -118,7 +125,15 @@ public class FormateurService {
      */
     public void deleteFormateur(String id) {
         Formateur formateur = getFormateurById(id);
+        // Séances du formateur et de ses cours, supprimées en cascade
+        List<String> seanceIds = Stream.concat(formateur.getSeances().stream(),
+                        formateur.getCours().stream().flatMap(cours -> cours.getSeances().stream()))
+                .map(Seance::getId)
+                .distinct()
+                .toList();
         formateurRepository.delete(formateur);
+        // Créneaux libérés dans l'index des conflits après validation
+        conflictIndex.release(seanceIds);
     }
     
     /**
@@ -129,6 +144,19 @@ public class FormateurService {
         return formateurRepository.findAll();
     }
     
+    /**
+     * Liste les formateurs par page (vue allégée), triés par ID (pagination par curseur)
+     * @param cursor curseur de la page précédente (null pour la première page)
+     * @param size taille de page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<FormateurSummary> getFormateursPage(String cursor, int size) {
+        int pageSize = Keyset.pageSize(size);
+        String after = Keyset.isFirstPage(cursor) ? "" : Keyset.decode(cursor, 1)[0];
+        List<FormateurSummary> formateurs = formateurRepository.findSummariesAfter(after, Keyset.limit(pageSize));
+        return Keyset.page(formateurs, pageSize, f -> new Object[]{f.getId()});
+    }
+    
     /**
      * Trouve un formateur par son ID
      */
@@ -1,21 +1,35 @@
 package com.formation.app.service;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.InscriptionBatchResult;
+import com.formation.app.dto.InscriptionRow;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Etudiant;
 import com.formation.app.entity.Inscription;
+import com.formation.app.exception.BadRequestException;
 import com.formation.app.exception.ConflictException;
 import com.formation.app.exception.ResourceNotFoundException;
+import com.formation.app.pagination.Keyset;
 import com.formation.app.repository.CoursRepository;
 import com.formation.app.repository.EtudiantRepository;
 import com.formation.app.repository.InscriptionRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service pour la gestion des inscriptions
@@ -29,6 +43,10 @@ public class InscriptionService {
     private final EtudiantRepository etudiantRepository;
     private final CoursRepository coursRepository;
     private final NotificationService notificationService;
+    private final EntityManager entityManager;
+    
+    // Taille maximale d'une inscription en masse (borne les listes IN des préchargements)
+    private static final int MAX_BATCH_SIZE = 1000;
     
     /**
      * Inscrit un étudiant à un cours
@@ -52,14 +70,12 @@ public class InscriptionService {
                 inscription.setDateInscription(LocalDate.now());
                 Inscription saved = inscriptionRepository.save(inscription);
                 notificationService.sendInscriptionEmail(etudiant, cours);
+                notificationService.notifyFormateurInscription(cours.getFormateur(), etudiant, cours);
                 return saved;
             }
         }
         
-        // Vérifier la disponibilité
-        if (!verifierDisponibilite(etudiantId, coursCode)) {
-            throw new ConflictException("L'étudiant a un conflit d'horaire avec ce cours");
-        }
+        // Disponibilité déjà vérifiée : aucune inscription existante pour ce cours (lue ci-dessus)
         
         // Créer la nouvelle inscription
         Inscription inscription = new Inscription();
@@ -71,12 +87,79 @@ public class InscriptionService {
         
         Inscription saved = inscriptionRepository.save(inscription);
         
-        // Envoyer l'email de confirmation
+        // Emails de confirmation et de notification du formateur mis en file (outbox), envoyés
+        // après validation de la transaction et regroupés par destinataire
         notificationService.sendInscriptionEmail(etudiant, cours);
+        notificationService.notifyFormateurInscription(cours.getFormateur(), etudiant, cours);
         
         return saved;
     }
     
+    /**
+     * Inscrit un ensemble d'étudiants à un cours en une transaction
+     * Nombre de requêtes constant : cours, étudiants et inscriptions existantes chargés en une requête
+     * chacun, insertions envoyées par lots JDBC ; les notifications sont mises en file après les écritures
+     * (un seul récapitulatif pour le formateur)
+     * Les étudiants déjà inscrits sont ignorés ; un étudiant inconnu annule toute l'opération
+     */
+    public InscriptionBatchResult inscrireEtudiants(String coursCode, List<String> etudiantIds) {
+        if (etudiantIds == null || etudiantIds.isEmpty()) {
+            throw new BadRequestException("Aucun étudiant à inscrire");
+        }
+        if (etudiantIds.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Une inscription en masse est limitée à " + MAX_BATCH_SIZE + " étudiants");
+        }
+        Set<String> ids = new LinkedHashSet<>(etudiantIds);
+        
+        Cours cours = coursRepository.findByCode(coursCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Cours", "code", coursCode));
+        
+        Map<String, Etudiant> etudiants = etudiantRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Etudiant::getId, Function.identity()));
+        List<String> inconnus = ids.stream()
+                .filter(id -> !etudiants.containsKey(id))
+                .toList();
+        if (!inconnus.isEmpty()) {
+            throw new ResourceNotFoundException("Etudiant", "id", String.join(", ", inconnus));
+        }
+        
+        // Pré-vérification des inscriptions existantes en une requête
+        Map<String, Inscription> existantes = inscriptionRepository.findByCoursCodeAndEtudiantIds(coursCode, ids).stream()
+                .collect(Collectors.toMap(i -> i.getEtudiant().getId(), Function.identity()));
+        
+        LocalDate today = LocalDate.now();
+        List<Etudiant> inscrits = new ArrayList<>();
+        List<String> dejaInscrits = new ArrayList<>();
+        int created = 0;
+        int reactivated = 0;
+        for (String id : ids) {
+            Inscription inscription = existantes.get(id);
+            if (inscription == null) {
+                // persist plutôt que save : ID assigné, save ferait un SELECT par inscription
+                entityManager.persist(new Inscription(UUID.randomUUID().toString(), today, "ACTIVE",
+                        etudiants.get(id), cours));
+                inscrits.add(etudiants.get(id));
+                created++;
+            } else if ("ACTIVE".equals(inscription.getStatus())) {
+                dejaInscrits.add(id);
+            } else {
+                // Réactiver l'inscription (dirty checking, mise à jour envoyée au flush)
+                inscription.setStatus("ACTIVE");
+                inscription.setDateInscription(today);
+                inscrits.add(etudiants.get(id));
+                reactivated++;
+            }
+        }
+        
+        // Notifications différées : mises en file une fois toutes les inscriptions écrites
+        for (Etudiant etudiant : inscrits) {
+            notificationService.sendInscriptionEmail(etudiant, cours);
+        }
+        notificationService.notifyFormateurInscriptions(cours.getFormateur(), cours, inscrits);
+        
+        return new InscriptionBatchResult(coursCode, created, reactivated, dejaInscrits);
+    }
+    
     /**
      * Désinscrit un étudiant d'un cours
      */
@@ -87,7 +170,7 @@ public class InscriptionService {
         inscription.setStatus("CANCELLED");
         inscriptionRepository.save(inscription);
         
-        // Envoyer l'email de désinscription
+        // Email de désinscription mis en file (outbox), envoyé après validation de la transaction
         notificationService.sendDesinscriptionEmail(inscription.getEtudiant(), inscription.getCours());
     }
     
@@ -141,5 +224,28 @@ public class InscriptionService {
     public long countActiveInscriptions(String coursCode) {
         return inscriptionRepository.countActiveInscriptionsByCoursCode(coursCode);
     }
+    
+    /**
+     * Liste les inscriptions par page, triées par ID (pagination par curseur)
+     * @param etudiantId limite la liste aux inscriptions de cet étudiant (null : toutes les inscriptions)
+     * @param cursor curseur de la page précédente (null pour la première page)
+     * @param size taille de page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Inscription> getInscriptionsPage(String etudiantId, String cursor, int size) {
+        int pageSize = Keyset.pageSize(size);
+        String after = Keyset.isFirstPage(cursor) ? "" : Keyset.decode(cursor, 1)[0];
+        List<Inscription> inscriptions = etudiantId == null
+                ? inscriptionRepository.findByIdGreaterThanOrderByIdAsc(after, Keyset.limit(pageSize))
+                : inscriptionRepository.findByEtudiantIdAndIdGreaterThanOrderByIdAsc(etudiantId, after, Keyset.limit(pageSize));
+        return Keyset.page(inscriptions, pageSize, i -> new Object[]{i.getId()});
+    }
+    
+    /**
+     * Page de la liste admin des inscriptions (lignes plates, requête unique)
+     */
+    @Transactional(readOnly = true)
+    public Page<InscriptionRow> getInscriptionRows(int page, int size) {
+        return inscriptionRepository.findRows(PageRequest.of(Math.max(page, 0), size));
+    }
 }
-
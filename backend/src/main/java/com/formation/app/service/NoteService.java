@@ -1,21 +1,36 @@
 package com.formation.app.service;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.NoteBatchResult;
+import com.formation.app.dto.NoteRow;
+import com.formation.app.dto.NoteSaisie;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Etudiant;
 import com.formation.app.entity.Note;
 import com.formation.app.exception.BadRequestException;
 import com.formation.app.exception.ResourceNotFoundException;
+import com.formation.app.pagination.Keyset;
 import com.formation.app.repository.CoursRepository;
 import com.formation.app.repository.EtudiantRepository;
 import com.formation.app.repository.NoteRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service pour la gestion des notes
@@ -28,6 +43,13 @@ public class NoteService {
     private final NoteRepository noteRepository;
     private final EtudiantRepository etudiantRepository;
     private final CoursRepository coursRepository;
+    private final EntityManager entityManager;
+    
+    // Taille maximale d'une saisie groupée (borne les listes IN des préchargements)
+    private static final int MAX_BATCH_SIZE = 1000;
+    
+    // Nombre d'erreurs de validation reportées dans le message
+    private static final int MAX_REPORTED_ERRORS = 10;
     
     /**
      * Attribue une note à un étudiant pour un cours
@@ -65,6 +87,91 @@ public class NoteService {
         }
     }
     
+    /**
+     * Saisie groupée des notes d'un cours : crée ou met à jour la note de chaque étudiant
+     * Nombre de requêtes constant : validation en mémoire, cours, étudiants et notes existantes
+     * chargés en une requête chacun, puis insertions et mises à jour envoyées par lots JDBC
+     * Tout ou rien : aucune note n'est enregistrée si une saisie est invalide
+     */
+    public NoteBatchResult attribuerNotes(String coursCode, List<NoteSaisie> saisies) {
+        Map<String, Float> valeurs = validerSaisies(saisies);
+        
+        Cours cours = coursRepository.findByCode(coursCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Cours", "code", coursCode));
+        
+        // Vérifier l'existence de tous les étudiants en une requête
+        Set<String> existants = new HashSet<>(etudiantRepository.findExistingIds(valeurs.keySet()));
+        List<String> inconnus = valeurs.keySet().stream()
+                .filter(id -> !existants.contains(id))
+                .toList();
+        if (!inconnus.isEmpty()) {
+            throw new ResourceNotFoundException("Etudiant", "id", String.join(", ", inconnus));
+        }
+        
+        // Précharger les notes existantes du cours pour ces étudiants
+        Map<String, Note> notesExistantes = noteRepository
+                .findByCoursCodeAndEtudiantIds(coursCode, valeurs.keySet()).stream()
+                .collect(Collectors.toMap(n -> n.getEtudiant().getId(), Function.identity()));
+        
+        LocalDate today = LocalDate.now();
+        int created = 0;
+        int updated = 0;
+        for (Map.Entry<String, Float> saisie : valeurs.entrySet()) {
+            Note note = notesExistantes.get(saisie.getKey());
+            if (note != null) {
+                // Mise à jour par dirty checking, envoyée en lot au flush
+                note.setValeur(saisie.getValue());
+                note.setDateSaisie(today);
+                updated++;
+            } else {
+                // persist plutôt que save : ID assigné, save ferait un SELECT par note
+                note = new Note(UUID.randomUUID().toString(), saisie.getValue(), today,
+                        etudiantRepository.getReferenceById(saisie.getKey()), cours);
+                entityManager.persist(note);
+                created++;
+            }
+        }
+        
+        return new NoteBatchResult(coursCode, created, updated);
+    }
+    
+    /**
+     * Valide une saisie groupée en mémoire, sans accès base
+     * @return les valeurs par ID d'étudiant, dans l'ordre de saisie
+     */
+    private Map<String, Float> validerSaisies(List<NoteSaisie> saisies) {
+        if (saisies == null || saisies.isEmpty()) {
+            throw new BadRequestException("Aucune note à enregistrer");
+        }
+        if (saisies.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("Une saisie groupée est limitée à " + MAX_BATCH_SIZE + " notes");
+        }
+        
+        Map<String, Float> valeurs = new LinkedHashMap<>();
+        List<String> erreurs = new ArrayList<>();
+        for (int i = 0; i < saisies.size(); i++) {
+            NoteSaisie saisie = saisies.get(i);
+            String etudiantId = saisie != null ? saisie.getEtudiantId() : null;
+            Float valeur = saisie != null ? saisie.getValeur() : null;
+            if (etudiantId == null || etudiantId.isBlank()) {
+                erreurs.add("notes[" + i + "] : etudiantId manquant");
+            } else if (valeur == null || valeur < 0 || valeur > 20) {
+                erreurs.add("notes[" + i + "] : la note doit être entre 0 et 20");
+            } else if (valeurs.putIfAbsent(etudiantId, valeur) != null) {
+                erreurs.add("notes[" + i + "] : étudiant " + etudiantId + " saisi plusieurs fois");
+            }
+        }
+        
+        if (!erreurs.isEmpty()) {
+            String detail = String.join(" ; ", erreurs.subList(0, Math.min(erreurs.size(), MAX_REPORTED_ERRORS)));
+            if (erreurs.size() > MAX_REPORTED_ERRORS) {
+                detail += " ; ... (" + erreurs.size() + " erreurs)";
+            }
+            throw new BadRequestException("Saisie invalide : " + detail);
+        }
+        return valeurs;
+    }
+    
     /**
      * Met à jour une note
      */
@@ -156,5 +263,25 @@ public class NoteService {
     public long countEtudiantsNotes(String coursCode) {
         return noteRepository.countEtudiantsNotesByCoursCode(coursCode);
     }
+    
+    /**
+     * Liste les notes par page, triées par ID (pagination par curseur)
+     * @param cursor curseur de la page précédente (null pour la première page)
+     * @param size taille de page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Note> getNotesPage(String cursor, int size) {
+        int pageSize = Keyset.pageSize(size);
+        String after = Keyset.isFirstPage(cursor) ? "" : Keyset.decode(cursor, 1)[0];
+        List<Note> notes = noteRepository.findByIdGreaterThanOrderByIdAsc(after, Keyset.limit(pageSize));
+        return Keyset.page(notes, pageSize, n -> new Object[]{n.getId()});
+    }
+    
+    /**
+     * Page de la liste admin des notes (lignes plates, requête unique)
+     */
+    @Transactional(readOnly = true)
+    public Page<NoteRow> getNoteRows(int page, int size) {
+        return noteRepository.findRows(PageRequest.of(Math.max(page, 0), size));
+    }
 }
-
@@ -3,12 +3,21 @@ package com.formation.app.service;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Etudiant;
 import com.formation.app.entity.Formateur;
+import com.formation.app.template.EmailTemplate;
+import com.formation.app.template.EmailTemplates;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * Service pour l'envoi de notifications (emails)
+ * Les emails sont mis en file dans l'outbox (même transaction que l'appelant) et envoyés
+ * en arrière-plan par EmailOutboxDispatcher : l'appelant n'attend pas le serveur SMTP
+ * Les messages sont rendus depuis les templates précompilés d'EmailTemplates (texte et HTML)
+ * Les notifications d'inscription sont regroupées par destinataire (notification.digest.window-minutes)
  */
 @Service
 @RequiredArgsConstructor
@@ -16,102 +25,101 @@ import org.springframework.stereotype.Service;
 public class NotificationService {
     
     private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailTemplates emailTemplates;
     
     /**
      * Envoie un email de confirmation d'inscription à un étudiant
      */
     public void sendInscriptionEmail(Etudiant etudiant, Cours cours) {
-        String subject = "Confirmation d'inscription - " + cours.getTitre();
-        String message = String.format(
-            "Bonjour %s %s,\n\n" +
-            "Votre inscription au cours '%s' a été confirmée.\n" +
-            "Code du cours: %s\n\n" +
-            "Cordialement,\n" +
-            "L'équipe du centre de formation",
-            etudiant.getPrenom(),
-            etudiant.getNom(),
-            cours.getTitre(),
-            cours.getCode()
-        );
-        
-        // Envoyer l'email
-        emailService.sendEmail(etudiant.getEmail(), subject, message);
-        log.info("✅ Email d'inscription envoyé à: {}", etudiant.getEmail());
+        // Mettre l'email en file d'envoi (regroupé avec les autres inscriptions de la fenêtre)
+        emailOutboxService.enqueueDigest(etudiant.getEmail(),
+            emailTemplates.render(EmailTemplate.INSCRIPTION,
+                etudiant.getPrenom(), etudiant.getNom(), cours.getTitre(), cours.getCode()),
+            EmailTemplate.INSCRIPTION_RECAP,
+            cours.getTitre() + " (" + cours.getCode() + ")");
+        log.info("✅ Email d'inscription mis en file pour: {}", etudiant.getEmail());
     }
     
     /**
      * Envoie un email de désinscription à un étudiant
      */
     public void sendDesinscriptionEmail(Etudiant etudiant, Cours cours) {
-        String subject = "Désinscription - " + cours.getTitre();
-        String message = String.format(
-            "Bonjour %s %s,\n\n" +
-            "Votre désinscription du cours '%s' a été enregistrée.\n" +
-            "Code du cours: %s\n\n" +
-            "Cordialement,\n" +
-            "L'équipe du centre de formation",
-            etudiant.getPrenom(),
-            etudiant.getNom(),
-            cours.getTitre(),
-            cours.getCode()
-        );
-        
-        // Envoyer l'email
-        emailService.sendEmail(etudiant.getEmail(), subject, message);
-        log.info("✅ Email de désinscription envoyé à: {}", etudiant.getEmail());
+        // Mettre l'email en file d'envoi
+        emailOutboxService.enqueue(etudiant.getEmail(), emailTemplates.render(EmailTemplate.DESINSCRIPTION,
+            etudiant.getPrenom(), etudiant.getNom(), cours.getTitre(), cours.getCode()));
+        log.info("✅ Email de désinscription mis en file pour: {}", etudiant.getEmail());
     }
     
     /**
      * Notifie un formateur d'une nouvelle inscription à son cours
      */
     public void notifyFormateurInscription(Formateur formateur, Etudiant etudiant, Cours cours) {
-        String subject = "Nouvelle inscription - " + cours.getTitre();
-        String message = String.format(
-            "Bonjour %s,\n\n" +
-            "Un nouvel étudiant s'est inscrit à votre cours:\n" +
-            "- Étudiant: %s %s (%s)\n" +
-            "- Cours: %s (%s)\n\n" +
-            "Cordialement,\n" +
-            "L'équipe du centre de formation",
-            formateur.getNom(),
-            etudiant.getPrenom(),
-            etudiant.getNom(),
-            etudiant.getMatricule(),
-            cours.getTitre(),
-            cours.getCode()
-        );
+        if (formateur == null || formateur.getEmail() == null) {
+            return;
+        }
+        
+        // Mettre l'email en file d'envoi (regroupé avec les autres inscriptions de la fenêtre)
+        emailOutboxService.enqueueDigest(formateur.getEmail(),
+            emailTemplates.render(EmailTemplate.NOUVELLE_INSCRIPTION_FORMATEUR,
+                formateur.getNom(), etudiant.getPrenom(), etudiant.getNom(), etudiant.getMatricule(),
+                cours.getTitre(), cours.getCode()),
+            EmailTemplate.NOUVELLES_INSCRIPTIONS_FORMATEUR_RECAP,
+            formateurDigestLine(etudiant, cours));
+        log.info("✅ Notification mise en file pour le formateur: {}", formateur.getEmail());
+    }
+    
+    /**
+     * Notifie un formateur d'une inscription en masse à son cours : un seul récapitulatif
+     * est mis en file pour tous les étudiants (pas de regroupement différé nécessaire)
+     */
+    public void notifyFormateurInscriptions(Formateur formateur, Cours cours, List<Etudiant> etudiants) {
+        if (formateur == null || formateur.getEmail() == null || etudiants.isEmpty()) {
+            return;
+        }
+        if (etudiants.size() == 1) {
+            notifyFormateurInscription(formateur, etudiants.get(0), cours);
+            return;
+        }
         
-        // Envoyer l'email
-        emailService.sendEmail(formateur.getEmail(), subject, message);
-        log.info("✅ Notification envoyée au formateur: {}", formateur.getEmail());
+        String lignes = etudiants.stream()
+            .map(etudiant -> "- " + formateurDigestLine(etudiant, cours))
+            .collect(Collectors.joining("\n"));
+        emailOutboxService.enqueue(formateur.getEmail(),
+            emailTemplates.render(EmailTemplate.NOUVELLES_INSCRIPTIONS_FORMATEUR_RECAP,
+                String.valueOf(etudiants.size()), lignes));
+        log.info("✅ Récapitulatif de {} inscriptions mis en file pour le formateur: {}",
+            etudiants.size(), formateur.getEmail());
     }
     
     /**
      * Envoie les identifiants de connexion à un nouvel étudiant
      */
     public void sendEtudiantCredentials(Etudiant etudiant) {
-        emailService.sendCredentialsEmail(
+        emailOutboxService.enqueue(
             etudiant.getEmail(),
-            etudiant.getNom(),
-            etudiant.getPrenom(),
-            etudiant.getMatricule(),
-            "ETUDIANT"
+            emailService.renderCredentials(etudiant.getNom(), etudiant.getPrenom(), etudiant.getMatricule(), "ETUDIANT")
         );
-        log.info("✅ Email de bienvenue avec identifiants envoyé à l'étudiant: {}", etudiant.getEmail());
+        log.info("✅ Email de bienvenue avec identifiants mis en file pour l'étudiant: {}", etudiant.getEmail());
     }
     
     /**
      * Envoie les identifiants de connexion à un nouveau formateur
      */
     public void sendFormateurCredentials(Formateur formateur) {
-        emailService.sendCredentialsEmail(
+        emailOutboxService.enqueue(
             formateur.getEmail(),
-            formateur.getNom(),
-            "", // Les formateurs n'ont pas de prénom, EmailService gérera cela
-            formateur.getMatricule(),
-            "FORMATEUR"
+            // Les formateurs n'ont pas de prénom, EmailService gérera cela
+            emailService.renderCredentials(formateur.getNom(), "", formateur.getMatricule(), "FORMATEUR")
         );
-        log.info("✅ Email de bienvenue avec identifiants envoyé au formateur: {}", formateur.getEmail());
+        log.info("✅ Email de bienvenue avec identifiants mis en file pour le formateur: {}", formateur.getEmail());
+    }
+    
+    /**
+     * Ligne d'une inscription dans le récapitulatif envoyé au formateur
+     */
+    private String formateurDigestLine(Etudiant etudiant, Cours cours) {
+        return etudiant.getPrenom() + " " + etudiant.getNom() + " (" + etudiant.getMatricule() + ") - "
+            + cours.getTitre() + " (" + cours.getCode() + ")";
     }
 }
-
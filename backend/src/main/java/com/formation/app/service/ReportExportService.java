@@ -0,0 +1,103 @@
+package com.formation.app.service;
+
+import com.formation.app.dto.NoteReportRow;
+import com.formation.app.entity.Etudiant;
+import com.formation.app.repository.EtudiantRepository;
+import com.formation.app.repository.NoteRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Export groupé des rapports de notes d'une session dans une archive ZIP écrite en flux
+ * - deux requêtes pour toute la session : les lignes de notes (étudiant et cours résolus) et les étudiants
+ * - les PDF sont rendus en parallèle sur le pool fork-join reportExportPool, sans accès à la base
+ * - fenêtre glissante : au plus report.export.window PDF rendus en attente d'écriture,
+ *   l'archive est écrite dans l'ordre des étudiants au fil des rendus
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportExportService {
+    
+    private final ReportService reportService;
+    private final NoteRepository noteRepository;
+    private final EtudiantRepository etudiantRepository;
+    private final ForkJoinPool reportExportPool;
+    
+    // PDF rendus en avance sur l'écriture de l'archive (0 : deux par thread du pool)
+    @Value("${report.export.window:0}")
+    private int window;
+    
+    /**
+     * Écrit dans le flux une archive ZIP contenant le rapport de notes de chaque étudiant noté dans la session
+     * Chaque rapport ne contient que les notes de la session (le flux n'est pas fermé)
+     * @return le nombre de rapports exportés
+     */
+    public int exporterRapportsNotes(String sessionId, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        Map<String, List<NoteReportRow>> notesParEtudiant = noteRepository.findReportRowsBySessionId(sessionId).stream()
+                .collect(Collectors.groupingBy(NoteReportRow::getEtudiantId));
+        List<Etudiant> etudiants = etudiantRepository.findWithNotesBySessionId(sessionId);
+        
+        int maxPending = window > 0 ? window : 2 * reportExportPool.getParallelism();
+        Deque<Rendu> pending = new ArrayDeque<>(maxPending);
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // Les PDF sont déjà compressés : compression minimale de l'archive
+        zip.setLevel(Deflater.BEST_SPEED);
+        try {
+            for (Etudiant etudiant : etudiants) {
+                List<NoteReportRow> notes = notesParEtudiant.getOrDefault(etudiant.getId(), List.of());
+                pending.add(new Rendu(etudiant, reportExportPool.submit(() -> render(etudiant, notes))));
+                if (pending.size() >= maxPending) {
+                    write(zip, pending.poll());
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(zip, pending.poll());
+            }
+            zip.finish();
+        } finally {
+            // Client déconnecté ou rendu en échec : les rendus restants sont abandonnés
+            pending.forEach(rendu -> rendu.pdf().cancel(true));
+        }
+        
+        log.info("✅ [RAPPORTS] Export de la session {} : {} rapports en {} ms", sessionId, etudiants.size(),
+                System.currentTimeMillis() - start);
+        return etudiants.size();
+    }
+    
+    private byte[] render(Etudiant etudiant, List<NoteReportRow> notes) {
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        reportService.genererRapportNotes(etudiant, notes, pdf);
+        return pdf.toByteArray();
+    }
+    
+    private static void write(ZipOutputStream zip, Rendu rendu) throws IOException {
+        byte[] pdf = rendu.pdf().join();
+        zip.putNextEntry(new ZipEntry("rapport-notes-" + rendu.etudiant().getMatricule() + ".pdf"));
+        zip.write(pdf);
+        zip.closeEntry();
+    }
+    
+    /**
+     * Rendu en cours du rapport d'un étudiant
+     */
+    private record Rendu(Etudiant etudiant, ForkJoinTask<byte[]> pdf) {
+    }
+}
@@ -0,0 +1,352 @@
+package com.formation.app.service;
+
+import com.formation.app.dto.NoteReportRow;
+import com.formation.app.dto.ReportJob;
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Etudiant;
+import com.formation.app.exception.ConflictException;
+import com.formation.app.exception.ResourceNotFoundException;
+import com.formation.app.repository.CoursRepository;
+import com.formation.app.repository.EtudiantRepository;
+import com.formation.app.repository.NoteRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Génération asynchrone des rapports PDF, avec cache disque adressé par le contenu
+ * - l'empreinte SHA-256 des données du rapport (cours ou étudiant et leurs notes, une requête de projection)
+ *   est calculée à la soumission ; le PDF est rendu à partir des mêmes lignes et stocké sous
+ *   report.cache.dir/{empreinte}.pdf
+ * - si ce fichier existe, le job est terminé immédiatement, sans rendu ; une note modifiée change l'empreinte
+ * - deux demandes de même empreinte en cours partagent le même job
+ * - le rendu est confié au pool borné reportExecutor ; le PDF est écrit dans un fichier temporaire puis renommé
+ * Les jobs sont conservés en mémoire report.jobs.retention-minutes ; les PDF non lus depuis
+ * report.cache.retention-hours sont supprimés
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReportJobService {
+    
+    // À incrémenter quand la mise en page des rapports change : invalide les PDF en cache
+    private static final String RENDER_VERSION = "2";
+    private static final String PDF_SUFFIX = ".pdf";
+    
+    private final ReportService reportService;
+    private final CoursRepository coursRepository;
+    private final EtudiantRepository etudiantRepository;
+    private final NoteRepository noteRepository;
+    private final Executor reportExecutor;
+    
+    @Value("${report.cache.dir:${java.io.tmpdir}/formation-reports}")
+    private String cacheDir;
+    
+    @Value("${report.cache.retention-hours:24}")
+    private long cacheRetentionHours;
+    
+    @Value("${report.jobs.retention-minutes:60}")
+    private long jobRetentionMinutes;
+    
+    private Path directory;
+    private Cache<String, ReportJob> jobs;
+    // Jobs en attente ou en cours, par empreinte
+    private final Map<String, ReportJob> inFlight = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void init() {
+        directory = Paths.get(cacheDir);
+        jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(jobRetentionMinutes))
+                .build();
+    }
+    
+    /**
+     * Demande le rapport d'un cours
+     * @return le job (déjà TERMINE si le PDF de ces données est en cache)
+     */
+    @Transactional(readOnly = true)
+    public ReportJob soumettreRapportCours(String coursCode) {
+        Cours cours = coursRepository.findByCode(coursCode)
+                .orElseThrow(() -> new ResourceNotFoundException("Cours", "code", coursCode));
+        List<NoteReportRow> notes = noteRepository.findReportRowsByCoursCode(coursCode);
+        return soumettre(ReportJob.TYPE_COURS, coursCode, empreinteCours(cours, notes),
+                out -> reportService.genererRapportCours(cours, notes, out));
+    }
+    
+    /**
+     * Demande le rapport de notes d'un étudiant
+     * @return le job (déjà TERMINE si le PDF de ces données est en cache)
+     */
+    @Transactional(readOnly = true)
+    public ReportJob soumettreRapportNotes(String etudiantId) {
+        Etudiant etudiant = etudiantRepository.findById(etudiantId)
+                .orElseThrow(() -> new ResourceNotFoundException("Etudiant", "id", etudiantId));
+        List<NoteReportRow> notes = noteRepository.findReportRowsByEtudiantId(etudiantId);
+        return soumettre(ReportJob.TYPE_NOTES, etudiantId, empreinteNotes(etudiant, notes),
+                out -> reportService.genererRapportNotes(etudiant, notes, out));
+    }
+    
+    /**
+     * PDF d'un cours déjà généré pour les données actuelles
+     * @return le fichier, ou null s'il n'est pas en cache
+     */
+    @Transactional(readOnly = true)
+    public Path findRapportCours(Cours cours) {
+        return findArtifact(empreinteCours(cours, noteRepository.findReportRowsByCoursCode(cours.getCode())));
+    }
+    
+    /**
+     * PDF d'un cours pour les données actuelles, rendu de façon synchrone et mis en cache s'il n'y est pas
+     * Sans transaction : les notes sont lues par une requête courte, le rendu ne retient pas de connexion
+     * @return le fichier en cache
+     */
+    public Path genererRapportCours(Cours cours) {
+        List<NoteReportRow> notes = noteRepository.findReportRowsByCoursCode(cours.getCode());
+        String empreinte = empreinteCours(cours, notes);
+        Path artifact = findArtifact(empreinte);
+        if (artifact != null) {
+            return artifact;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            artifact = writeArtifact(empreinte, out -> reportService.genererRapportCours(cours, notes, out));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("✅ [RAPPORTS] Rapport {} {} généré en {} ms", ReportJob.TYPE_COURS, cours.getCode(),
+                System.currentTimeMillis() - start);
+        return artifact;
+    }
+    
+    /**
+     * Obtient l'état d'un job
+     */
+    public ReportJob getJob(String jobId) {
+        ReportJob job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Rapport", "id", jobId);
+        }
+        return job;
+    }
+    
+    /**
+     * Fichier PDF d'un job terminé
+     * @throws ConflictException si le rapport n'est pas encore prêt (ou en erreur)
+     */
+    public Path getArtifact(String jobId) {
+        ReportJob job = getJob(jobId);
+        if (!ReportJob.STATUS_TERMINE.equals(job.getStatus())) {
+            throw new ConflictException("Le rapport n'est pas disponible (statut " + job.getStatus() + ")");
+        }
+        Path artifact = findArtifact(job.getEmpreinte());
+        if (artifact == null) {
+            throw new ResourceNotFoundException("Rapport", "id", jobId);
+        }
+        return artifact;
+    }
+    
+    /**
+     * Supprime les PDF non lus depuis report.cache.retention-hours
+     */
+    @Scheduled(fixedDelayString = "${report.cache.purge-interval-ms:3600000}")
+    public void purgeCache() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        FileTime limite = FileTime.from(Instant.now().minus(Duration.ofHours(cacheRetentionHours)));
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + PDF_SUFFIX)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).compareTo(limite) < 0 && Files.deleteIfExists(file)) {
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ [RAPPORTS] Purge du cache impossible: {}", e.getMessage());
+        }
+        if (deleted > 0) {
+            log.info("🧹 [RAPPORTS] {} rapports supprimés du cache", deleted);
+        }
+    }
+    
+    private ReportJob soumettre(String type, String cible, String empreinte, RapportRenderer renderer) {
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), type, cible, ReportJob.STATUS_EN_ATTENTE,
+                empreinte, false, null, null, LocalDateTime.now());
+        
+        Path artifact = findArtifact(empreinte);
+        if (artifact != null) {
+            job.setStatus(ReportJob.STATUS_TERMINE);
+            job.setCache(true);
+            job.setTaille(size(artifact));
+            jobs.put(job.getId(), job);
+            return job;
+        }
+        
+        // Même rapport déjà demandé : on partage son job
+        ReportJob existing = inFlight.putIfAbsent(empreinte, job);
+        if (existing != null) {
+            return existing;
+        }
+        jobs.put(job.getId(), job);
+        try {
+            reportExecutor.execute(() -> render(job, renderer));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(empreinte);
+            jobs.invalidate(job.getId());
+            throw new ConflictException("Trop de rapports en attente, veuillez réessayer plus tard");
+        }
+        return job;
+    }
+    
+    private void render(ReportJob job, RapportRenderer renderer) {
+        long start = System.currentTimeMillis();
+        job.setStatus(ReportJob.STATUS_EN_COURS);
+        jobs.put(job.getId(), job);
+        try {
+            Path artifact = writeArtifact(job.getEmpreinte(), renderer);
+            job.setTaille(size(artifact));
+            job.setStatus(ReportJob.STATUS_TERMINE);
+            log.info("✅ [RAPPORTS] Rapport {} {} généré en {} ms", job.getType(), job.getCible(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("❌ [RAPPORTS] Échec du rapport {} {}", job.getType(), job.getCible(), e);
+            job.setStatus(ReportJob.STATUS_ERREUR);
+            job.setMessage("Erreur lors de la génération du PDF");
+        } finally {
+            jobs.put(job.getId(), job);
+            inFlight.remove(job.getEmpreinte());
+        }
+    }
+    
+    /**
+     * Rendu dans un fichier temporaire, renommé en {empreinte}.pdf une fois complet
+     * (un lecteur concurrent ne voit jamais de PDF partiel)
+     */
+    private Path writeArtifact(String empreinte, RapportRenderer renderer) throws IOException {
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, empreinte, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                renderer.render(out);
+            }
+            Path artifact = directory.resolve(empreinte + PDF_SUFFIX);
+            Files.move(tmp, artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return artifact;
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(tmp);
+            throw e;
+        }
+    }
+    
+    private static String empreinteCours(Cours cours, List<NoteReportRow> notes) {
+        MessageDigest digest = sha256();
+        update(digest, RENDER_VERSION, ReportJob.TYPE_COURS, cours.getCode(), cours.getTitre(), cours.getDescription());
+        update(digest, notes);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    private static String empreinteNotes(Etudiant etudiant, List<NoteReportRow> notes) {
+        MessageDigest digest = sha256();
+        update(digest, RENDER_VERSION, ReportJob.TYPE_NOTES, etudiant.getId(), etudiant.getMatricule(),
+                etudiant.getNom(), etudiant.getPrenom(), etudiant.getEmail(), etudiant.getDateInscription());
+        update(digest, notes);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+    
+    private static void update(MessageDigest digest, List<NoteReportRow> rows) {
+        for (NoteReportRow row : rows) {
+            update(digest, row.getNoteId(), row.getValeur(), row.getDateSaisie(), row.getEtudiantMatricule(),
+                    row.getEtudiantNom(), row.getEtudiantPrenom(), row.getCoursTitre());
+        }
+    }
+    
+    private static void update(MessageDigest digest, Object... values) {
+        for (Object value : values) {
+            // Séparateur hors texte : "ab" + "c" et "a" + "bc" donnent des empreintes différentes
+            digest.update(Objects.toString(value, "").getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponible", e);
+        }
+    }
+    
+    /**
+     * PDF en cache pour une empreinte ; sa date est mise à jour pour le protéger de la purge
+     */
+    private Path findArtifact(String empreinte) {
+        Path artifact = directory.resolve(empreinte + PDF_SUFFIX);
+        if (!Files.isRegularFile(artifact)) {
+            return null;
+        }
+        try {
+            Files.setLastModifiedTime(artifact, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // Supprimé entre-temps par la purge
+            return null;
+        }
+        return artifact;
+    }
+    
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("⚠️ [RAPPORTS] Fichier temporaire non supprimé: {}", file);
+            }
+        }
+    }
+    
+    /**
+     * Écriture d'un rapport dans un flux
+     */
+    @FunctionalInterface
+    private interface RapportRenderer {
+        void render(OutputStream out) throws IOException;
+    }
+}
@@ -1,20 +1,31 @@
 package com.formation.app.service;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.SeanceRecurrence;
 import com.formation.app.entity.Cours;
 import com.formation.app.entity.Formateur;
 import com.formation.app.entity.Seance;
-import com.formation.app.exception.ConflictException;
+import com.formation.app.exception.BadRequestException;
 import com.formation.app.exception.ResourceNotFoundException;
+import com.formation.app.pagination.Keyset;
+import com.formation.app.planning.SeanceConflictIndex;
 import com.formation.app.repository.CoursRepository;
 import com.formation.app.repository.FormateurRepository;
+import com.formation.app.repository.InscriptionRepository;
 import com.formation.app.repository.SeanceRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -28,6 +39,12 @@ public class SeanceService {
     private final SeanceRepository seanceRepository;
     private final CoursRepository coursRepository;
     private final FormateurRepository formateurRepository;
+    private final InscriptionRepository inscriptionRepository;
+    private final SeanceConflictIndex conflictIndex;
+    private final EntityManager entityManager;
+    
+    // Nombre maximal de séances générées par une planification récurrente
+    private static final int MAX_RECURRENCE_SIZE = 1000;
     
     /**
      * Crée une nouvelle séance
@@ -43,53 +60,108 @@ public class SeanceService {
                 .orElseThrow(() -> new ResourceNotFoundException("Formateur", "id", seance.getFormateur().getId()));
         seance.setFormateur(formateur);
         
-        // Vérifier les conflits d'horaires
-        if (verifierConflitFormateur(seance.getFormateur().getId(), seance.getDate(), seance.getHeure())) {
-            throw new ConflictException("Le formateur a déjà une séance à cette date et heure");
-        }
-        
         // Générer un ID si non fourni
         if (seance.getId() == null || seance.getId().isEmpty()) {
             seance.setId(UUID.randomUUID().toString());
         }
+        if (seance.getDureeMinutes() == null) {
+            seance.setDureeMinutes(conflictIndex.getDureeDefautMinutes());
+        }
+        
+        // Vérifier les conflits d'horaires (formateur et salle, durées comprises) et réserver le créneau
+        conflictIndex.reserve(List.of(seance));
         
         return seanceRepository.save(seance);
     }
     
     /**
-     * Met à jour une séance
+     * Génère les séances d'une planification hebdomadaire (semestre) en une transaction
+     * Les conflits (formateur ou salle déjà occupés sur un créneau qui chevauche) sont détectés
+     * pour tout l'ensemble dans l'index en mémoire ; les séances sont ensuite insérées par lots JDBC
+     * Tout ou rien : aucune séance n'est créée en cas de conflit
      */
-    public Seance updateSeance(String id, Seance seanceDetails) {
-        Seance seance = getSeanceById(id);
+    public List<Seance> createSeancesRecurrentes(SeanceRecurrence recurrence) {
+        validerRecurrence(recurrence);
         
-        // Déterminer le formateurId à utiliser pour la vérification des conflits
-        String formateurIdPourVerification = seance.getFormateur().getId();
+        Cours cours = coursRepository.findByCode(recurrence.getCoursCode())
+                .orElseThrow(() -> new ResourceNotFoundException("Cours", "code", recurrence.getCoursCode()));
+        Formateur formateur = formateurRepository.findById(recurrence.getFormateurId())
+                .orElseThrow(() -> new ResourceNotFoundException("Formateur", "id", recurrence.getFormateurId()));
         
-        // Si un nouveau formateur est fourni, l'utiliser
-        if (seanceDetails.getFormateur() != null && seanceDetails.getFormateur().getId() != null) {
-            formateurIdPourVerification = seanceDetails.getFormateur().getId();
+        // Générer les occurrences (créneaux en double ignorés)
+        Set<SeanceRecurrence.Creneau> creneaux = new LinkedHashSet<>(recurrence.getCreneaux());
+        Set<LocalDate> exclusions = recurrence.getExclusions() != null
+                ? new HashSet<>(recurrence.getExclusions()) : Set.of();
+        int duree = recurrence.getDureeMinutes() != null
+                ? recurrence.getDureeMinutes() : conflictIndex.getDureeDefautMinutes();
+        List<Seance> seances = new ArrayList<>();
+        for (LocalDate date = recurrence.getDateDebut(); !date.isAfter(recurrence.getDateFin()); date = date.plusDays(1)) {
+            if (exclusions.contains(date)) {
+                continue;
+            }
+            for (SeanceRecurrence.Creneau creneau : creneaux) {
+                if (creneau.getJour() == date.getDayOfWeek()) {
+                    seances.add(new Seance(UUID.randomUUID().toString(), date, creneau.getHeure(),
+                            recurrence.getSalle(), duree, cours, formateur));
+                }
+            }
+            if (seances.size() > MAX_RECURRENCE_SIZE) {
+                throw new BadRequestException("Une planification est limitée à " + MAX_RECURRENCE_SIZE + " séances");
+            }
+        }
+        if (seances.isEmpty()) {
+            throw new BadRequestException("Aucune séance à générer sur cette période");
         }
         
-        // Vérifier les conflits si la date/heure change (en excluant la séance actuelle)
-        if (!seance.getDate().equals(seanceDetails.getDate()) || 
-            !seance.getHeure().equals(seanceDetails.getHeure())) {
-            // Vérifier s'il y a un conflit avec une autre séance (pas celle qu'on modifie)
-            List<Seance> seancesConflit = seanceRepository.findByFormateurIdAndDateAndHeure(
-                formateurIdPourVerification, 
-                seanceDetails.getDate(), 
-                seanceDetails.getHeure()
-            );
-            // Filtrer pour exclure la séance actuelle
-            boolean conflit = seancesConflit.stream()
-                .anyMatch(s -> !s.getId().equals(id));
-            if (conflit) {
-                throw new ConflictException("Le formateur a déjà une séance à cette date et heure");
+        // Vérifier les conflits de tout l'ensemble et réserver les créneaux
+        conflictIndex.reserve(seances);
+        
+        // persist plutôt que save : ID assigné, save ferait un SELECT par séance
+        for (Seance seance : seances) {
+            entityManager.persist(seance);
+        }
+        return seances;
+    }
+    
+    /**
+     * Valide une planification récurrente en mémoire, sans accès base
+     */
+    private void validerRecurrence(SeanceRecurrence recurrence) {
+        if (recurrence.getCoursCode() == null || recurrence.getFormateurId() == null) {
+            throw new BadRequestException("Le cours et le formateur sont obligatoires");
+        }
+        if (recurrence.getSalle() == null || recurrence.getSalle().isBlank()) {
+            throw new BadRequestException("La salle est obligatoire");
+        }
+        if (recurrence.getDateDebut() == null || recurrence.getDateFin() == null
+                || recurrence.getDateFin().isBefore(recurrence.getDateDebut())) {
+            throw new BadRequestException("La période (dateDebut, dateFin) est invalide");
+        }
+        if (recurrence.getCreneaux() == null || recurrence.getCreneaux().isEmpty()) {
+            throw new BadRequestException("Au moins un créneau hebdomadaire est obligatoire");
+        }
+        for (SeanceRecurrence.Creneau creneau : recurrence.getCreneaux()) {
+            if (creneau == null || creneau.getJour() == null || creneau.getHeure() == null) {
+                throw new BadRequestException("Chaque créneau doit préciser le jour et l'heure");
             }
         }
+        if (recurrence.getDureeMinutes() != null && recurrence.getDureeMinutes() <= 0) {
+            throw new BadRequestException("La durée doit être positive");
+        }
+    }
+    
+    /**
+     * Met à jour une séance
+     */
+    public Seance updateSeance(String id, Seance seanceDetails) {
+        Seance seance = getSeanceById(id);
         
         seance.setDate(seanceDetails.getDate());
         seance.setHeure(seanceDetails.getHeure());
         seance.setSalle(seanceDetails.getSalle());
+        if (seanceDetails.getDureeMinutes() != null) {
+            seance.setDureeMinutes(seanceDetails.getDureeMinutes());
+        }
         
         // Mettre à jour le cours si fourni
         if (seanceDetails.getCours() != null && seanceDetails.getCours().getCode() != null) {
@@ -105,6 +177,9 @@ public class SeanceService {
             seance.setFormateur(formateur);
         }
         
+        // Vérifier les conflits du nouveau créneau (en excluant la séance actuelle) et le réserver
+        conflictIndex.move(seance);
+        
         return seanceRepository.save(seance);
     }
     
@@ -114,6 +189,7 @@ public class SeanceService {
     public void deleteSeance(String id) {
         Seance seance = getSeanceById(id);
         seanceRepository.delete(seance);
+        conflictIndex.release(id);
     }
     
     /**
@@ -175,21 +251,21 @@ public class SeanceService {
     }
     
     /**
-     * Vérifie s'il y a un conflit d'horaire pour un étudiant
+     * Vérifie s'il y a un conflit d'horaire pour un étudiant (séance de l'un de ses cours
+     * chevauchant le créneau, de durée par défaut)
      */
     @Transactional(readOnly = true)
     public boolean verifierConflitHoraires(String etudiantId, LocalDate date, LocalTime heure) {
-        List<Seance> seances = getEmploiDuTempsEtudiant(etudiantId);
-        return seances.stream()
-                .anyMatch(s -> s.getDate().equals(date) && s.getHeure().equals(heure));
+        List<String> coursCodes = inscriptionRepository.findActiveCoursCodesByEtudiantId(etudiantId);
+        return conflictIndex.hasConflitCours(coursCodes, date, heure, conflictIndex.getDureeDefautMinutes());
     }
     
     /**
-     * Vérifie s'il y a un conflit d'horaire pour un formateur
+     * Vérifie s'il y a un conflit d'horaire pour un formateur (séance chevauchant le créneau, de durée par défaut)
      */
     @Transactional(readOnly = true)
     public boolean verifierConflitFormateur(String formateurId, LocalDate date, LocalTime heure) {
-        return seanceRepository.existsConflitFormateur(formateurId, date, heure);
+        return conflictIndex.hasConflitFormateur(formateurId, date, heure, conflictIndex.getDureeDefautMinutes());
     }
     
     /**
@@ -235,6 +311,29 @@ public class SeanceService {
         return seances;
     }
     
+    /**
+     * Liste les séances par page, triées par date, heure puis ID (pagination par curseur)
+     * @param cursor curseur de la page précédente (null pour la première page)
+     * @param size taille de page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Seance> getSeancesPage(String cursor, int size) {
+        int pageSize = Keyset.pageSize(size);
+        List<Seance> seances;
+        if (Keyset.isFirstPage(cursor)) {
+            seances = seanceRepository.findFirstPage(Keyset.limit(pageSize));
+        } else {
+            String[] keys = Keyset.decode(cursor, 3);
+            try {
+                seances = seanceRepository.findPageAfter(LocalDate.parse(keys[0]), LocalTime.parse(keys[1]),
+                        keys[2], Keyset.limit(pageSize));
+            } catch (DateTimeParseException e) {
+                throw new BadRequestException("Curseur de pagination invalide");
+            }
+        }
+        return Keyset.page(seances, pageSize, s -> new Object[]{s.getDate(), s.getHeure(), s.getId()});
+    }
+    
     /**
      * Trouve toutes les séances futures (à partir d'aujourd'hui)
      */
@@ -1,7 +1,9 @@
 package com.formation.app.service;
 
+import com.formation.app.entity.Seance;
 import com.formation.app.entity.Session;
 import com.formation.app.exception.ResourceNotFoundException;
+import com.formation.app.planning.SeanceConflictIndex;
 import com.formation.app.repository.SessionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,6 +21,7 @@ import java.util.UUID;
 public class SessionService {
     
     private final SessionRepository sessionRepository;
+    private final SeanceConflictIndex conflictIndex;
     
     /**
      * Crée une nouvelle session
@@ -49,7 +52,13 @@ public class SessionService {
      */
     public void deleteSession(String id) {
         Session session = getSessionById(id);
+        List<String> seanceIds = session.getCours().stream()
+                .flatMap(cours -> cours.getSeances().stream())
+                .map(Seance::getId)
+                .toList();
         sessionRepository.delete(session);
+        // Séances des cours de la session, supprimées en cascade : créneaux libérés après validation
+        conflictIndex.release(seanceIds);
     }
     
     /**
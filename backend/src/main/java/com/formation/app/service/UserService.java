@@ -5,10 +5,15 @@ import com.formation.app.entity.User;
 import com.formation.app.exception.BadRequestException;
 import com.formation.app.exception.ResourceNotFoundException;
 import com.formation.app.repository.UserRepository;
+import com.formation.app.security.RefreshTokenService;
+import com.formation.app.security.TokenVersionService;
+import com.formation.app.security.VerifiedTokenCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -24,6 +29,9 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenVersionService tokenVersionService;
     
     /**
      * Crée un nouvel utilisateur
@@ -69,11 +77,52 @@ public class UserService {
     
     /**
      * Change le mot de passe d'un utilisateur
+     * Les tokens déjà émis sont révoqués
      */
     public void changePassword(String userId, String newPassword) {
         User user = getUserById(userId);
         user.setPassword(passwordEncoder.encode(newPassword));
+        incrementTokenVersion(user);
         userRepository.save(user);
+        evictTokensAfterCommit(userId);
+        refreshTokenService.revokeAll(userId);
+    }
+    
+    /**
+     * Révoque tous les tokens JWT émis pour un utilisateur
+     */
+    public void revokeTokens(String userId) {
+        User user = getUserById(userId);
+        incrementTokenVersion(user);
+        userRepository.save(user);
+        evictTokensAfterCommit(userId);
+        refreshTokenService.revokeAll(userId);
+    }
+    
+    /**
+     * Retire la version et les tokens vérifiés en cache une fois la transaction validée :
+     * évincés plus tôt, une requête concurrente relirait l'ancienne version et la remettrait en cache
+     */
+    private void evictTokensAfterCommit(String userId) {
+        Runnable evict = () -> {
+            tokenVersionService.evict(userId);
+            verifiedTokenCache.evictUser(userId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+    
+    private void incrementTokenVersion(User user) {
+        int version = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+        user.setTokenVersion(version + 1);
     }
     
     /**
@@ -98,6 +147,8 @@ public class UserService {
             throw new ResourceNotFoundException("User", "id", id);
         }
         userRepository.deleteById(id);
+        evictTokensAfterCommit(id);
+        refreshTokenService.revokeAll(id);
     }
 }
 
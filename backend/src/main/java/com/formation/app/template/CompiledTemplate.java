@@ -0,0 +1,135 @@
+package com.formation.app.template;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Template de message compilé une seule fois : le texte est découpé en segments
+ * (texte fixe ou variable {{nom}}) et les variables sont résolues en index au chargement
+ * Le rendu ne fait que des append dans un StringBuilder réutilisé par thread (pas de parsing par appel)
+ * En mode HTML, les valeurs sont échappées
+ */
+public final class CompiledTemplate {
+    
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    
+    // Buffers plus grands que ce seuil ne sont pas conservés (évite de retenir un gros tableau par thread)
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+    
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+    
+    private final String name;
+    private final boolean html;
+    private final int parameterCount;
+    // Segments fixes et index des variables : literals[i], puis variable variables[i] (si i < variables.length)
+    private final String[] literals;
+    private final int[] variables;
+    private final int estimatedLength;
+    
+    private CompiledTemplate(String name, boolean html, int parameterCount, String[] literals, int[] variables) {
+        this.name = name;
+        this.html = html;
+        this.parameterCount = parameterCount;
+        this.literals = literals;
+        this.variables = variables;
+        this.estimatedLength = Arrays.stream(literals).mapToInt(String::length).sum() + variables.length * 16;
+    }
+    
+    /**
+     * Compile un template
+     * @param name nom du template (messages d'erreur)
+     * @param source texte du template avec des variables {{nom}}
+     * @param html true pour échapper les valeurs en HTML
+     * @param parameters noms des variables, dans l'ordre des valeurs passées à render
+     * @throws IllegalArgumentException si le template utilise une variable non déclarée ou est mal formé
+     */
+    public static CompiledTemplate compile(String name, String source, boolean html, String... parameters) {
+        List<String> parameterNames = Arrays.asList(parameters);
+        List<String> literals = new ArrayList<>();
+        List<Integer> variables = new ArrayList<>();
+        
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Variable non fermée dans le template " + name);
+            }
+            String variable = source.substring(open + OPEN.length(), close).trim();
+            int index = parameterNames.indexOf(variable);
+            if (index < 0) {
+                throw new IllegalArgumentException("Variable inconnue {{" + variable + "}} dans le template " + name);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(index);
+            position = close + CLOSE.length();
+        }
+        
+        return new CompiledTemplate(
+                name,
+                html,
+                parameters.length,
+                literals.toArray(String[]::new),
+                variables.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+    
+    /**
+     * Rend le template dans le buffer du thread courant
+     * @param values valeurs des variables, dans l'ordre déclaré à la compilation (null rendu vide)
+     */
+    public String render(String... values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        renderTo(buffer, values);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+    
+    /**
+     * Rend le template à la suite du contenu de out
+     */
+    public void renderTo(StringBuilder out, String... values) {
+        if (values.length != parameterCount) {
+            throw new IllegalArgumentException("Le template " + name + " attend " + parameterCount
+                    + " valeurs, " + values.length + " reçues");
+        }
+        out.ensureCapacity(out.length() + estimatedLength);
+        for (int i = 0; i < literals.length; i++) {
+            out.append(literals[i]);
+            if (i < variables.length) {
+                appendValue(out, values[variables[i]]);
+            }
+        }
+    }
+    
+    private void appendValue(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        if (!html) {
+            out.append(value);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+}
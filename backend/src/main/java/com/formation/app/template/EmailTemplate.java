@@ -0,0 +1,55 @@
+package com.formation.app.template;
+
+/**
+ * Emails de notification : sujet, fichiers de template (mail-templates/{nom}.txt et .html) et variables
+ * L'ordre des variables est l'ordre des valeurs passées à EmailTemplates.render
+ */
+public enum EmailTemplate {
+    
+    INSCRIPTION("inscription",
+            "Confirmation d'inscription - {{coursTitre}}",
+            "prenom", "nom", "coursTitre", "coursCode"),
+    
+    DESINSCRIPTION("desinscription",
+            "Désinscription - {{coursTitre}}",
+            "prenom", "nom", "coursTitre", "coursCode"),
+    
+    NOUVELLE_INSCRIPTION_FORMATEUR("nouvelle-inscription-formateur",
+            "Nouvelle inscription - {{coursTitre}}",
+            "formateurNom", "etudiantPrenom", "etudiantNom", "etudiantMatricule", "coursTitre", "coursCode"),
+    
+    IDENTIFIANTS("identifiants",
+            "Bienvenue au Centre de Formation - Vos identifiants de connexion",
+            "nomComplet", "role", "matricule", "loginUrl"),
+    
+    // Récapitulatifs : notifications d'un même destinataire regroupées pendant la fenêtre de regroupement
+    INSCRIPTION_RECAP("inscription-recap",
+            "Confirmation de {{nombre}} inscriptions",
+            "nombre", "lignes"),
+    
+    NOUVELLES_INSCRIPTIONS_FORMATEUR_RECAP("nouvelles-inscriptions-formateur-recap",
+            "{{nombre}} nouvelles inscriptions à vos cours",
+            "nombre", "lignes");
+    
+    private final String fileName;
+    private final String subject;
+    private final String[] parameters;
+    
+    EmailTemplate(String fileName, String subject, String... parameters) {
+        this.fileName = fileName;
+        this.subject = subject;
+        this.parameters = parameters;
+    }
+    
+    public String getFileName() {
+        return fileName;
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public String[] getParameters() {
+        return parameters.clone();
+    }
+}
@@ -0,0 +1,74 @@
+package com.formation.app.template;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Templates des emails de notification, chargés et compilés une seule fois au démarrage
+ * Un template invalide (fichier texte absent, variable inconnue) empêche le démarrage de l'application
+ * Fichiers : mail-templates/{nom}.txt (obligatoire) et mail-templates/{nom}.html (alternative HTML, optionnelle)
+ */
+@Component
+@Slf4j
+public class EmailTemplates {
+    
+    private static final String LOCATION = "mail-templates/";
+    
+    private final Map<EmailTemplate, CompiledTemplate> subjects = new EnumMap<>(EmailTemplate.class);
+    private final Map<EmailTemplate, CompiledTemplate> texts = new EnumMap<>(EmailTemplate.class);
+    private final Map<EmailTemplate, CompiledTemplate> htmls = new EnumMap<>(EmailTemplate.class);
+    
+    public EmailTemplates() {
+        for (EmailTemplate template : EmailTemplate.values()) {
+            String[] parameters = template.getParameters();
+            subjects.put(template, CompiledTemplate.compile(template.name(), template.getSubject(), false, parameters));
+            
+            String text = load(template.getFileName() + ".txt");
+            if (text == null) {
+                throw new IllegalStateException("Template email introuvable: " + LOCATION + template.getFileName() + ".txt");
+            }
+            texts.put(template, CompiledTemplate.compile(template.getFileName() + ".txt", text, false, parameters));
+            
+            String html = load(template.getFileName() + ".html");
+            if (html != null) {
+                htmls.put(template, CompiledTemplate.compile(template.getFileName() + ".html", html, true, parameters));
+            }
+        }
+        log.info("✅ [TEMPLATES] {} templates d'email compilés ({} avec alternative HTML)", texts.size(), htmls.size());
+    }
+    
+    /**
+     * Rend le sujet, le texte et l'alternative HTML d'un email
+     * @param values valeurs des variables, dans l'ordre déclaré par le template
+     */
+    public RenderedEmail render(EmailTemplate template, String... values) {
+        CompiledTemplate html = htmls.get(template);
+        return new RenderedEmail(
+                subjects.get(template).render(values),
+                texts.get(template).render(values),
+                html != null ? html.render(values) : null
+        );
+    }
+    
+    private static String load(String fileName) {
+        ClassPathResource resource = new ClassPathResource(LOCATION + fileName);
+        if (!resource.exists()) {
+            return null;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            // Le dernier saut de ligne du fichier ne fait pas partie du message
+            return StreamUtils.copyToString(in, StandardCharsets.UTF_8).stripTrailing();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Lecture du template email impossible: " + fileName, e);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.formation.app.template;
+
+/**
+ * Email rendu : sujet, texte brut et alternative HTML (null si le template n'en a pas)
+ */
+public record RenderedEmail(
+        String subject,
+        String text,
+        String html
+) {
+}
@@ -0,0 +1,86 @@
+package com.formation.app.controller.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.app.repository.EtudiantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test d'intégration de l'import d'étudiants en multipart, sur un vrai serveur (limites de taille appliquées)
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "notification.outbox.poll-interval-ms=3600000")
+@ActiveProfiles("test")
+class EtudiantImportMultipartTest {
+    
+    private static final int LIGNES = 10_000;
+    
+    @Autowired
+    private TestRestTemplate restTemplate;
+    
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Test
+    void testImportMultipart_FileLargerThanDefaultLimit() throws Exception {
+        // Given : un CSV de 10 000 lignes, au-delà de la limite multipart par défaut (1MB)
+        StringBuilder csv = new StringBuilder("nom;prenom;email;matricule\n");
+        for (int i = 0; i < LIGNES; i++) {
+            csv.append("Nom-De-Famille-Tres-Long-Compose-").append(i).append(";Prenom-Tres-Long-Compose-").append(i)
+                    .append(";etudiant.import.").append(i).append("@centre-formation-test.com;IMP").append(i).append('\n');
+        }
+        byte[] content = csv.toString().getBytes(StandardCharsets.UTF_8);
+        assertTrue(content.length > DataSize.ofMegabytes(1).toBytes());
+        
+        MultiValueMap<String, Object> body = new LinkedMultiValueMap<>();
+        body.add("file", new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return "etudiants.csv";
+            }
+        });
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        headers.setBearerAuth(adminToken());
+        
+        // When
+        ResponseEntity<byte[]> response = restTemplate.postForEntity("/api/etudiants/import",
+                new HttpEntity<>(body, headers), byte[].class);
+        
+        // Then : le fichier est accepté et toutes les lignes sont importées
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String[] lines = new String(response.getBody(), StandardCharsets.UTF_8).trim().split("\n");
+        JsonNode summary = objectMapper.readTree(lines[lines.length - 1]);
+        assertEquals("TERMINE", summary.get("status").asText());
+        assertEquals(LIGNES, summary.get("created").asInt());
+        assertTrue(etudiantRepository.findByMatricule("IMP" + (LIGNES - 1)).isPresent());
+    }
+    
+    private String adminToken() {
+        ResponseEntity<Map> login = restTemplate.postForEntity("/api/auth/login",
+                Map.of("login", "admin", "password", "admin"), Map.class);
+        assertEquals(HttpStatus.OK, login.getStatusCode());
+        return (String) login.getBody().get("token");
+    }
+}
@@ -1,12 +1,23 @@
 package com.formation.app.controller.api;
 
+import com.formation.app.dto.CursorPage;
+import com.formation.app.dto.EtudiantSummary;
 import com.formation.app.entity.Etudiant;
+import com.formation.app.security.JwtTokenService;
+import com.formation.app.security.TokenVersionService;
+import com.formation.app.security.UserDetailsServiceImpl;
+import com.formation.app.security.VerifiedTokenCache;
+import com.formation.app.service.EtudiantImportService;
 import com.formation.app.service.EtudiantService;
+import com.formation.app.service.InscriptionService;
+import com.formation.app.service.NoteService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -14,8 +25,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -33,6 +50,31 @@ class EtudiantRestControllerTest {
     @MockBean
     private EtudiantService etudiantService;
     
+    @MockBean
+    private InscriptionService inscriptionService;
+    
+    @MockBean
+    private NoteService noteService;
+    
+    @MockBean
+    private EtudiantImportService etudiantImportService;
+    
+    @MockBean(name = "bulkImportExecutor")
+    private Executor bulkImportExecutor;
+    
+    // Dépendances du filtre JWT, chargé par @WebMvcTest
+    @MockBean
+    private JwtTokenService jwtTokenService;
+    
+    @MockBean(name = "userDetailsService")
+    private UserDetailsServiceImpl userDetailsService;
+    
+    @MockBean
+    private TokenVersionService tokenVersionService;
+    
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+    
     @Autowired
     private ObjectMapper objectMapper;
     
@@ -40,18 +82,61 @@ class EtudiantRestControllerTest {
     @WithMockUser(roles = "ADMIN")
     void testGetAllEtudiants() throws Exception {
         // Given
-        Etudiant etudiant1 = new Etudiant("ETU001", "MAT001", "Dupont", "Jean", "jean@email.com", LocalDate.now());
-        Etudiant etudiant2 = new Etudiant("ETU002", "MAT002", "Martin", "Marie", "marie@email.com", LocalDate.now());
-        List<Etudiant> etudiants = Arrays.asList(etudiant1, etudiant2);
+        EtudiantSummary etudiant1 = new EtudiantSummary("ETU001", "MAT001", "Dupont", "Jean", "jean@email.com", LocalDate.now());
+        EtudiantSummary etudiant2 = new EtudiantSummary("ETU002", "MAT002", "Martin", "Marie", "marie@email.com", LocalDate.now());
+        List<EtudiantSummary> etudiants = Arrays.asList(etudiant1, etudiant2);
         
-        when(etudiantService.getAllEtudiants()).thenReturn(etudiants);
+        when(etudiantService.searchEtudiants(isNull(), isNull(), isNull(), isNull(), eq(0), eq(10), eq("nom"), eq("asc")))
+                .thenReturn(new PageImpl<>(etudiants, PageRequest.of(0, 10), 2));
         
         // When & Then
         mockMvc.perform(get("/api/etudiants")
+                .param("page", "0")
+                .param("size", "10")
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+    
+    @Test
+    @WithMockUser(roles = "FORMATEUR")
+    void testGetAllEtudiants_FiltersAndSortPassedToService() throws Exception {
+        // Given
+        EtudiantSummary etudiant = new EtudiantSummary("ETU002", "MAT002", "Durand", "Marie", "marie@email.com", LocalDate.now());
+        when(etudiantService.searchEtudiants(eq("du"), isNull(), isNull(), isNull(), eq(1), eq(5), eq("prenom"), eq("desc")))
+                .thenReturn(new PageImpl<>(List.of(etudiant), PageRequest.of(1, 5), 6));
+        
+        // When & Then
+        mockMvc.perform(get("/api/etudiants")
+                .param("page", "1")
+                .param("size", "5")
+                .param("sort", "prenom")
+                .param("direction", "desc")
+                .param("nom", "du"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("ETU002"))
+                .andExpect(jsonPath("$.totalElements").value(6));
+    }
+    
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void testGetAllEtudiants_CursorPageByDefault() throws Exception {
+        // Given
+        EtudiantSummary etudiant = new EtudiantSummary("ETU001", "MAT001", "Dupont", "Jean", "jean@email.com", LocalDate.now());
+        when(etudiantService.getEtudiantsPage(isNull(), isNull(), eq("mat"), isNull(), eq("c1"), eq(20)))
+                .thenReturn(new CursorPage<>(List.of(etudiant), 20, "c2", true));
+        
+        // When & Then
+        mockMvc.perform(get("/api/etudiants")
+                .param("cursor", "c1")
+                .param("matricule", "mat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("ETU001"))
+                .andExpect(jsonPath("$.nextCursor").value("c2"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+        verify(etudiantService, never()).searchEtudiants(any(), any(), any(), any(), anyInt(), anyInt(), any(), any());
     }
     
     @Test
@@ -0,0 +1,112 @@
+package com.formation.app.controller.api;
+
+import com.formation.app.dto.CursorPage;
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Inscription;
+import com.formation.app.entity.Role;
+import com.formation.app.entity.User;
+import com.formation.app.security.UserDetailsImpl;
+import com.formation.app.service.InscriptionService;
+import com.formation.app.service.NotificationService;
+import com.formation.app.support.CountingDataJpaTest;
+import com.formation.app.support.JpaFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour la liste des inscriptions d'InscriptionRestController (visibilité par rôle)
+ */
+@CountingDataJpaTest
+@Import(InscriptionService.class)
+class InscriptionRestControllerTest {
+    
+    @Autowired
+    private InscriptionService inscriptionService;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private JpaFixture fixture;
+    
+    @MockBean
+    private NotificationService notificationService;
+    
+    private InscriptionRestController controller;
+    
+    @BeforeEach
+    void setUp() {
+        // 2 cours x 3 étudiants
+        Cours cours1 = fixture.cours(1, fixture.formateur());
+        Cours cours2 = fixture.cours(2, cours1.getFormateur());
+        for (int e = 1; e <= 3; e++) {
+            entityManager.persist(new Inscription("INS1" + e, LocalDate.now(), "ACTIVE", fixture.etudiant(e), cours1));
+            entityManager.persist(new Inscription("INS2" + e, LocalDate.now(), "ACTIVE", fixture.etudiant(e), cours2));
+        }
+        fixture.flushAndClear();
+        controller = new InscriptionRestController(inscriptionService);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void testGetAllInscriptions_EtudiantSeesOnlyOwnInscriptions() {
+        // Given
+        authenticate(Role.ETUDIANT, JpaFixture.etudiantId(2));
+        
+        // When : pages d'une inscription pour parcourir toute la liste
+        CursorPage<Inscription> first = controller.getAllInscriptions(null, 1).getBody();
+        CursorPage<Inscription> second = controller.getAllInscriptions(first.getNextCursor(), 1).getBody();
+        
+        // Then
+        assertEquals("ETU02", first.getContent().get(0).getEtudiant().getId());
+        assertEquals("ETU02", second.getContent().get(0).getEtudiant().getId());
+        assertFalse(second.isHasNext());
+    }
+    
+    @Test
+    void testGetAllInscriptions_EtudiantWithoutProfileForbidden() {
+        // Given
+        authenticate(Role.ETUDIANT, null);
+        
+        // When
+        ResponseEntity<CursorPage<Inscription>> response = controller.getAllInscriptions(null, 20);
+        
+        // Then
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+    
+    @Test
+    void testGetAllInscriptions_AdminSeesAllInscriptions() {
+        // Given
+        authenticate(Role.ADMIN, null);
+        
+        // When
+        CursorPage<Inscription> page = controller.getAllInscriptions(null, 20).getBody();
+        
+        // Then
+        assertEquals(6, page.getContent().size());
+    }
+    
+    private void authenticate(Role role, String etudiantId) {
+        UserDetailsImpl userDetails = new UserDetailsImpl(new User("USER001", "user", "password", role), etudiantId, null);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.formation.app.pagination;
+
+import com.formation.app.dto.CursorPage;
+import com.formation.app.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour Keyset
+ */
+class KeysetTest {
+    
+    @Test
+    void testEncodeDecode_RoundTrip() {
+        // Given
+        String cursor = Keyset.encode(LocalDate.of(2024, 3, 1), LocalTime.of(10, 30), "SEA-001");
+        
+        // When
+        String[] keys = Keyset.decode(cursor, 3);
+        
+        // Then
+        assertArrayEquals(new String[]{"2024-03-01", "10:30", "SEA-001"}, keys);
+    }
+    
+    @Test
+    void testDecode_InvalidCursor() {
+        // When & Then
+        assertThrows(BadRequestException.class, () -> Keyset.decode("%%%", 1));
+        assertThrows(BadRequestException.class, () -> Keyset.decode(Keyset.encode("a", "b"), 1));
+    }
+    
+    @Test
+    void testPage_HasNext() {
+        // Given : limit(2) lit une ligne de plus que la page
+        List<String> rows = List.of("A", "B", "C");
+        
+        // When
+        CursorPage<String> page = Keyset.page(rows, 2, s -> new Object[]{s});
+        
+        // Then
+        assertEquals(List.of("A", "B"), page.getContent());
+        assertTrue(page.isHasNext());
+        assertEquals("B", Keyset.decode(page.getNextCursor(), 1)[0]);
+    }
+    
+    @Test
+    void testPage_LastPage() {
+        // When
+        CursorPage<String> page = Keyset.page(List.of("A"), 2, s -> new Object[]{s});
+        
+        // Then
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+    
+    @Test
+    void testPageSize_ClampedAndValidated() {
+        assertEquals(Keyset.MAX_SIZE, Keyset.pageSize(1000));
+        assertThrows(BadRequestException.class, () -> Keyset.pageSize(0));
+    }
+}
@@ -0,0 +1,75 @@
+package com.formation.app.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour IntervalTree
+ */
+class IntervalTreeTest {
+    
+    @Test
+    void testFindOverlap_HalfOpenIntervals() {
+        // Given
+        IntervalTree tree = new IntervalTree();
+        tree.insert(100, 190, "A");
+        tree.insert(200, 260, "B");
+        
+        // When & Then : [début, fin[, deux créneaux consécutifs ne se chevauchent pas
+        assertEquals("A", tree.findOverlap(150, 160, null));
+        assertEquals("B", tree.findOverlap(190, 210, null));
+        assertNull(tree.findOverlap(190, 200, null));
+        assertNull(tree.findOverlap(260, 300, null));
+        assertNull(tree.findOverlap(150, 160, "A"));
+    }
+    
+    @Test
+    void testRemove() {
+        // Given
+        IntervalTree tree = new IntervalTree();
+        tree.insert(100, 190, "A");
+        tree.insert(100, 130, "B");
+        
+        // When
+        assertTrue(tree.remove(100, "A"));
+        assertFalse(tree.remove(100, "A"));
+        
+        // Then
+        assertEquals(1, tree.size());
+        assertNull(tree.findOverlap(150, 160, null));
+        assertEquals("B", tree.findOverlap(120, 160, null));
+    }
+    
+    @Test
+    void testFindOverlap_MatchesLinearScan() {
+        // Given : intervalles aléatoires qui se chevauchent, dont une partie retirée
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            long start = random.nextInt(100_000);
+            long[] interval = {start, start + 1 + random.nextInt(300), i};
+            tree.insert(interval[0], interval[1], String.valueOf(i));
+            intervals.add(interval);
+        }
+        for (int i = 0; i < 500; i++) {
+            long[] interval = intervals.remove(random.nextInt(intervals.size()));
+            assertTrue(tree.remove(interval[0], String.valueOf(interval[2])));
+        }
+        
+        // When & Then
+        for (int i = 0; i < 5000; i++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(120);
+            boolean expected = intervals.stream().anyMatch(iv -> iv[0] < end && iv[1] > start);
+            String found = tree.findOverlap(start, end, null);
+            assertEquals(expected, found != null);
+        }
+        assertEquals(1500, tree.size());
+    }
+}
@@ -0,0 +1,110 @@
+package com.formation.app.planning;
+
+import com.formation.app.dto.SeanceOccupation;
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Formateur;
+import com.formation.app.entity.Seance;
+import com.formation.app.exception.ConflictException;
+import com.formation.app.repository.SeanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour SeanceConflictIndex
+ */
+@ExtendWith(MockitoExtension.class)
+class SeanceConflictIndexTest {
+    
+    private static final LocalDate DATE = LocalDate.of(2026, 2, 2);
+    
+    @Mock
+    private SeanceRepository seanceRepository;
+    
+    private SeanceConflictIndex conflictIndex;
+    
+    private final Cours cours = new Cours("COURS001", "Cours 1", null);
+    
+    @BeforeEach
+    void setUp() {
+        conflictIndex = new SeanceConflictIndex(seanceRepository);
+        ReflectionTestUtils.setField(conflictIndex, "dureeDefautMinutes", 90);
+    }
+    
+    @Test
+    void testReserve_ConcurrentReservationsOfSameRoomOnlyOneSucceeds() throws Exception {
+        // Given : deux formateurs différents veulent la salle A101 au même créneau
+        when(seanceRepository.findAllOccupations()).thenReturn(List.of());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 50; round++) {
+                String tour = "R" + round;
+                LocalTime heure = LocalTime.of(8, 0).plusMinutes(round * 10L);
+                CyclicBarrier barrier = new CyclicBarrier(2);
+                List<Future<Boolean>> results = List.of(
+                        executor.submit(() -> tryReserve(barrier, tour + "-A", heure, "FORM001")),
+                        executor.submit(() -> tryReserve(barrier, tour + "-B", heure.plusMinutes(30), "FORM002")));
+                
+                // Then : exactement une réservation passe à chaque tour
+                int succes = 0;
+                for (Future<Boolean> result : results) {
+                    succes += result.get() ? 1 : 0;
+                }
+                assertEquals(1, succes, "tour " + round);
+                conflictIndex.invalidate();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testReserve_DatabaseVerificationSeesSeancesWrittenElsewhere() {
+        // Given : l'index a chargé SEANCE001 (supprimée depuis par une autre instance),
+        // et la base contient SEANCE002 (créée par une autre instance)
+        ReflectionTestUtils.setField(conflictIndex, "verificationBase", true);
+        when(seanceRepository.findAllOccupations()).thenReturn(List.of(
+                new SeanceOccupation("SEANCE001", DATE, LocalTime.of(9, 0), 90, "FORM009", "A101", "COURS009")));
+        when(seanceRepository.findOccupations(any(), any(), anyCollection(), anyCollection())).thenReturn(List.of(
+                new SeanceOccupation("SEANCE002", DATE, LocalTime.of(14, 0), 90, "FORM009", "B202", "COURS009")));
+        
+        // When & Then : la salle A101 à 9h est libre en base, B202 à 14h est occupée
+        conflictIndex.reserve(List.of(seance("NEW1", LocalTime.of(9, 0), "A101", "FORM001")));
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> conflictIndex.reserve(List.of(seance("NEW2", LocalTime.of(14, 30), "B202", "FORM001"))));
+        assertTrue(exception.getMessage().contains("SEANCE002"));
+        verify(seanceRepository, times(1)).findAllOccupations();
+        verify(seanceRepository, times(2)).findOccupations(eq(DATE.minusDays(1)), eq(DATE), anyCollection(), anyCollection());
+    }
+    
+    private boolean tryReserve(CyclicBarrier barrier, String id, LocalTime heure, String formateurId) throws Exception {
+        Seance seance = seance(id, heure, "A101", formateurId);
+        barrier.await();
+        try {
+            conflictIndex.reserve(List.of(seance));
+            return true;
+        } catch (ConflictException e) {
+            return false;
+        }
+    }
+    
+    private Seance seance(String id, LocalTime heure, String salle, String formateurId) {
+        Formateur formateur = new Formateur(formateurId, "M" + formateurId, "Nom", "Java", formateurId + "@email.com");
+        return new Seance(id, DATE, heure, salle, 90, cours, formateur);
+    }
+}
@@ -0,0 +1,64 @@
+package com.formation.app.report;
+
+import com.formation.app.dto.NoteReportRow;
+import com.formation.app.entity.Cours;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour ReportRenderer et PdfReportWriter
+ */
+class ReportRendererTest {
+    
+    private final ReportRenderer reportRenderer = new ReportRenderer(-1, "");
+    
+    @Test
+    void testRenderCours_TableSpansPagesWithStatisticsFromRows() throws IOException {
+        // Given : 60 notes, plus qu'une page
+        Cours cours = new Cours();
+        cours.setCode("JAVA101");
+        cours.setTitre("Java Avancé");
+        List<NoteReportRow> rows = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            rows.add(new NoteReportRow("N" + i, i % 2 == 0 ? 8f : 14.5f, LocalDate.of(2026, 1, 10),
+                    "E" + i, "MAT" + i, "Dupont", "Jean-Christophe-" + i, "JAVA101", "Java Avancé"));
+        }
+        
+        // When
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        reportRenderer.renderCours(cours, rows, pdf);
+        
+        // Then
+        try (PDDocument document = Loader.loadPDF(pdf.toByteArray())) {
+            assertTrue(document.getNumberOfPages() > 1);
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("Aucune description"));
+            assertTrue(text.contains("Taux de réussite: " + String.format("%.2f", 50.0) + "%"));
+            assertTrue(text.contains("Nombre d'étudiants notés: 60"));
+            assertTrue(text.contains("Jean-Christophe-0..."));
+            assertTrue(text.contains("MAT59"));
+        }
+    }
+    
+    @Test
+    void testDecimalAndAbbreviate_MatchPreviousFormatting() throws IOException {
+        try (PDDocument document = new PDDocument();
+             PdfReportWriter writer = new PdfReportWriter(document)) {
+            assertEquals(String.format("%.2f", 12.345), writer.decimal(12.345));
+            assertEquals(String.format("%.2f", 7.0), writer.decimal(7.0));
+        }
+        assertEquals("Introduction à la pro...", PdfReportWriter.abbreviate("Introduction à la programmation", 24));
+        assertEquals("Court", PdfReportWriter.abbreviate("Court", 24));
+        assertEquals("N/A", PdfReportWriter.date(null));
+    }
+}
@@ -1,9 +1,14 @@
 package com.formation.app.repository;
 
+import com.formation.app.dto.EtudiantSummary;
 import com.formation.app.entity.Etudiant;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
@@ -80,5 +85,68 @@ class EtudiantRepositoryTest {
         assertFalse(found.isEmpty());
         assertTrue(found.size() >= 2);
     }
+    
+    @Test
+    void testFindSummaries_FilterSortAndPage() {
+        // Given
+        etudiantRepository.save(new Etudiant("ETU001", "MAT001", "Dupont", "Jean", "jean@email.com", LocalDate.now()));
+        etudiantRepository.save(new Etudiant("ETU002", "MAT002", "Durand", "Marie", "marie@email.com", LocalDate.now()));
+        etudiantRepository.save(new Etudiant("ETU003", "MAT003", "Martin", "Paul", "paul@email.com", LocalDate.now()));
+        
+        // When
+        Page<EtudiantSummary> page = etudiantRepository.findSummaries("du%", null, null, null,
+                PageRequest.of(0, 1, Sort.by("nom").and(Sort.by("id"))));
+        
+        // Then
+        assertEquals(2, page.getTotalElements());
+        assertEquals(1, page.getContent().size());
+        assertEquals("Dupont", page.getContent().get(0).getNom());
+        
+        Page<EtudiantSummary> byMatricule = etudiantRepository.findSummaries(null, null, "mat003%", null,
+                PageRequest.of(0, 10, Sort.by("nom")));
+        assertEquals(1, byMatricule.getTotalElements());
+        assertEquals("paul@email.com", byMatricule.getContent().get(0).getEmail());
+    }
+    
+    @Test
+    void testFindSummariesAfter_KeysetPages() {
+        // Given
+        etudiantRepository.save(new Etudiant("ETU001", "MAT001", "Dupont", "Jean", "jean@email.com", LocalDate.now()));
+        etudiantRepository.save(new Etudiant("ETU002", "MAT002", "Durand", "Marie", "marie@email.com", LocalDate.now()));
+        etudiantRepository.save(new Etudiant("ETU003", "MAT003", "Dubois", "Paul", "paul@email.com", LocalDate.now()));
+        
+        // When : première page puis page suivant le dernier ID lu
+        List<EtudiantSummary> first = etudiantRepository.findSummariesAfter("", "du%", null, null, null, Limit.of(2));
+        List<EtudiantSummary> next = etudiantRepository.findSummariesAfter(
+                first.get(first.size() - 1).getId(), "du%", null, null, null, Limit.of(2));
+        
+        // Then
+        assertEquals(List.of("ETU001", "ETU002"), first.stream().map(EtudiantSummary::getId).toList());
+        assertEquals(List.of("ETU003"), next.stream().map(EtudiantSummary::getId).toList());
+    }
+    
+    @Test
+    void testFindSummaries_EscapedWildcardsMatchLiterally() {
+        // Given
+        etudiantRepository.save(new Etudiant("ETU001", "MAT001", "Du_pont", "Jean", "jean@email.com", LocalDate.now()));
+        etudiantRepository.save(new Etudiant("ETU002", "MAT002", "Dupont", "Marie", "marie@email.com", LocalDate.now()));
+        
+        // When : "du_" saisi, '_' échappé
+        Page<EtudiantSummary> page = etudiantRepository.findSummaries("du!_%", null, null, null, PageRequest.of(0, 10));
+        
+        // Then
+        assertEquals(List.of("ETU001"), page.getContent().stream().map(EtudiantSummary::getId).toList());
+    }
+    
+    @Test
+    void testFindExistingEmails_IgnoresCase() {
+        // Given
+        etudiantRepository.save(new Etudiant("ETU001", "MAT001", "Dupont", "Jean", "Jean.Dupont@Email.com", LocalDate.now()));
+        
+        // When
+        List<String> existing = etudiantRepository.findExistingEmails(List.of("jean.dupont@email.com", "autre@email.com"));
+        
+        // Then
+        assertEquals(List.of("jean.dupont@email.com"), existing);
+    }
 }
-
@@ -0,0 +1,98 @@
+package com.formation.app.repository;
+
+import com.formation.app.dto.CoursSuivi;
+import com.formation.app.dto.InscriptionRow;
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Formateur;
+import com.formation.app.entity.Inscription;
+import com.formation.app.support.CountingDataJpaTest;
+import com.formation.app.support.JpaFixture;
+import com.formation.app.support.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour InscriptionRepository
+ */
+@CountingDataJpaTest
+class InscriptionRepositoryTest {
+    
+    @Autowired
+    private InscriptionRepository inscriptionRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private JpaFixture fixture;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @Test
+    void testFindCoursPlusSuivis_CountsActiveInscriptionsOnly() {
+        // Given : COURS001 3 actives, COURS002 2 actives + 2 annulées, COURS003 1 active, COURS004 aucune
+        Formateur formateur = fixture.formateur();
+        int[][] inscriptions = {{3, 0}, {2, 2}, {1, 0}, {0, 1}};
+        for (int c = 0; c < inscriptions.length; c++) {
+            Cours cours = fixture.cours(c + 1, formateur);
+            for (int e = 0; e < inscriptions[c][0] + inscriptions[c][1]; e++) {
+                String status = e < inscriptions[c][0] ? "ACTIVE" : "CANCELLED";
+                entityManager.persist(new Inscription("INS" + c + e, LocalDate.now(), status, fixture.etudiant(e + 1), cours));
+            }
+        }
+        fixture.flushAndClear();
+        
+        // When
+        List<CoursSuivi> top = inscriptionRepository.findCoursPlusSuivis(PageRequest.of(0, 2));
+        List<CoursSuivi> tous = inscriptionRepository.findCoursPlusSuivis(PageRequest.of(0, 10));
+        
+        // Then : classement par inscriptions actives, cours sans inscription active absents
+        assertEquals(List.of(new CoursSuivi("COURS001", "Cours 1", 3), new CoursSuivi("COURS002", "Cours 2", 2)), top);
+        assertEquals(3, tous.size());
+        assertEquals(new CoursSuivi("COURS003", "Cours 3", 1), tous.get(2));
+    }
+    
+    @Test
+    void testFindRows_ConstantQueryCount() {
+        // Given : 1 cours x 3 étudiants
+        Formateur formateur = fixture.formateur();
+        inscrireEtudiants(fixture.cours(1, formateur));
+        fixture.flushAndClear();
+        long unCours = statementCounter.count(() -> inscriptionRepository.findRows(PageRequest.of(0, 2)));
+        
+        // 10 cours x 3 étudiants
+        for (int c = 2; c <= 10; c++) {
+            inscrireEtudiants(fixture.cours(c, formateur));
+        }
+        fixture.flushAndClear();
+        
+        // When
+        Page<InscriptionRow> page = statementCounter.assertStatements(unCours,
+                () -> inscriptionRepository.findRows(PageRequest.of(0, 2)));
+        
+        // Then : une requête pour la page et une pour le comptage, quel que soit le nombre de cours
+        assertEquals(2, unCours);
+        assertEquals(30, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        InscriptionRow first = page.getContent().get(0);
+        assertEquals("Cours 1", first.getCoursTitre());
+        assertEquals("Prenom1 Nom1", first.getEtudiantNomComplet());
+        assertEquals("ACTIVE", first.getStatus());
+    }
+    
+    private void inscrireEtudiants(Cours cours) {
+        for (int e = 1; e <= 3; e++) {
+            entityManager.persist(new Inscription("INS-" + cours.getCode() + "-" + e, LocalDate.now(), "ACTIVE",
+                    fixture.etudiant(e), cours));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.formation.app.repository;
+
+import com.formation.app.dto.NoteRow;
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Formateur;
+import com.formation.app.entity.Note;
+import com.formation.app.support.CountingDataJpaTest;
+import com.formation.app.support.JpaFixture;
+import com.formation.app.support.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour NoteRepository
+ */
+@CountingDataJpaTest
+class NoteRepositoryTest {
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private JpaFixture fixture;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @Test
+    void testFindRows_ConstantQueryCount() {
+        // Given : 1 cours x 3 étudiants
+        Formateur formateur = fixture.formateur();
+        noterEtudiants(fixture.cours(1, formateur));
+        fixture.flushAndClear();
+        long unCours = statementCounter.count(() -> noteRepository.findRows(PageRequest.of(0, 2)));
+        
+        // 10 cours x 3 étudiants
+        for (int c = 2; c <= 10; c++) {
+            noterEtudiants(fixture.cours(c, formateur));
+        }
+        fixture.flushAndClear();
+        
+        // When
+        Page<NoteRow> page = statementCounter.assertStatements(unCours, () -> noteRepository.findRows(PageRequest.of(0, 2)));
+        
+        // Then : une requête pour la page et une pour le comptage, quel que soit le nombre de cours
+        assertEquals(2, unCours);
+        assertEquals(30, page.getTotalElements());
+        assertEquals(2, page.getContent().size());
+        NoteRow first = page.getContent().get(0);
+        assertEquals("Cours 1", first.getCoursTitre());
+        assertEquals("Prenom1 Nom1", first.getEtudiantNomComplet());
+    }
+    
+    private void noterEtudiants(Cours cours) {
+        for (int e = 1; e <= 3; e++) {
+            entityManager.persist(new Note("NOTE-" + cours.getCode() + "-" + e, 12f, LocalDate.now(),
+                    fixture.etudiant(e), cours));
+        }
+    }
+}
@@ -1,12 +1,23 @@
 package com.formation.app.repository;
 
+import com.formation.app.dto.UserIdentity;
+import com.formation.app.entity.Etudiant;
 import com.formation.app.entity.Role;
 import com.formation.app.entity.User;
+import com.formation.app.support.CountingDataJpaTest;
+import com.formation.app.support.SqlCapture;
+import com.formation.app.support.StatementCounter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.test.context.ActiveProfiles;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,13 +26,26 @@ import static org.junit.jupiter.api.Assertions.*;
 /**
  * Tests d'intégration pour UserRepository
  */
-@DataJpaTest
-@ActiveProfiles("test")
+@CountingDataJpaTest
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.formation.app.support.SqlCapture")
 class UserRepositoryTest {
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @Autowired
+    private DataSource dataSource;
+    
     @Test
     void testSaveAndFindById() {
         // Given
@@ -81,5 +105,98 @@ class UserRepositoryTest {
         assertTrue(exists);
         assertFalse(notExists);
     }
+    
+    @Test
+    void testFindIdentities_ByLoginEmailAndMatricule() {
+        // Given
+        User user = userRepository.save(new User("USER001", "etud-0001", "password", Role.ETUDIANT));
+        Etudiant etudiant = new Etudiant("ETU001", "MAT001", "Dupont", "Jean", "jean@email.com", LocalDate.now());
+        etudiant.setUser(user);
+        etudiantRepository.save(etudiant);
+        
+        // When & Then
+        for (String identifier : List.of("etud-0001", "jean@email.com", "MAT001")) {
+            List<UserIdentity> identities = userRepository.findIdentities(identifier);
+            assertEquals(1, identities.size());
+            assertEquals("USER001", identities.get(0).getId());
+            assertEquals("etud-0001", identities.get(0).getLogin());
+            assertEquals(Role.ETUDIANT, identities.get(0).getRoles());
+            assertEquals("ETU001", identities.get(0).getEtudiantId());
+            assertNull(identities.get(0).getFormateurId());
+        }
+        assertTrue(userRepository.findIdentities("inconnu").isEmpty());
+    }
+    
+    @Test
+    void testFindIdentities_NoEntityLoadedWithEmptyPersistenceContext() {
+        // Given : un étudiant lié, persistance vidée (comme au début d'une requête de connexion)
+        saveEtudiantUser();
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When & Then : login trouvé en une requête ; email après l'échec de la recherche par login
+        assertEquals(1, statementCounter.count(() -> assertEquals(1, userRepository.findIdentities("etud-0001").size())));
+        assertEquals(2, statementCounter.count(() -> assertEquals(1, userRepository.findIdentities("jean@email.com").size())));
+        Optional<UserIdentity> byId = statementCounter.assertStatements(1, () -> userRepository.findIdentityById("USER001"));
+        assertEquals("ETU001", byId.get().getEtudiantId());
+        assertEquals(0, statementCounter.entityLoads());
+    }
+    
+    @Test
+    void testFindIdentities_LoginTakesPrecedenceOverEmail() {
+        // Given : le login d'un utilisateur est l'email de l'étudiant d'un autre utilisateur
+        saveEtudiantUser();
+        userRepository.save(new User("USER002", "jean@email.com", "password", Role.ADMIN));
+        
+        // When
+        List<UserIdentity> identities = userRepository.findIdentities("jean@email.com");
+        
+        // Then
+        assertEquals(1, identities.size());
+        assertEquals("USER002", identities.get(0).getId());
+    }
+    
+    @Test
+    void testFindIdentities_EveryStatementUsesAnIndex() throws SQLException {
+        // Given
+        saveEtudiantUser();
+        entityManager.flush();
+        SqlCapture.clear();
+        
+        // When : login, email puis matricule (recherche par login puis recherche par profil)
+        userRepository.findIdentities("etud-0001");
+        userRepository.findIdentities("jean@email.com");
+        userRepository.findIdentities("MAT001");
+        
+        // Then : aucun parcours complet de table dans les plans d'exécution
+        List<String> statements = SqlCapture.statements();
+        assertEquals(5, statements.size());
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains("tableScan"), plan);
+        }
+    }
+    
+    private void saveEtudiantUser() {
+        User user = userRepository.save(new User("USER001", "etud-0001", "password", Role.ETUDIANT));
+        Etudiant etudiant = new Etudiant("ETU001", "MAT001", "Dupont", "Jean", "jean@email.com", LocalDate.now());
+        etudiant.setUser(user);
+        etudiantRepository.save(etudiant);
+    }
+    
+    /**
+     * Plan d'exécution H2 d'une requête générée, paramètres liés à une valeur quelconque
+     */
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setString(i, "x");
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
 }
-
@@ -0,0 +1,105 @@
+package com.formation.app.security;
+
+import com.formation.app.config.CacheConfig;
+import com.formation.app.entity.Role;
+import com.formation.app.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour JwtAuthenticationFilter (mode stateless)
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+    
+    @Mock
+    private UserDetailsService userDetailsService;
+    
+    @Mock
+    private TokenVersionService tokenVersionService;
+    
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    
+    private String token;
+    
+    @BeforeEach
+    void setUp() {
+        JwtTokenService jwtTokenService = new JwtTokenService(
+                "MySecretKeyForJWTTokenGeneration12345678901234567890", 3600000L);
+        verifiedTokenCache = new VerifiedTokenCache(new CacheConfig().verifiedTokenCaffeineCache(100));
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(
+                jwtTokenService, userDetailsService, tokenVersionService, verifiedTokenCache);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "stateless", true);
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "checkTokenVersion", true);
+        
+        User user = new User("USER001", "etud-0001", null, Role.ETUDIANT);
+        user.setTokenVersion(1);
+        token = jwtTokenService.generateToken(new UserDetailsImpl(user, "ETU001", null));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void testCachedToken_VersionRecheckedOnEveryRequest() throws Exception {
+        // Given : le token est vérifié puis mis en cache
+        when(tokenVersionService.getCurrentVersion("USER001")).thenReturn(1);
+        assertNotNull(filter());
+        assertNotNull(verifiedTokenCache.get(token));
+        
+        // When : la version change sur un autre nœud (cache local non évincé)
+        when(tokenVersionService.getCurrentVersion("USER001")).thenReturn(2);
+        Authentication authentication = filter();
+        
+        // Then
+        assertNull(authentication);
+        assertNull(verifiedTokenCache.get(token));
+        verifyNoInteractions(userDetailsService);
+    }
+    
+    @Test
+    void testCachedToken_ServedWhileVersionUnchanged() throws Exception {
+        // Given
+        when(tokenVersionService.getCurrentVersion("USER001")).thenReturn(1);
+        
+        // When
+        Authentication first = filter();
+        Authentication second = filter();
+        
+        // Then
+        assertNotNull(first);
+        assertNotNull(second);
+        assertEquals("etud-0001", ((UserDetailsImpl) second.getPrincipal()).getUsername());
+        verify(tokenVersionService, times(2)).getCurrentVersion("USER001");
+    }
+    
+    /**
+     * Passe une requête authentifiée par le token dans le filtre
+     * @return l'authentification posée dans le SecurityContext, ou null
+     */
+    private Authentication filter() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/etudiants");
+        request.addHeader("Authorization", "Bearer " + token);
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
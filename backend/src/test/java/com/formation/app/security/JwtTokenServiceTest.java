@@ -0,0 +1,86 @@
+package com.formation.app.security;
+
+import com.formation.app.entity.Role;
+import com.formation.app.entity.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour JwtTokenService
+ */
+class JwtTokenServiceTest {
+    
+    private JwtTokenService jwtTokenService;
+    
+    private User testUser;
+    
+    @BeforeEach
+    void setUp() {
+        jwtTokenService = new JwtTokenService("MySecretKeyForJWTTokenGeneration12345678901234567890", 3600000L);
+        
+        testUser = new User("USER001", "etud-0001", "encodedPassword", Role.ETUDIANT);
+        testUser.setTokenVersion(3);
+    }
+    
+    @Test
+    void testExtractUserDetails_FromClaims() {
+        // Given
+        String token = jwtTokenService.generateToken(new UserDetailsImpl(testUser, "ETU001", null));
+        
+        // When
+        UserDetailsImpl userDetails = jwtTokenService.extractUserDetails(token);
+        
+        // Then
+        assertNotNull(userDetails);
+        assertEquals("etud-0001", userDetails.getUsername());
+        assertEquals("USER001", userDetails.getUserId());
+        assertEquals(Role.ETUDIANT, userDetails.getRole());
+        assertEquals("ETU001", userDetails.getEtudiantId());
+        assertNull(userDetails.getFormateurId());
+        assertEquals(3, userDetails.getTokenVersion());
+        assertNull(userDetails.getPassword());
+    }
+    
+    @Test
+    void testExtractUserDetails_LegacyToken() {
+        // Given : token sans claims d'identité
+        String token = jwtTokenService.generateToken(
+                org.springframework.security.core.userdetails.User.withUsername("etud-0001")
+                        .password("x")
+                        .roles("ETUDIANT")
+                        .build());
+        
+        // When & Then
+        assertNull(jwtTokenService.extractUserDetails(token));
+        assertEquals("etud-0001", jwtTokenService.extractUsername(token));
+    }
+    
+    @Test
+    void testParseClaims_ValidatesOnce() {
+        // Given
+        UserDetailsImpl userDetails = new UserDetailsImpl(testUser);
+        String token = jwtTokenService.generateToken(userDetails);
+        
+        // When
+        Claims claims = jwtTokenService.parseClaims(token);
+        
+        // Then
+        assertEquals("etud-0001", claims.getSubject());
+        assertTrue(jwtTokenService.validateToken(claims, userDetails));
+        assertTrue(jwtTokenService.validateToken(token, userDetails));
+    }
+    
+    @Test
+    void testParseClaims_InvalidSignature() {
+        // Given : token signé avec une autre clé
+        JwtTokenService otherService = new JwtTokenService("AnotherSecretKeyForJWTTokenGeneration1234567890123", 3600000L);
+        String token = otherService.generateToken(new UserDetailsImpl(testUser));
+        
+        // When & Then
+        assertThrows(JwtException.class, () -> jwtTokenService.parseClaims(token));
+    }
+}
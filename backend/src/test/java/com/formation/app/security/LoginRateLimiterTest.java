@@ -0,0 +1,84 @@
+package com.formation.app.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour LoginRateLimiter
+ */
+class LoginRateLimiterTest {
+    
+    private LoginRateLimiter loginRateLimiter;
+    
+    private SimpleMeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        loginRateLimiter = new LoginRateLimiter();
+        ReflectionTestUtils.setField(loginRateLimiter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(loginRateLimiter, "enabled", true);
+        ReflectionTestUtils.setField(loginRateLimiter, "windowSeconds", 3600L);
+        ReflectionTestUtils.setField(loginRateLimiter, "maxAttemptsPerIp", 5);
+        ReflectionTestUtils.setField(loginRateLimiter, "maxFailuresPerLogin", 3);
+        ReflectionTestUtils.setField(loginRateLimiter, "maximumKeys", 1000L);
+        loginRateLimiter.init();
+    }
+    
+    @Test
+    void testTryAcquire_IpLimit() {
+        // When
+        for (int i = 0; i < 5; i++) {
+            assertTrue(loginRateLimiter.tryAcquire("10.0.0.1", "user" + i));
+        }
+        
+        // Then
+        assertFalse(loginRateLimiter.tryAcquire("10.0.0.1", "user5"));
+        assertTrue(loginRateLimiter.tryAcquire("10.0.0.2", "user5"));
+        assertEquals(1.0, meterRegistry.get("auth.login.attempts").tag("result", "rejected_ip").counter().count());
+    }
+    
+    @Test
+    void testTryAcquire_LoginLockedAfterFailures() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            assertTrue(loginRateLimiter.tryAcquire("10.0.0." + i, "Etud-0001"));
+            loginRateLimiter.recordFailure("Etud-0001");
+        }
+        
+        // When & Then : le login est bloqué quelle que soit l'IP
+        assertFalse(loginRateLimiter.tryAcquire("10.0.0.9", "etud-0001"));
+        assertEquals(1.0, meterRegistry.get("auth.login.attempts").tag("result", "rejected_login").counter().count());
+    }
+    
+    @Test
+    void testRecordSuccess_ResetsFailures() {
+        // Given
+        loginRateLimiter.recordFailure("etud-0001");
+        loginRateLimiter.recordFailure("etud-0001");
+        
+        // When
+        loginRateLimiter.recordSuccess("etud-0001");
+        loginRateLimiter.recordFailure("etud-0001");
+        loginRateLimiter.recordFailure("etud-0001");
+        
+        // Then
+        assertTrue(loginRateLimiter.tryAcquire("10.0.0.1", "etud-0001"));
+    }
+    
+    @Test
+    void testRecordFailure_KeyedOnNormalizedLogin() {
+        // Given : échecs saisis avec des espaces et des majuscules
+        loginRateLimiter.recordFailure(" Jean@Email.com");
+        loginRateLimiter.recordFailure("JEAN@EMAIL.COM ");
+        loginRateLimiter.recordFailure("jean@email.com");
+        
+        // When & Then : un seul compteur, les autres identifiants ne sont pas touchés
+        assertFalse(loginRateLimiter.tryAcquireLogin("jean@email.com"));
+        assertTrue(loginRateLimiter.tryAcquireLogin("marie@email.com"));
+    }
+}
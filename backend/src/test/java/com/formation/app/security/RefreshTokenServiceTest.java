@@ -0,0 +1,53 @@
+package com.formation.app.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour RefreshTokenService (rotation et détection de réutilisation)
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(RefreshTokenService.class)
+class RefreshTokenServiceTest {
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Test
+    void testRotate_IssuesNewToken() {
+        // Given
+        String refreshToken = refreshTokenService.issue("USER001");
+        
+        // When
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        
+        // Then
+        assertEquals("USER001", rotation.userId());
+        assertNotEquals(refreshToken, rotation.refreshToken());
+    }
+    
+    @Test
+    void testRotate_ReuseRevokesFamily() {
+        // Given
+        String refreshToken = refreshTokenService.issue("USER001");
+        String rotated = refreshTokenService.rotate(refreshToken).refreshToken();
+        
+        // When : le token déjà échangé est présenté une seconde fois
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(refreshToken));
+        
+        // Then : le token émis lors de la rotation est aussi révoqué
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate(rotated));
+    }
+    
+    @Test
+    void testRotate_UnknownToken() {
+        assertThrows(BadCredentialsException.class, () -> refreshTokenService.rotate("inconnu"));
+    }
+}
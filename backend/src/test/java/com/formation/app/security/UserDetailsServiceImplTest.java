@@ -0,0 +1,83 @@
+package com.formation.app.security;
+
+import com.formation.app.dto.UserIdentity;
+import com.formation.app.entity.Role;
+import com.formation.app.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour UserDetailsServiceImpl (re-hachage des mots de passe à la connexion)
+ */
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    private DaoAuthenticationProvider createProvider(int storedStrength, int configuredStrength) {
+        String storedHash = new BCryptPasswordEncoder(storedStrength).encode("password");
+        when(userRepository.findIdentities("etud-0001")).thenReturn(List.of(
+                new UserIdentity("USER001", "etud-0001", storedHash, Role.ETUDIANT, 0, null, null)));
+        
+        // Même câblage que SecurityConfig.authenticationProvider
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(userRepository);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(new BCryptPasswordEncoder(configuredStrength));
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        return provider;
+    }
+    
+    @Test
+    void testAuthenticate_RehashesWhenStrengthIncreased() {
+        // Given
+        DaoAuthenticationProvider provider = createProvider(4, 5);
+        when(userRepository.updatePasswordIfUnchanged(eq("USER001"), anyString(), anyString())).thenReturn(1);
+        
+        // When
+        provider.authenticate(new UsernamePasswordAuthenticationToken("etud-0001", "password"));
+        
+        // Then
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePasswordIfUnchanged(eq("USER001"), startsWith("$2a$04$"), newHash.capture());
+        assertTrue(newHash.getValue().startsWith("$2a$05$"));
+        assertTrue(new BCryptPasswordEncoder().matches("password", newHash.getValue()));
+    }
+    
+    @Test
+    void testAuthenticate_NoRehashWhenStrengthUnchanged() {
+        // Given
+        DaoAuthenticationProvider provider = createProvider(4, 4);
+        
+        // When
+        provider.authenticate(new UsernamePasswordAuthenticationToken("etud-0001", "password"));
+        
+        // Then
+        verify(userRepository, never()).updatePasswordIfUnchanged(anyString(), anyString(), anyString());
+    }
+    
+    @Test
+    void testAuthenticate_NoRehashWhenStrengthLowered() {
+        // Given : hash stocké plus coûteux que la configuration (BCrypt ne met à niveau que vers le haut)
+        DaoAuthenticationProvider provider = createProvider(5, 4);
+        
+        // When
+        provider.authenticate(new UsernamePasswordAuthenticationToken("etud-0001", "password"));
+        
+        // Then
+        verify(userRepository, never()).updatePasswordIfUnchanged(anyString(), anyString(), anyString());
+    }
+}
@@ -0,0 +1,68 @@
+package com.formation.app.security;
+
+import com.formation.app.config.CacheConfig;
+import com.formation.app.entity.Role;
+import com.formation.app.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour VerifiedTokenCache
+ */
+class VerifiedTokenCacheTest {
+    
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    private UsernamePasswordAuthenticationToken authentication;
+    
+    @BeforeEach
+    void setUp() {
+        verifiedTokenCache = new VerifiedTokenCache(new CacheConfig().verifiedTokenCaffeineCache(100));
+        
+        UserDetailsImpl userDetails = new UserDetailsImpl(
+                new User("USER001", "etud-0001", null, Role.ETUDIANT), "ETU001", null);
+        authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+    
+    @Test
+    void testGet_CachedUntilExpiration() {
+        // Given
+        verifiedTokenCache.put("token-a", authentication, "USER001", new Date(System.currentTimeMillis() + 60000));
+        
+        // When & Then
+        assertSame(authentication, verifiedTokenCache.get("token-a"));
+        assertNull(verifiedTokenCache.get("token-b"));
+    }
+    
+    @Test
+    void testGet_ExpiredToken() {
+        // Given
+        verifiedTokenCache.put("token-a", authentication, "USER001", new Date(System.currentTimeMillis() - 1000));
+        
+        // When & Then
+        assertNull(verifiedTokenCache.get("token-a"));
+    }
+    
+    @Test
+    void testEvict_TokenAndUser() {
+        // Given
+        Date expiration = new Date(System.currentTimeMillis() + 60000);
+        verifiedTokenCache.put("token-a", authentication, "USER001", expiration);
+        verifiedTokenCache.put("token-b", authentication, "USER001", expiration);
+        verifiedTokenCache.put("token-c", authentication, "USER002", expiration);
+        
+        // When
+        verifiedTokenCache.evictToken("token-a");
+        verifiedTokenCache.evictUser("USER002");
+        
+        // Then
+        assertNull(verifiedTokenCache.get("token-a"));
+        assertNotNull(verifiedTokenCache.get("token-b"));
+        assertNull(verifiedTokenCache.get("token-c"));
+    }
+}
@@ -0,0 +1,75 @@
+package com.formation.app.service;
+
+import com.formation.app.dto.CoursSuivi;
+import com.formation.app.exception.BadRequestException;
+import com.formation.app.repository.CoursRepository;
+import com.formation.app.repository.InscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour CoursClassementService
+ */
+@ExtendWith(MockitoExtension.class)
+class CoursClassementServiceTest {
+    
+    @Mock
+    private InscriptionRepository inscriptionRepository;
+    
+    @Mock
+    private CoursRepository coursRepository;
+    
+    @InjectMocks
+    private CoursClassementService coursClassementService;
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coursClassementService, "taille", 3);
+    }
+    
+    @Test
+    void testGetCoursPlusSuivis_ServedFromSnapshotUntilRefresh() {
+        // Given
+        when(inscriptionRepository.findCoursPlusSuivis(PageRequest.of(0, 3))).thenReturn(List.of(
+                new CoursSuivi("JAVA101", "Java", 12),
+                new CoursSuivi("SPRING01", "Spring", 8),
+                new CoursSuivi("SQL01", "SQL", 3)));
+        when(coursRepository.count()).thenReturn(20L);
+        
+        // When : plusieurs lectures, une seule requête
+        List<CoursSuivi> top2 = coursClassementService.getCoursPlusSuivis(2);
+        List<CoursSuivi> tous = coursClassementService.getCoursPlusSuivis(50);
+        long nombreTotalCours = coursClassementService.getClassement().nombreTotalCours();
+        
+        // Then
+        assertEquals(List.of("JAVA101", "SPRING01"), top2.stream().map(CoursSuivi::getCode).toList());
+        assertEquals(3, tous.size());
+        assertEquals(20L, nombreTotalCours);
+        verify(inscriptionRepository, times(1)).findCoursPlusSuivis(any());
+        verify(coursRepository, times(1)).count();
+        
+        // When : recalcul planifié
+        coursClassementService.rafraichir();
+        coursClassementService.getCoursPlusSuivis(2);
+        
+        // Then
+        verify(inscriptionRepository, times(2)).findCoursPlusSuivis(any());
+    }
+    
+    @Test
+    void testGetCoursPlusSuivis_InvalidLimit() {
+        assertThrows(BadRequestException.class, () -> coursClassementService.getCoursPlusSuivis(0));
+        verifyNoInteractions(inscriptionRepository, coursRepository);
+    }
+}
@@ -0,0 +1,173 @@
+package com.formation.app.service;
+
+import com.formation.app.entity.OutboxEmail;
+import com.formation.app.repository.OutboxEmailRepository;
+import com.formation.app.template.EmailTemplate;
+import com.formation.app.template.EmailTemplates;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour EmailOutboxDispatcher
+ */
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxDispatcherTest {
+    
+    @Mock
+    private OutboxEmailRepository outboxEmailRepository;
+    
+    @Mock
+    private EmailService emailService;
+    
+    private EmailOutboxDispatcher dispatcher;
+    
+    private OutboxEmail email;
+    
+    @BeforeEach
+    void setUp() {
+        // Exécution directe des tâches dans le thread du test
+        dispatcher = new EmailOutboxDispatcher(outboxEmailRepository, emailService, new EmailTemplates(), Runnable::run);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "smtpBatchSize", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "initialBackoffSeconds", 30L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffSeconds", 100L);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 120L);
+        
+        LocalDateTime now = LocalDateTime.now();
+        email = new OutboxEmail("MAIL1", "jean@email.com", "Sujet", "Message", null,
+                OutboxEmail.STATUS_PENDING, 0, now, now, null, null, null, null);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDispatch_GroupsClaimedEmailsInBatches() {
+        // Given
+        when(outboxEmailRepository.findDueIds(any(), any())).thenReturn(List.of("MAIL1", "MAIL2", "MAIL3", "MAIL4"));
+        when(outboxEmailRepository.claim(any(), any(), any())).thenReturn(1);
+        when(outboxEmailRepository.claim(eq("MAIL2"), any(), any())).thenReturn(0);
+        when(outboxEmailRepository.findAllById(List.of("MAIL1", "MAIL3", "MAIL4")))
+                .thenReturn(List.of(email, outboxEmail("MAIL3", null, null), outboxEmail("MAIL4", null, null)));
+        when(emailService.deliverBatch(any())).thenReturn(Map.of());
+        
+        // When
+        dispatcher.dispatch();
+        
+        // Then : MAIL2 est déjà réservé par un autre passage, les autres forment des lots de 2
+        ArgumentCaptor<List<OutboxEmail>> batches = ArgumentCaptor.forClass(List.class);
+        verify(emailService, times(2)).deliverBatch(batches.capture());
+        assertEquals(List.of(2, 1), batches.getAllValues().stream().map(List::size).toList());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDispatch_CoalescesBeforeSplittingIntoBatches() {
+        // Given : trois notifications regroupables du même destinataire réparties sur plus d'un lot SMTP
+        String recap = EmailTemplate.INSCRIPTION_RECAP.name();
+        email.setDigestKey(recap);
+        email.setDigestLine("Java Avancé (JAVA101)");
+        List<OutboxEmail> due = List.of(email, outboxEmail("MAIL2", "marie@email.com", null),
+                outboxEmail("MAIL3", "jean@email.com", recap), outboxEmail("MAIL4", "jean@email.com", recap));
+        when(outboxEmailRepository.findDueIds(any(), any())).thenReturn(List.of("MAIL1", "MAIL2", "MAIL3", "MAIL4"));
+        when(outboxEmailRepository.claim(any(), any(), any())).thenReturn(1);
+        when(outboxEmailRepository.findAllById(List.of("MAIL1", "MAIL2", "MAIL3", "MAIL4"))).thenReturn(due);
+        when(emailService.deliverBatch(any())).thenReturn(Map.of());
+        
+        // When
+        dispatcher.dispatch();
+        
+        // Then : un seul lot, avec un seul récapitulatif pour jean@email.com
+        ArgumentCaptor<List<OutboxEmail>> sent = ArgumentCaptor.forClass(List.class);
+        verify(emailService).deliverBatch(sent.capture());
+        assertEquals(2, sent.getValue().size());
+        assertEquals("Confirmation de 3 inscriptions", sent.getValue().get(0).getSubject());
+        verify(outboxEmailRepository).markSent(eq(List.of("MAIL1", "MAIL3", "MAIL4", "MAIL2")), any());
+    }
+    
+    @Test
+    void testDeliver_PartialFailureSchedulesRetry() {
+        // Given
+        OutboxEmail other = new OutboxEmail("MAIL2", "marie@email.com", "Sujet", "Message", null,
+                OutboxEmail.STATUS_SENDING, 0, LocalDateTime.now(), LocalDateTime.now(), null, null, null, null);
+        when(outboxEmailRepository.findAllById(any())).thenReturn(List.of(email, other));
+        when(emailService.deliverBatch(any())).thenReturn(Map.of("MAIL1", new MailSendException("SMTP indisponible")));
+        
+        // When
+        dispatcher.deliver(List.of("MAIL1", "MAIL2"));
+        
+        // Then
+        verify(outboxEmailRepository).markFailure(eq("MAIL1"), eq(OutboxEmail.STATUS_PENDING),
+                argThat(next -> next.isAfter(LocalDateTime.now().plusSeconds(20))), eq("SMTP indisponible"));
+        verify(outboxEmailRepository).markSent(eq(List.of("MAIL2")), any());
+    }
+    
+    @Test
+    void testDeliver_GivesUpAfterMaxAttempts() {
+        // Given
+        email.setAttempts(2);
+        when(outboxEmailRepository.findAllById(any())).thenReturn(List.of(email));
+        when(emailService.deliverBatch(any())).thenThrow(new MailSendException("SMTP indisponible"));
+        
+        // When
+        dispatcher.deliver(List.of("MAIL1"));
+        
+        // Then
+        verify(outboxEmailRepository).markFailure(eq("MAIL1"), eq(OutboxEmail.STATUS_FAILED), any(), any());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeliver_CoalescesDigestNotifications() {
+        // Given : une notification due et une autre du même destinataire encore dans sa fenêtre
+        email.setDigestKey(EmailTemplate.INSCRIPTION_RECAP.name());
+        email.setDigestLine("Java Avancé (JAVA101)");
+        OutboxEmail pending = new OutboxEmail("MAIL3", "jean@email.com", "Sujet", "Message", null,
+                OutboxEmail.STATUS_PENDING, 0, LocalDateTime.now().plusMinutes(5), LocalDateTime.now().plusMinutes(1),
+                null, null, EmailTemplate.INSCRIPTION_RECAP.name(), "Spring Boot (SPR201)");
+        when(outboxEmailRepository.findAllById(List.of("MAIL1"))).thenReturn(List.of(email));
+        when(outboxEmailRepository.findPendingDigestIds("jean@email.com", "INSCRIPTION_RECAP")).thenReturn(List.of("MAIL3"));
+        when(outboxEmailRepository.claimPending(eq("MAIL3"), any())).thenReturn(1);
+        when(outboxEmailRepository.findAllById(List.of("MAIL3"))).thenReturn(List.of(pending));
+        when(emailService.deliverBatch(any())).thenReturn(Map.of());
+        
+        // When
+        dispatcher.deliver(List.of("MAIL1"));
+        
+        // Then : un seul récapitulatif envoyé, les deux notifications marquées envoyées
+        ArgumentCaptor<List<OutboxEmail>> sent = ArgumentCaptor.forClass(List.class);
+        verify(emailService).deliverBatch(sent.capture());
+        assertEquals(1, sent.getValue().size());
+        OutboxEmail digest = sent.getValue().get(0);
+        assertEquals("Confirmation de 2 inscriptions", digest.getSubject());
+        assertTrue(digest.getBody().contains("- Java Avancé (JAVA101)\n- Spring Boot (SPR201)"));
+        verify(outboxEmailRepository).markSent(eq(List.of("MAIL1", "MAIL3")), any());
+    }
+    
+    @Test
+    void testBackoff_ExponentialAndCapped() {
+        assertEquals(Duration.ofSeconds(30), dispatcher.backoff(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.backoff(2));
+        assertEquals(Duration.ofSeconds(100), dispatcher.backoff(3));
+    }
+    
+    private static OutboxEmail outboxEmail(String id, String recipient, String digestKey) {
+        LocalDateTime now = LocalDateTime.now();
+        return new OutboxEmail(id, recipient != null ? recipient : "jean@email.com", "Sujet", "Message", null,
+                OutboxEmail.STATUS_SENDING, 0, now, now, null, null, digestKey, digestKey != null ? "Cours " + id : null);
+    }
+}
@@ -0,0 +1,98 @@
+package com.formation.app.service;
+
+import com.formation.app.entity.OutboxEmail;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour EmailService (serveur SMTP local GreenMail)
+ */
+class EmailServiceTest {
+    
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+    
+    private EmailService emailService;
+    
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        
+        emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailService, "fromEmail", "");
+    }
+    
+    @Test
+    void testDeliverBatch_AllMessagesDelivered() throws Exception {
+        // Given
+        List<OutboxEmail> emails = List.of(
+                outboxEmail("MAIL1", "jean@email.com"),
+                outboxEmail("MAIL2", "marie@email.com"),
+                outboxEmail("MAIL3", "paul@email.com"));
+        
+        // When
+        Map<String, Exception> failures = emailService.deliverBatch(emails);
+        
+        // Then
+        assertTrue(failures.isEmpty());
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Confirmation MAIL1", received[0].getSubject());
+        assertEquals("noreply@formation.com", received[0].getFrom()[0].toString());
+    }
+    
+    @Test
+    void testDeliverBatch_HtmlAlternative() throws Exception {
+        // Given
+        OutboxEmail email = outboxEmail("MAIL1", "jean@email.com");
+        email.setHtmlBody("<p>Message MAIL1</p>");
+        
+        // When
+        Map<String, Exception> failures = emailService.deliverBatch(List.of(email));
+        
+        // Then : texte brut et HTML dans un multipart/alternative
+        assertTrue(failures.isEmpty());
+        MimeMessage received = greenMail.getReceivedMessages()[0];
+        assertTrue(received.getContent() instanceof MimeMultipart);
+        String raw = new String(received.getRawInputStream().readAllBytes());
+        assertTrue(raw.contains("multipart/alternative"));
+        assertTrue(raw.contains("<p>Message MAIL1</p>"));
+    }
+    
+    @Test
+    void testDeliverBatch_ServerUnavailable() {
+        // Given : aucun serveur SMTP sur ce port
+        JavaMailSenderImpl unreachable = new JavaMailSenderImpl();
+        unreachable.setHost("localhost");
+        unreachable.setPort(1);
+        ReflectionTestUtils.setField(emailService, "mailSender", unreachable);
+        
+        // When
+        Map<String, Exception> failures = emailService.deliverBatch(
+                List.of(outboxEmail("MAIL1", "jean@email.com"), outboxEmail("MAIL2", "marie@email.com")));
+        
+        // Then : tout le lot est signalé en échec
+        assertEquals(2, failures.size());
+    }
+    
+    private static OutboxEmail outboxEmail(String id, String to) {
+        return new OutboxEmail(id, to, "Confirmation " + id, "Message " + id, null,
+                OutboxEmail.STATUS_SENDING, 0, LocalDateTime.now(), LocalDateTime.now(), null, null, null, null);
+    }
+}
@@ -0,0 +1,126 @@
+package com.formation.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.app.dto.ImportProgress;
+import com.formation.app.entity.Etudiant;
+import com.formation.app.entity.User;
+import com.formation.app.repository.EtudiantRepository;
+import com.formation.app.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour EtudiantImportService
+ */
+@ExtendWith(MockitoExtension.class)
+class EtudiantImportServiceTest {
+    
+    @Mock
+    private EtudiantRepository etudiantRepository;
+    
+    @Mock
+    private UserRepository userRepository;
+    
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    
+    @Mock
+    private NotificationService notificationService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    @Mock
+    private EntityManager entityManager;
+    
+    private EtudiantImportService etudiantImportService;
+    
+    @BeforeEach
+    void setUp() {
+        // Hachage exécuté directement dans le thread du test
+        etudiantImportService = new EtudiantImportService(etudiantRepository, userRepository, passwordEncoder,
+                notificationService, transactionManager, entityManager, new ObjectMapper(), Runnable::run);
+        ReflectionTestUtils.setField(etudiantImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(etudiantImportService, "hashingParallelism", 2);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportCsv_RejectsInvalidRowsAndPersistsOthers() {
+        // Given
+        String csv = "nom;prenom;email;matricule\n" +
+                "Dupont;Jean;jean@email.com;ETU100\n" +
+                "Martin;Marie;marie@email.com;\n" +
+                "Durand;Paul;JEAN@email.com;\n" +
+                "Petit;;petit@email.com;\n" +
+                "\"Leroy; fils\";Luc;exists@email.com;\n";
+        when(passwordEncoder.encode(any())).thenReturn("hash");
+        when(etudiantRepository.findExistingEmails(any())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).contains("exists@email.com")
+                        ? List.of("exists@email.com") : List.of());
+        List<ImportProgress> events = new ArrayList<>();
+        
+        // When
+        ImportProgress summary = etudiantImportService.importCsv(stream(csv), events::add);
+        
+        // Then : un événement par lot de 2 lignes, puis le bilan
+        assertEquals(4, events.size());
+        assertEquals(ImportProgress.STATUS_TERMINE, summary.getStatus());
+        assertEquals(5, summary.getProcessed());
+        assertEquals(2, summary.getCreated());
+        assertEquals(3, summary.getFailed());
+        assertEquals(List.of(4, 5), events.get(1).getErrors().stream().map(ImportProgress.ImportError::getLine).toList());
+        assertEquals(6, events.get(2).getErrors().get(0).getLine());
+        
+        ArgumentCaptor<Object> persisted = ArgumentCaptor.forClass(Object.class);
+        verify(entityManager, times(4)).persist(persisted.capture());
+        User user = (User) persisted.getAllValues().get(0);
+        Etudiant etudiant = (Etudiant) persisted.getAllValues().get(1);
+        assertEquals("etu100", user.getLogin());
+        assertEquals("hash", user.getPassword());
+        assertEquals("ETU100", etudiant.getMatricule());
+        assertSame(user, etudiant.getUser());
+        assertTrue(((Etudiant) persisted.getAllValues().get(3)).getMatricule().startsWith("ETUD-"));
+        verify(notificationService, times(2)).sendEtudiantCredentials(any());
+        // Une requête d'unicité par colonne et par lot, jamais par ligne
+        verify(etudiantRepository, never()).existsByEmail(any());
+        verify(etudiantRepository, times(2)).findExistingEmails(any());
+    }
+    
+    @Test
+    void testImportJson_InvalidFile() {
+        // Given
+        List<ImportProgress> events = new ArrayList<>();
+        
+        // When
+        ImportProgress summary = etudiantImportService.importJson(stream("{\"nom\": \"Dupont\"}"), events::add);
+        
+        // Then
+        assertEquals(ImportProgress.STATUS_ERREUR, summary.getStatus());
+        assertEquals(0, summary.getCreated());
+        assertEquals(List.of(summary), events);
+        verifyNoInteractions(entityManager);
+    }
+    
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
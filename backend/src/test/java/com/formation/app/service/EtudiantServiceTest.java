@@ -1,20 +1,30 @@
 package com.formation.app.service;
 
+import com.formation.app.dto.EtudiantSummary;
 import com.formation.app.entity.Etudiant;
 import com.formation.app.exception.BadRequestException;
 import com.formation.app.repository.EtudiantRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -94,5 +104,41 @@ class EtudiantServiceTest {
         assertNotNull(found);
         assertEquals("MAT001", found.getMatricule());
     }
+    
+    @Test
+    void testPrefixPattern_EscapesWildcards() {
+        assertEquals("dup%", EtudiantService.prefixPattern(" dup "));
+        assertEquals("50!%!_a!!%", EtudiantService.prefixPattern("50%_a!"));
+        assertNull(EtudiantService.prefixPattern("  "));
+    }
+    
+    @Test
+    void testSearchEtudiants_SortedFilteredAndClampedPage() {
+        // Given
+        EtudiantSummary summary = new EtudiantSummary("ETU001", "MAT001", "Dupont", "Jean", "jean@email.com", LocalDate.now());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        when(etudiantRepository.findSummaries(eq("du!_%"), isNull(), isNull(), eq("jean%"), pageable.capture()))
+                .thenReturn(new PageImpl<>(List.of(summary)));
+        
+        // When
+        Page<EtudiantSummary> page = etudiantService.searchEtudiants(" du_ ", null, "  ", "jean",
+                2, 500, "prenom", "DESC");
+        
+        // Then : tri demandé complété par l'ID, taille plafonnée
+        assertEquals(List.of(summary), page.getContent());
+        assertEquals(2, pageable.getValue().getPageNumber());
+        assertEquals(100, pageable.getValue().getPageSize());
+        assertEquals(Sort.by(Sort.Order.desc("prenom"), Sort.Order.asc("id")), pageable.getValue().getSort());
+    }
+    
+    @Test
+    void testSearchEtudiants_RejectsUnsupportedSortAndPaging() {
+        assertThrows(BadRequestException.class,
+                () -> etudiantService.searchEtudiants(null, null, null, null, 0, 10, "user.password", "asc"));
+        assertThrows(BadRequestException.class,
+                () -> etudiantService.searchEtudiants(null, null, null, null, -1, 10, "nom", "asc"));
+        assertThrows(BadRequestException.class,
+                () -> etudiantService.searchEtudiants(null, null, null, null, 0, 0, "nom", "asc"));
+        verifyNoInteractions(etudiantRepository);
+    }
 }
-
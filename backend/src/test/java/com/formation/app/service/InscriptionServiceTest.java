@@ -0,0 +1,103 @@
+package com.formation.app.service;
+
+import com.formation.app.dto.InscriptionBatchResult;
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Etudiant;
+import com.formation.app.entity.Formateur;
+import com.formation.app.entity.Inscription;
+import com.formation.app.exception.ResourceNotFoundException;
+import com.formation.app.support.CountingDataJpaTest;
+import com.formation.app.support.JpaFixture;
+import com.formation.app.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests d'intégration pour l'inscription en masse d'InscriptionService
+ */
+@CountingDataJpaTest
+@Import(InscriptionService.class)
+class InscriptionServiceTest {
+    
+    @Autowired
+    private InscriptionService inscriptionService;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private JpaFixture fixture;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @MockBean
+    private NotificationService notificationService;
+    
+    @BeforeEach
+    void setUp() {
+        // 15 étudiants : ETU01-ETU02 déjà inscrits, ETU03-ETU05 désinscrits
+        Cours cours = fixture.cours(1, fixture.formateur());
+        for (int e = 1; e <= 15; e++) {
+            Etudiant etudiant = fixture.etudiant(e);
+            if (e <= 5) {
+                entityManager.persist(new Inscription("INS" + e, LocalDate.now().minusDays(30),
+                        e <= 2 ? "ACTIVE" : "CANCELLED", etudiant, cours));
+            }
+        }
+        fixture.flushAndClear();
+    }
+    
+    @Test
+    void testInscrireEtudiants_ConstantQueryCount() {
+        // Given
+        List<String> ids = new ArrayList<>();
+        for (int e = 1; e <= 15; e++) {
+            ids.add(JpaFixture.etudiantId(e));
+        }
+        statementCounter.reset();
+        
+        // When
+        InscriptionBatchResult result = inscriptionService.inscrireEtudiants("COURS001", ids);
+        entityManager.flush();
+        
+        // Then : 3 lectures (cours, étudiants, inscriptions) + 1 lot d'insertions + 1 lot de mises à jour
+        assertEquals(10, result.getCreated());
+        assertEquals(3, result.getReactivated());
+        assertEquals(List.of("ETU01", "ETU02"), result.getAlreadyEnrolled());
+        statementCounter.assertStatements(5);
+        
+        // Notifications mises en file après les écritures, un seul récapitulatif pour le formateur
+        verify(notificationService, times(13)).sendInscriptionEmail(any(Etudiant.class), any(Cours.class));
+        verify(notificationService).notifyFormateurInscriptions(any(Formateur.class), any(Cours.class),
+                argThat(etudiants -> etudiants.size() == 13));
+        verify(notificationService, never()).notifyFormateurInscription(any(), any(), any());
+        
+        Long actives = entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(i) FROM Inscription i WHERE i.cours.code = 'COURS001' " +
+                        "AND i.status = 'ACTIVE'", Long.class)
+                .getSingleResult();
+        assertEquals(15L, actives);
+    }
+    
+    @Test
+    void testInscrireEtudiants_UnknownEtudiant() {
+        // When & Then : aucune inscription ni notification
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> inscriptionService.inscrireEtudiants("COURS001", List.of("ETU06", "ETU999")));
+        assertTrue(exception.getMessage().contains("ETU999"));
+        verifyNoInteractions(notificationService);
+    }
+}
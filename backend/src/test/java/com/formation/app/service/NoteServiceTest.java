@@ -0,0 +1,116 @@
+package com.formation.app.service;
+
+import com.formation.app.dto.NoteBatchResult;
+import com.formation.app.dto.NoteSaisie;
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Etudiant;
+import com.formation.app.entity.Note;
+import com.formation.app.exception.BadRequestException;
+import com.formation.app.exception.ResourceNotFoundException;
+import com.formation.app.support.CountingDataJpaTest;
+import com.formation.app.support.JpaFixture;
+import com.formation.app.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour la saisie groupée de NoteService
+ */
+@CountingDataJpaTest
+@Import(NoteService.class)
+class NoteServiceTest {
+    
+    @Autowired
+    private NoteService noteService;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private JpaFixture fixture;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    private Cours cours;
+    
+    @BeforeEach
+    void setUp() {
+        // 30 étudiants, dont les 10 premiers déjà notés
+        cours = fixture.cours(1, fixture.formateur());
+        for (int e = 1; e <= 30; e++) {
+            Etudiant etudiant = fixture.etudiant(e);
+            if (e <= 10) {
+                entityManager.persist(new Note("NOTE" + e, 8f, LocalDate.now().minusDays(7), etudiant, cours));
+            }
+        }
+        fixture.flushAndClear();
+    }
+    
+    @Test
+    void testAttribuerNotes_ConstantQueryCount() {
+        // Given
+        List<NoteSaisie> saisies = new ArrayList<>();
+        for (int e = 1; e <= 30; e++) {
+            saisies.add(new NoteSaisie(JpaFixture.etudiantId(e), 15f));
+        }
+        statementCounter.reset();
+        
+        // When
+        NoteBatchResult result = noteService.attribuerNotes("COURS001", saisies);
+        entityManager.flush();
+        
+        // Then : 3 lectures (cours, étudiants, notes) + 1 lot de 20 insertions + 1 lot de 10 mises à jour
+        assertEquals(20, result.getCreated());
+        assertEquals(10, result.getUpdated());
+        statementCounter.assertStatements(5);
+        
+        entityManager.clear();
+        Note updated = entityManager.find(Note.class, "NOTE1");
+        assertEquals(15f, updated.getValeur());
+        assertEquals(LocalDate.now(), updated.getDateSaisie());
+        Long total = entityManager.getEntityManager()
+                .createQuery("SELECT COUNT(n) FROM Note n WHERE n.cours.code = 'COURS001'", Long.class)
+                .getSingleResult();
+        assertEquals(30L, total);
+    }
+    
+    @Test
+    void testAttribuerNotes_InvalidEntryRejectsWholeBatch() {
+        // Given : note hors bornes et étudiant saisi deux fois
+        List<NoteSaisie> saisies = List.of(
+                new NoteSaisie("ETU01", 12f),
+                new NoteSaisie("ETU02", 21f),
+                new NoteSaisie("ETU01", 14f));
+        statementCounter.reset();
+        
+        // When & Then : rejet sans aucun accès base
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> noteService.attribuerNotes("COURS001", saisies));
+        assertTrue(exception.getMessage().contains("notes[1]"));
+        assertTrue(exception.getMessage().contains("notes[2]"));
+        statementCounter.assertStatements(0);
+    }
+    
+    @Test
+    void testAttribuerNotes_UnknownEtudiant() {
+        // Given
+        List<NoteSaisie> saisies = List.of(
+                new NoteSaisie("ETU01", 12f),
+                new NoteSaisie("ETU999", 14f));
+        
+        // When & Then
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> noteService.attribuerNotes("COURS001", saisies));
+        assertTrue(exception.getMessage().contains("ETU999"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.formation.app.service;
+
+import com.formation.app.dto.NoteReportRow;
+import com.formation.app.entity.Etudiant;
+import com.formation.app.repository.EtudiantRepository;
+import com.formation.app.repository.NoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ReportExportService
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportExportServiceTest {
+    
+    @Mock
+    private ReportService reportService;
+    
+    @Mock
+    private NoteRepository noteRepository;
+    
+    @Mock
+    private EtudiantRepository etudiantRepository;
+    
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+    
+    private ReportExportService reportExportService;
+    
+    @BeforeEach
+    void setUp() {
+        reportExportService = new ReportExportService(reportService, noteRepository, etudiantRepository, pool);
+        // Fenêtre plus petite que le nombre d'étudiants : l'archive est écrite pendant les rendus
+        ReflectionTestUtils.setField(reportExportService, "window", 2);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+    
+    @Test
+    void testExporterRapportsNotes_OneEntryPerStudentFromPreloadedNotes() throws IOException {
+        // Given : 5 étudiants, 2 notes chacun
+        List<Etudiant> etudiants = new ArrayList<>();
+        List<NoteReportRow> rows = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            Etudiant etudiant = new Etudiant();
+            etudiant.setId("E" + i);
+            etudiant.setMatricule("MAT00" + i);
+            etudiants.add(etudiant);
+            for (int j = 1; j <= 2; j++) {
+                rows.add(new NoteReportRow("N" + i + j, 12f, LocalDate.of(2026, 1, 10),
+                        "E" + i, "MAT00" + i, "Nom" + i, "Prenom" + i, "C" + j, "Cours " + j));
+            }
+        }
+        when(noteRepository.findReportRowsBySessionId("SESS001")).thenReturn(rows);
+        when(etudiantRepository.findWithNotesBySessionId("SESS001")).thenReturn(etudiants);
+        doAnswer(invocation -> {
+            Etudiant etudiant = invocation.getArgument(0);
+            List<NoteReportRow> notes = invocation.getArgument(1);
+            OutputStream out = invocation.getArgument(2);
+            out.write((etudiant.getId() + ":" + notes.size()).getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reportService).genererRapportNotes(any(Etudiant.class), anyList(), any(OutputStream.class));
+        
+        // When
+        ByteArrayOutputStream zip = new ByteArrayOutputStream();
+        int count = reportExportService.exporterRapportsNotes("SESS001", zip);
+        
+        // Then : une entrée par étudiant, dans l'ordre, avec ses seules notes
+        assertEquals(5, count);
+        List<String> entries = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                entries.add(entry.getName() + "=" + new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        assertEquals(List.of(
+                "rapport-notes-MAT001.pdf=E1:2",
+                "rapport-notes-MAT002.pdf=E2:2",
+                "rapport-notes-MAT003.pdf=E3:2",
+                "rapport-notes-MAT004.pdf=E4:2",
+                "rapport-notes-MAT005.pdf=E5:2"), entries);
+        verify(noteRepository, times(1)).findReportRowsBySessionId("SESS001");
+        verify(etudiantRepository, times(1)).findWithNotesBySessionId("SESS001");
+        verifyNoMoreInteractions(noteRepository, etudiantRepository);
+    }
+}
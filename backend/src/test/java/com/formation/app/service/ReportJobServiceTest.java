@@ -0,0 +1,159 @@
+package com.formation.app.service;
+
+import com.formation.app.dto.NoteReportRow;
+import com.formation.app.dto.ReportJob;
+import com.formation.app.entity.Cours;
+import com.formation.app.exception.ConflictException;
+import com.formation.app.repository.CoursRepository;
+import com.formation.app.repository.EtudiantRepository;
+import com.formation.app.repository.NoteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests unitaires pour ReportJobService
+ */
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+    
+    @Mock
+    private ReportService reportService;
+    
+    @Mock
+    private CoursRepository coursRepository;
+    
+    @Mock
+    private EtudiantRepository etudiantRepository;
+    
+    @Mock
+    private NoteRepository noteRepository;
+    
+    @TempDir
+    Path cacheDir;
+    
+    private final List<Runnable> pending = new ArrayList<>();
+    
+    private ReportJobService reportJobService;
+    
+    private List<NoteReportRow> rows;
+    
+    @BeforeEach
+    void setUp() {
+        // Les rendus sont mis en attente et exécutés explicitement par le test
+        reportJobService = new ReportJobService(reportService, coursRepository, etudiantRepository,
+                noteRepository, pending::add);
+        ReflectionTestUtils.setField(reportJobService, "cacheDir", cacheDir.toString());
+        ReflectionTestUtils.setField(reportJobService, "jobRetentionMinutes", 60L);
+        reportJobService.init();
+        
+        when(coursRepository.findByCode("JAVA001")).thenReturn(Optional.of(new Cours("JAVA001", "Java", null)));
+        rows = new ArrayList<>(List.of(new NoteReportRow("N1", 15f, LocalDate.of(2026, 1, 10),
+                "E1", "MAT001", "Dupont", "Jean", "JAVA001", "Java")));
+        when(noteRepository.findReportRowsByCoursCode("JAVA001")).thenAnswer(invocation -> List.copyOf(rows));
+        doAnswer(invocation -> {
+            List<NoteReportRow> notes = invocation.getArgument(1);
+            OutputStream out = invocation.getArgument(2);
+            out.write(("%PDF " + notes.get(0).getValeur()).getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reportService).genererRapportCours(any(Cours.class), anyList(), any(OutputStream.class));
+    }
+    
+    @Test
+    void testSoumettreRapportCours_RendersOnceThenServesFromCache() throws IOException {
+        // When : deux demandes avant la fin du rendu
+        ReportJob first = reportJobService.soumettreRapportCours("JAVA001");
+        ReportJob second = reportJobService.soumettreRapportCours("JAVA001");
+        
+        // Then : un seul job, un seul rendu
+        assertSame(first, second);
+        assertEquals(ReportJob.STATUS_EN_ATTENTE, first.getStatus());
+        assertThrows(ConflictException.class, () -> reportJobService.getArtifact(first.getId()));
+        assertEquals(1, pending.size());
+        pending.remove(0).run();
+        
+        assertEquals(ReportJob.STATUS_TERMINE, reportJobService.getJob(first.getId()).getStatus());
+        assertEquals("%PDF 15.0", Files.readString(reportJobService.getArtifact(first.getId())));
+        
+        // Mêmes données : servi depuis le cache, sans rendu
+        ReportJob cached = reportJobService.soumettreRapportCours("JAVA001");
+        assertEquals(ReportJob.STATUS_TERMINE, cached.getStatus());
+        assertTrue(cached.isCache());
+        assertEquals(first.getEmpreinte(), cached.getEmpreinte());
+        assertTrue(pending.isEmpty());
+        verify(reportService, times(1)).genererRapportCours(any(Cours.class), anyList(), any(OutputStream.class));
+    }
+    
+    @Test
+    void testSoumettreRapportCours_RendersTheRowsThatWereHashed() throws IOException {
+        // Given : une note modifiée entre la soumission et le rendu
+        ReportJob job = reportJobService.soumettreRapportCours("JAVA001");
+        rows.set(0, new NoteReportRow("N1", 16f, LocalDate.of(2026, 1, 10),
+                "E1", "MAT001", "Dupont", "Jean", "JAVA001", "Java"));
+        
+        // When
+        pending.remove(0).run();
+        
+        // Then : le PDF stocké sous l'empreinte contient les données de cette empreinte
+        assertEquals("%PDF 15.0", Files.readString(reportJobService.getArtifact(job.getId())));
+        verify(noteRepository, times(1)).findReportRowsByCoursCode("JAVA001");
+    }
+    
+    @Test
+    void testGenererRapportCours_StoresRenderInCache() throws IOException {
+        Cours cours = new Cours("JAVA001", "Java", null);
+        
+        // When : téléchargement direct, deux fois
+        Path artifact = reportJobService.genererRapportCours(cours);
+        Path again = reportJobService.genererRapportCours(cours);
+        
+        // Then : rendu une seule fois, stocké sous l'empreinte, sans fichier temporaire restant
+        assertEquals(artifact, again);
+        assertEquals("%PDF 15.0", Files.readString(artifact));
+        try (var files = Files.list(cacheDir)) {
+            assertEquals(List.of(artifact), files.toList());
+        }
+        verify(reportService, times(1)).genererRapportCours(any(Cours.class), anyList(), any(OutputStream.class));
+        
+        // Le job asynchrone de mêmes données est servi depuis ce cache
+        ReportJob job = reportJobService.soumettreRapportCours("JAVA001");
+        assertTrue(job.isCache());
+        assertTrue(pending.isEmpty());
+    }
+    
+    @Test
+    void testSoumettreRapportCours_NoteChangeInvalidatesCache() {
+        // Given
+        ReportJob first = reportJobService.soumettreRapportCours("JAVA001");
+        pending.remove(0).run();
+        
+        // When : une note du cours est modifiée
+        rows.set(0, new NoteReportRow("N1", 16f, LocalDate.of(2026, 1, 10),
+                "E1", "MAT001", "Dupont", "Jean", "JAVA001", "Java"));
+        ReportJob second = reportJobService.soumettreRapportCours("JAVA001");
+        
+        // Then : nouvelle empreinte, nouveau rendu ; l'ancien PDF n'est plus servi
+        assertNotEquals(first.getEmpreinte(), second.getEmpreinte());
+        assertFalse(second.isCache());
+        assertEquals(1, pending.size());
+        assertNull(reportJobService.findRapportCours(new Cours("JAVA001", "Java", null)));
+    }
+}
@@ -0,0 +1,120 @@
+package com.formation.app.service;
+
+import com.formation.app.dto.NoteReportRow;
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Etudiant;
+import com.formation.app.entity.Formateur;
+import com.formation.app.entity.Note;
+import com.formation.app.report.ReportRenderer;
+import com.formation.app.repository.CoursRepository;
+import com.formation.app.repository.EtudiantRepository;
+import com.formation.app.repository.FormateurRepository;
+import com.formation.app.repository.NoteRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests d'intégration pour ReportService : rendu des rapports en flux hors transaction
+ * Sans transaction de test : les données sont validées, visibles depuis la lecture hors transaction
+ */
+@DataJpaTest
+@Import(ReportService.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportServiceTest {
+    
+    @Autowired
+    private ReportService reportService;
+    
+    @Autowired
+    private FormateurRepository formateurRepository;
+    
+    @Autowired
+    private CoursRepository coursRepository;
+    
+    @Autowired
+    private EtudiantRepository etudiantRepository;
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @MockBean
+    private ReportRenderer reportRenderer;
+    
+    @MockBean
+    private CoursClassementService coursClassementService;
+    
+    private Cours cours;
+    private Etudiant etudiant;
+    
+    // Transaction active au moment du rendu, et lignes rendues
+    private final List<Boolean> transactionPendantRendu = new ArrayList<>();
+    private final List<List<NoteReportRow>> rendus = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        Formateur formateur = formateurRepository.save(
+                new Formateur("FORM001", "FMAT001", "Martin", "Java", "martin@email.com"));
+        cours = new Cours("COURS001", "Java", null);
+        cours.setFormateur(formateur);
+        cours = coursRepository.save(cours);
+        etudiant = etudiantRepository.save(
+                new Etudiant("ETU001", "MAT001", "Dupont", "Jean", "jean@email.com", LocalDate.now()));
+        noteRepository.save(new Note("N1", 15f, LocalDate.now(), etudiant, cours));
+        
+        doAnswer(invocation -> {
+            transactionPendantRendu.add(TransactionSynchronizationManager.isActualTransactionActive());
+            rendus.add(invocation.getArgument(1));
+            return null;
+        }).when(reportRenderer).renderCours(any(Cours.class), anyList(), any(OutputStream.class));
+        doAnswer(invocation -> {
+            transactionPendantRendu.add(TransactionSynchronizationManager.isActualTransactionActive());
+            rendus.add(invocation.getArgument(1));
+            return null;
+        }).when(reportRenderer).renderNotes(any(Etudiant.class), anyList(), any(OutputStream.class));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        noteRepository.deleteAll();
+        formateurRepository.deleteAll();
+        etudiantRepository.deleteAll();
+    }
+    
+    @Test
+    void testGenererRapports_StreamsWithoutTransaction() {
+        // When : rendus vers un flux, appelés depuis une transaction en cours
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            reportService.genererRapportCours(cours, OutputStream.nullOutputStream());
+            reportService.genererRapportNotes(etudiant, OutputStream.nullOutputStream());
+        });
+        
+        // Then : les notes ont été lues, et aucune transaction (ni connexion) n'est retenue pendant l'écriture
+        assertEquals(List.of(false, false), transactionPendantRendu);
+        assertEquals("N1", rendus.get(0).get(0).getNoteId());
+        assertEquals("N1", rendus.get(1).get(0).getNoteId());
+    }
+}
@@ -0,0 +1,100 @@
+package com.formation.app.service;
+
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Formateur;
+import com.formation.app.entity.Seance;
+import com.formation.app.exception.ConflictException;
+import com.formation.app.planning.SeanceConflictIndex;
+import com.formation.app.repository.FormateurRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration : les séances supprimées en cascade libèrent leurs créneaux dans l'index des conflits
+ * Sans transaction de test : chaque appel de service est validé, comme en production
+ */
+@DataJpaTest
+@Import({CoursService.class, SeanceService.class, SeanceConflictIndex.class})
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeanceCascadeDeleteTest {
+    
+    private static final LocalDate DATE = LocalDate.of(2026, 2, 2);
+    
+    @Autowired
+    private CoursService coursService;
+    
+    @Autowired
+    private SeanceService seanceService;
+    
+    @Autowired
+    private SeanceConflictIndex conflictIndex;
+    
+    @Autowired
+    private FormateurRepository formateurRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Formateur formateur = new Formateur("FORM001", "FMAT001", "Martin", "Java", "martin@email.com");
+            entityManager.persist(formateur);
+            for (String code : new String[] {"COURS001", "COURS002"}) {
+                Cours cours = new Cours(code, "Cours " + code, null);
+                cours.setFormateur(formateur);
+                entityManager.persist(cours);
+            }
+            entityManager.persist(new Seance("SEANCE001", DATE, LocalTime.of(9, 0), "A101", 90,
+                    entityManager.find(Cours.class, "COURS001"), formateur));
+        });
+        conflictIndex.invalidate();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        // Formateur supprimé avec ses cours et leurs séances (cascade)
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> formateurRepository.deleteAll());
+        conflictIndex.invalidate();
+    }
+    
+    @Test
+    void testDeleteCours_ReleasesRoomOfCascadedSeances() {
+        // Given : la salle A101 est occupée à 9h par une séance de COURS001 (index chargé)
+        assertThrows(ConflictException.class, () -> seanceService.createSeance(seance("SEANCE002")));
+        
+        // When
+        coursService.deleteCours("COURS001");
+        
+        // Then : la salle est de nouveau réservable, sans redémarrage
+        Seance created = seanceService.createSeance(seance("SEANCE002"));
+        assertEquals("A101", created.getSalle());
+    }
+    
+    private Seance seance(String id) {
+        Cours cours = new Cours();
+        cours.setCode("COURS002");
+        Formateur formateur = new Formateur();
+        formateur.setId("FORM001");
+        return new Seance(id, DATE, LocalTime.of(9, 0), "A101", cours, formateur);
+    }
+}
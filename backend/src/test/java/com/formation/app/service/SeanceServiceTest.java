@@ -0,0 +1,137 @@
+package com.formation.app.service;
+
+import com.formation.app.dto.SeanceRecurrence;
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Formateur;
+import com.formation.app.entity.Seance;
+import com.formation.app.exception.ConflictException;
+import com.formation.app.planning.SeanceConflictIndex;
+import com.formation.app.support.CountingDataJpaTest;
+import com.formation.app.support.JpaFixture;
+import com.formation.app.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests d'intégration pour la planification et la détection des conflits de SeanceService
+ */
+@CountingDataJpaTest
+@Import({SeanceService.class, SeanceConflictIndex.class})
+class SeanceServiceTest {
+    
+    // Lundi 2 février 2026
+    private static final LocalDate DEBUT = LocalDate.of(2026, 2, 2);
+    
+    @Autowired
+    private SeanceService seanceService;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
+    @Autowired
+    private JpaFixture fixture;
+    
+    @Autowired
+    private StatementCounter statementCounter;
+    
+    @Autowired
+    private SeanceConflictIndex conflictIndex;
+    
+    private Cours cours;
+    private Formateur formateur;
+    private Cours autreCours;
+    private Formateur autreFormateur;
+    
+    @BeforeEach
+    void setUp() {
+        formateur = fixture.formateur();
+        autreFormateur = entityManager.persist(
+                new Formateur("FORM002", "FMAT002", "Durand", "Python", "durand@email.com"));
+        cours = fixture.cours(1, formateur);
+        autreCours = fixture.cours(2, autreFormateur);
+        fixture.flushAndClear();
+        
+        // L'index est partagé par le contexte de test : rechargé depuis les données de chaque test
+        conflictIndex.invalidate();
+    }
+    
+    @Test
+    void testCreateSeancesRecurrentes_ConstantQueryCount() {
+        // Given : 14 semaines, lundi 9h et jeudi 14h, un lundi férié exclu
+        SeanceRecurrence recurrence = recurrence("A101");
+        recurrence.setExclusions(List.of(DEBUT.plusWeeks(3)));
+        statementCounter.reset();
+        
+        // When
+        List<Seance> seances = seanceService.createSeancesRecurrentes(recurrence);
+        entityManager.flush();
+        
+        // Then : 3 lectures (cours, formateur, chargement initial de l'index) + une insertion préparée, exécutée en 2 lots
+        assertEquals(27, seances.size());
+        statementCounter.assertStatements(4);
+        assertTrue(seances.stream().noneMatch(s -> s.getDate().equals(DEBUT.plusWeeks(3))));
+        assertTrue(seances.stream().allMatch(s -> s.getDate().getDayOfWeek() == DayOfWeek.MONDAY
+                || s.getDate().getDayOfWeek() == DayOfWeek.THURSDAY));
+    }
+    
+    @Test
+    void testCreateSeancesRecurrentes_RoomConflictRejectsWholeSet() {
+        // Given : la salle A101 est occupée par un autre formateur le jeudi de la 2e semaine à 14h
+        entityManager.persist(new Seance("SEANCE001", DEBUT.plusDays(10), LocalTime.of(14, 0), "A101",
+                autreCours, autreFormateur));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When & Then
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> seanceService.createSeancesRecurrentes(recurrence("A101")));
+        assertTrue(exception.getMessage().contains("salle A101"));
+        
+        // Une autre salle reste libre
+        assertEquals(28, seanceService.createSeancesRecurrentes(recurrence("B202")).size());
+    }
+    
+    @Test
+    void testCreateSeance_OverlappingDuration() {
+        // Given : le formateur anime une séance de 2h à 9h en salle A101
+        entityManager.persist(new Seance("SEANCE001", DEBUT, LocalTime.of(9, 0), "A101", 120, cours, formateur));
+        entityManager.flush();
+        entityManager.clear();
+        
+        // When & Then : 10h30 chevauche (autre salle), 11h est libre
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> seanceService.createSeance(new Seance(null, DEBUT, LocalTime.of(10, 30), "B202", cours, formateur)));
+        assertTrue(exception.getMessage().contains("formateur"));
+        assertTrue(seanceService.verifierConflitFormateur("FORM001", DEBUT, LocalTime.of(8, 0)));
+        
+        Seance created = seanceService.createSeance(new Seance(null, DEBUT, LocalTime.of(11, 0), "B202", cours, formateur));
+        assertEquals(90, created.getDureeMinutes());
+        
+        // La salle A101 est occupée jusqu'à 11h, quel que soit le formateur
+        assertThrows(ConflictException.class, () -> seanceService.createSeance(
+                new Seance(null, DEBUT, LocalTime.of(10, 0), "A101", autreCours, autreFormateur)));
+    }
+    
+    private SeanceRecurrence recurrence(String salle) {
+        SeanceRecurrence recurrence = new SeanceRecurrence();
+        recurrence.setCoursCode("COURS001");
+        recurrence.setFormateurId("FORM001");
+        recurrence.setSalle(salle);
+        recurrence.setDateDebut(DEBUT);
+        recurrence.setDateFin(DEBUT.plusWeeks(14).minusDays(1));
+        recurrence.setCreneaux(List.of(
+                new SeanceRecurrence.Creneau(DayOfWeek.MONDAY, LocalTime.of(9, 0)),
+                new SeanceRecurrence.Creneau(DayOfWeek.THURSDAY, LocalTime.of(14, 0))));
+        return recurrence;
+    }
+}
@@ -3,6 +3,9 @@ package com.formation.app.service;
 import com.formation.app.entity.Role;
 import com.formation.app.entity.User;
 import com.formation.app.repository.UserRepository;
+import com.formation.app.security.RefreshTokenService;
+import com.formation.app.security.TokenVersionService;
+import com.formation.app.security.VerifiedTokenCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +13,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 
@@ -29,6 +34,15 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
     
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    
+    @Mock
+    private TokenVersionService tokenVersionService;
+    
     @InjectMocks
     private UserService userService;
     
@@ -119,5 +133,42 @@ class UserServiceTest {
         // Then
         assertFalse(result);
     }
+    
+    @Test
+    void testChangePassword_RevokesTokens() {
+        // Given
+        testUser.setTokenVersion(2);
+        when(userRepository.findById("USER001")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.encode("newpassword")).thenReturn("newEncodedPassword");
+        
+        // When
+        userService.changePassword("USER001", "newpassword");
+        
+        // Then
+        assertEquals("newEncodedPassword", testUser.getPassword());
+        assertEquals(3, testUser.getTokenVersion());
+        verify(tokenVersionService, times(1)).evict("USER001");
+        verify(verifiedTokenCache, times(1)).evictUser("USER001");
+        verify(refreshTokenService, times(1)).revokeAll("USER001");
+    }
+    
+    @Test
+    void testRevokeTokens_EvictsCachesOnlyAfterCommit() {
+        // Given
+        when(userRepository.findById("USER001")).thenReturn(Optional.of(testUser));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            userService.revokeTokens("USER001");
+            
+            // Then : rien n'est évincé avant la validation
+            verifyNoInteractions(tokenVersionService, verifiedTokenCache);
+            
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(tokenVersionService).evict("USER001");
+            verify(verifiedTokenCache).evictUser("USER001");
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
 }
-
@@ -0,0 +1,24 @@
+package com.formation.app.support;
+
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test JPA (profil test) avec statistiques Hibernate activées
+ * Fournit StatementCounter pour compter les requêtes et JpaFixture pour les données communes
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({StatementCounter.class, JpaFixture.class})
+@ActiveProfiles("test")
+public @interface CountingDataJpaTest {
+}
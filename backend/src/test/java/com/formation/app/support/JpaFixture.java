@@ -0,0 +1,63 @@
+package com.formation.app.support;
+
+import com.formation.app.entity.Cours;
+import com.formation.app.entity.Etudiant;
+import com.formation.app.entity.Formateur;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+
+/**
+ * Données communes des tests JPA : formateur FORM001, cours COURS00n et étudiants ETUnn
+ */
+public class JpaFixture {
+    
+    private final TestEntityManager entityManager;
+    
+    public JpaFixture(TestEntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+    
+    /**
+     * ID de l'étudiant numéro n (ETU01, ETU02...)
+     */
+    public static String etudiantId(int numero) {
+        return String.format("ETU%02d", numero);
+    }
+    
+    /**
+     * Persiste le formateur FORM001
+     */
+    public Formateur formateur() {
+        return entityManager.persist(new Formateur("FORM001", "FMAT001", "Martin", "Java", "martin@email.com"));
+    }
+    
+    /**
+     * Persiste le cours COURS00n, intitulé "Cours n", animé par le formateur
+     */
+    public Cours cours(int numero, Formateur formateur) {
+        Cours cours = new Cours(String.format("COURS%03d", numero), "Cours " + numero, null);
+        cours.setFormateur(formateur);
+        return entityManager.persist(cours);
+    }
+    
+    /**
+     * Étudiant numéro n (Prenomn Nomn), persisté s'il n'existe pas encore
+     */
+    public Etudiant etudiant(int numero) {
+        Etudiant etudiant = entityManager.find(Etudiant.class, etudiantId(numero));
+        if (etudiant == null) {
+            etudiant = entityManager.persist(new Etudiant(etudiantId(numero), String.format("MAT%02d", numero),
+                    "Nom" + numero, "Prenom" + numero, "etu" + numero + "@email.com", LocalDate.now()));
+        }
+        return etudiant;
+    }
+    
+    /**
+     * Écrit les données en base et vide le contexte de persistance (aucune entité déjà chargée)
+     */
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
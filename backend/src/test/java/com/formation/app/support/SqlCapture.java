@@ -0,0 +1,35 @@
+package com.formation.app.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Enregistre le SQL généré par Hibernate (à activer avec la propriété
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector)
+ */
+public class SqlCapture implements StatementInspector {
+    
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+    
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+    
+    /**
+     * Oublie les requêtes déjà enregistrées
+     */
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+    
+    /**
+     * Requêtes enregistrées depuis le dernier clear, dans l'ordre d'exécution
+     */
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+}
@@ -0,0 +1,69 @@
+package com.formation.app.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compte les requêtes préparées par Hibernate (statistiques de la SessionFactory)
+ */
+public class StatementCounter {
+    
+    private final Statistics statistics;
+    
+    public StatementCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    /**
+     * Remet les compteurs à zéro
+     */
+    public void reset() {
+        statistics.clear();
+    }
+    
+    /**
+     * Nombre de requêtes préparées depuis la dernière remise à zéro
+     */
+    public long statements() {
+        return statistics.getPrepareStatementCount();
+    }
+    
+    /**
+     * Nombre d'entités chargées depuis la dernière remise à zéro
+     */
+    public long entityLoads() {
+        return statistics.getEntityLoadCount();
+    }
+    
+    /**
+     * Vérifie le nombre de requêtes préparées depuis la dernière remise à zéro
+     */
+    public void assertStatements(long expected) {
+        assertEquals(expected, statements(), "Nombre de requêtes préparées");
+    }
+    
+    /**
+     * Exécute l'action après une remise à zéro et retourne le nombre de requêtes qu'elle a préparées
+     */
+    public long count(Runnable action) {
+        reset();
+        action.run();
+        return statements();
+    }
+    
+    /**
+     * Exécute l'action après une remise à zéro et vérifie le nombre de requêtes qu'elle a préparées
+     * @return le résultat de l'action
+     */
+    public <T> T assertStatements(long expected, Supplier<T> action) {
+        reset();
+        T result = action.get();
+        assertStatements(expected);
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package com.formation.app.template;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests unitaires pour EmailTemplates et CompiledTemplate
+ */
+class EmailTemplatesTest {
+    
+    private final EmailTemplates emailTemplates = new EmailTemplates();
+    
+    @Test
+    void testRender_TextMatchesPreviousFormat() {
+        // When
+        RenderedEmail email = emailTemplates.render(EmailTemplate.INSCRIPTION, "Jean", "Dupont", "Java Avancé", "JAVA101");
+        
+        // Then : même texte que l'ancien String.format
+        assertEquals("Confirmation d'inscription - Java Avancé", email.subject());
+        assertEquals(String.format(
+                "Bonjour %s %s,\n\n" +
+                "Votre inscription au cours '%s' a été confirmée.\n" +
+                "Code du cours: %s\n\n" +
+                "Cordialement,\n" +
+                "L'équipe du centre de formation",
+                "Jean", "Dupont", "Java Avancé", "JAVA101"), email.text());
+        assertTrue(email.html().contains("<strong>Java Avancé</strong>"));
+    }
+    
+    @Test
+    void testRender_HtmlValuesAreEscaped() {
+        // When
+        RenderedEmail email = emailTemplates.render(EmailTemplate.DESINSCRIPTION, "Jean", "<b>Dupont</b>", "R&D", "RD1");
+        
+        // Then
+        assertTrue(email.text().contains("Bonjour Jean <b>Dupont</b>"));
+        assertTrue(email.html().contains("Bonjour Jean &lt;b&gt;Dupont&lt;/b&gt;"));
+        assertTrue(email.html().contains("R&amp;D"));
+    }
+    
+    @Test
+    void testCompile_UnknownVariable() {
+        // When & Then : une variable non déclarée est refusée au chargement
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledTemplate.compile("test", "Bonjour {{prenom}} {{inconnue}}", false, "prenom"));
+    }
+    
+    @Test
+    void testRender_WrongValueCount() {
+        // Given
+        CompiledTemplate template = CompiledTemplate.compile("test", "Bonjour {{prenom}} {{nom}}", false, "prenom", "nom");
+        
+        // When & Then
+        assertEquals("Bonjour Jean ", template.render("Jean", null));
+        assertThrows(IllegalArgumentException.class, () -> template.render("Jean"));
+    }
+}
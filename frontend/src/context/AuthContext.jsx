@@ -1,6 +1,16 @@
 import { createContext, useContext, useState, useEffect } from 'react';
 import { authService } from '../services/authService.js';
-import { getToken, setToken, removeToken, getUser, setUser, removeUser } from '../utils/auth.js';
+import {
+  getToken,
+  setToken,
+  removeToken,
+  getRefreshToken,
+  setRefreshToken,
+  removeRefreshToken,
+  getUser,
+  setUser,
+  removeUser,
+} from '../utils/auth.js';
 
 const AuthContext = createContext(null);
 
@@ -32,6 +42,7 @@ export const AuthProvider = ({ children }) => {
         .catch(() => {
           // Token invalide
           removeToken();
+          removeRefreshToken();
           removeUser();
           setUserState(null);
         })
@@ -53,6 +64,9 @@ export const AuthProvider = ({ children }) => {
       if (response.token) {
         console.log('💾 [AUTH CONTEXT] Sauvegarde du token et des données utilisateur');
         setToken(response.token);
+        if (response.refreshToken) {
+          setRefreshToken(response.refreshToken);
+        }
         setUser(response);
         setUserState(response);
         console.log('✅ [AUTH CONTEXT] Connexion réussie et données sauvegardées');
@@ -70,7 +84,13 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
+    const refreshToken = getRefreshToken();
+    if (refreshToken) {
+      // Révocation côté serveur, sans bloquer la déconnexion locale
+      authService.logout(refreshToken).catch(() => {});
+    }
     removeToken();
+    removeRefreshToken();
     removeUser();
     setUserState(null);
   };
@@ -30,7 +30,7 @@ const EtudiantInscriptionCours = () => {
       try {
         console.log('🔍 [INSCRIPTION] Chargement des cours et inscriptions...');
         const [allCoursResponse, inscriptionsResponse] = await Promise.all([
-          coursApi.list(),
+          coursApi.listAll(),
           inscriptionsApi.getByEtudiant(etudiantId),
         ]);
 
@@ -448,7 +448,7 @@ const EtudiantInscriptionCours = () => {
 
     try {
       const [allCoursResponse, inscriptionsResponse] = await Promise.all([
-        coursApi.list(),
+        coursApi.listAll(),
         inscriptionsApi.getByEtudiant(etudiantId),
       ]);
 
@@ -62,7 +62,7 @@ const FormateurNotes = () => {
         try {
           const [notesResponse, etudiantsResponse] = await Promise.all([
             notesApi.getByCours(selectedCours),
-            etudiantsApi.list(),
+            etudiantsApi.listAll(),
           ]);
           
           let notesData = parseJsonSafely(notesResponse.data);
@@ -76,6 +76,7 @@ const FormateurNotes = () => {
           }
           
           const notesArray = Array.isArray(notesData) ? notesData : [];
+          // Toutes les pages de l'API sont parcourues (curseur) : aucun étudiant n'est tronqué
           const etudiantsArray = Array.isArray(etudiantsData) ? etudiantsData : [];
           setNotes(notesArray);
           setFilteredNotes(notesArray);
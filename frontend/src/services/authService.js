@@ -19,6 +19,14 @@ export const authService = {
     }
   },
 
+  /**
+   * Déconnexion : révoque le refresh token côté serveur
+   * @param {string} refreshToken
+   */
+  logout: async (refreshToken) => {
+    await api.post('/auth/logout', { refreshToken });
+  },
+
   /**
    * Obtenir les informations de l'utilisateur connecté
    * @returns {Promise} User info
@@ -1,4 +1,4 @@
-import api from '../utils/api.js';
+import api, { fetchAllPages } from '../utils/api.js';
 
 /**
  * Service pour les cours
@@ -8,7 +8,7 @@ export const coursService = {
    * Obtenir tous les cours
    */
   getAll: async () => {
-    const response = await api.get('/cours');
+    const response = await fetchAllPages('/cours');
     return response.data;
   },
 
@@ -5,10 +5,11 @@ import api from '../utils/api.js';
  */
 export const etudiantService = {
   /**
-   * Obtenir tous les étudiants
+   * Obtenir une page d'étudiants
+   * @param params page, size, sort, direction, nom, prenom, matricule, email (optionnels)
    */
-  getAll: async () => {
-    const response = await api.get('/etudiants');
+  getAll: async (params) => {
+    const response = await api.get('/etudiants', { params });
     return response.data;
   },
 
@@ -1,4 +1,4 @@
-import api from '../utils/api.js';
+import api, { fetchAllPages } from '../utils/api.js';
 
 /**
  * Service pour les formateurs
@@ -8,7 +8,7 @@ export const formateurService = {
    * Obtenir tous les formateurs
    */
   getAll: async () => {
-    const response = await api.get('/formateurs');
+    const response = await fetchAllPages('/formateurs');
     return response.data;
   },
 
@@ -1,4 +1,4 @@
-import api from '../utils/api.js';
+import api, { fetchAllPages } from '../utils/api.js';
 
 /**
  * Service pour les inscriptions
@@ -8,7 +8,7 @@ export const inscriptionService = {
    * Obtenir toutes les inscriptions
    */
   getAll: async () => {
-    const response = await api.get('/inscriptions');
+    const response = await fetchAllPages('/inscriptions');
     return response.data;
   },
 
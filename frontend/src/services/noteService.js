@@ -1,4 +1,4 @@
-import api from '../utils/api.js';
+import api, { fetchAllPages } from '../utils/api.js';
 
 /**
  * Service pour les notes
@@ -8,7 +8,7 @@ export const noteService = {
    * Obtenir toutes les notes
    */
   getAll: async () => {
-    const response = await api.get('/notes');
+    const response = await fetchAllPages('/notes');
     return response.data;
   },
 
@@ -1,4 +1,4 @@
-import api from '../utils/api.js';
+import api, { fetchAllPages } from '../utils/api.js';
 
 /**
  * Service pour les séances
@@ -8,7 +8,7 @@ export const seanceService = {
    * Obtenir toutes les séances
    */
   getAll: async () => {
-    const response = await api.get('/seances');
+    const response = await fetchAllPages('/seances');
     return response.data;
   },
 
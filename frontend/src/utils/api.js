@@ -24,15 +24,52 @@ api.interceptors.request.use(
   }
 );
 
+// Échange du refresh token (un seul appel en cours, partagé par les requêtes en échec)
+let refreshPromise = null;
+
+const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshPromise = (refreshToken
+      ? axios.post(`${API_BASE_URL}/auth/refresh`, { refreshToken })
+      : Promise.reject(new Error('Pas de refresh token')))
+      .then((response) => {
+        localStorage.setItem('token', response.data.token);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
 // Intercepteur pour gérer les erreurs de réponse
 api.interceptors.response.use(
   (response) => {
     return response;
   },
-  (error) => {
+  async (error) => {
+    const originalRequest = error.config;
+    const isAuthRequest = originalRequest?.url?.startsWith('/auth/');
+    
+    // Access token expiré : renouveler via le refresh token puis rejouer la requête une fois
+    if (error.response?.status === 401 && originalRequest && !originalRequest._retry && !isAuthRequest) {
+      originalRequest._retry = true;
+      try {
+        const token = await refreshAccessToken();
+        originalRequest.headers.Authorization = `Bearer ${token}`;
+        return api(originalRequest);
+      } catch (refreshError) {
+        // Refresh impossible : session terminée
+      }
+    }
+    
     if (error.response?.status === 401) {
       // Token expiré ou invalide
       localStorage.removeItem('token');
+      localStorage.removeItem('refreshToken');
       localStorage.removeItem('user');
       // Ne pas rediriger si on est déjà sur la page de login
       if (window.location.pathname !== '/login') {
@@ -49,6 +86,22 @@ api.interceptors.response.use(
   }
 );
 
+/**
+ * Parcourt toutes les pages d'un endpoint paginé par curseur
+ * Réponse : { content, size, nextCursor, hasNext } ; nextCursor est renvoyé tel quel
+ * Retourne un objet { data: [...] } pour rester compatible avec les réponses axios
+ */
+export const fetchAllPages = async (url, params = {}) => {
+  const items = [];
+  let cursor;
+  do {
+    const response = await api.get(url, { params: { ...params, size: 100, cursor } });
+    items.push(...(response.data?.content || []));
+    cursor = response.data?.hasNext ? response.data.nextCursor : null;
+  } while (cursor);
+  return { data: items };
+};
+
 /**
  * ============================
  *  Clients d'API organisés
@@ -59,13 +112,16 @@ api.interceptors.response.use(
 // Authentification (/api/auth/**)
 export const authApi = {
   login: (login, password) => api.post('/auth/login', { login, password }),
+  refresh: (refreshToken) => api.post('/auth/refresh', { refreshToken }),
+  logout: (refreshToken) => api.post('/auth/logout', { refreshToken }),
   me: () => api.get('/auth/me'),
   test: () => api.get('/auth/test'),
 };
 
 // Étudiants (/api/etudiants/**)
 export const etudiantsApi = {
-  list: (params) => api.get('/etudiants', { params }), // page, size (optionnels)
+  list: (params) => api.get('/etudiants', { params }), // cursor ou page, size, sort, direction, nom, prenom, matricule, email (optionnels)
+  listAll: (params) => fetchAllPages('/etudiants', params), // toutes les pages (filtres optionnels)
   getById: (id) => api.get(`/etudiants/${id}`),
   getByMatricule: (matricule) => api.get(`/etudiants/matricule/${matricule}`),
   create: (data) => api.post('/etudiants', data),
@@ -79,7 +135,8 @@ export const etudiantsApi = {
 
 // Formateurs (/api/formateurs/**)
 export const formateursApi = {
-  list: () => api.get('/formateurs'),
+  list: (params) => api.get('/formateurs', { params }), // cursor, size (optionnels)
+  listAll: () => fetchAllPages('/formateurs'),
   getById: (id) => api.get(`/formateurs/${id}`),
   create: (data) => api.post('/formateurs', data),
   update: (id, data) => api.put(`/formateurs/${id}`, data),
@@ -90,7 +147,8 @@ export const formateursApi = {
 
 // Cours (/api/cours/**)
 export const coursApi = {
-  list: () => api.get('/cours'),
+  list: (params) => api.get('/cours', { params }), // cursor, size (optionnels)
+  listAll: () => fetchAllPages('/cours'),
   getByCode: (code) => api.get(`/cours/${code}`),
   create: (data) => api.post('/cours', data),
   update: (code, data) => api.put(`/cours/${code}`, data),
@@ -104,7 +162,8 @@ export const coursApi = {
 
 // Inscriptions (/api/inscriptions/**)
 export const inscriptionsApi = {
-  list: () => api.get('/inscriptions'),
+  list: (params) => api.get('/inscriptions', { params }), // cursor, size (optionnels)
+  listAll: () => fetchAllPages('/inscriptions'),
   getById: (id) => api.get(`/inscriptions/${id}`),
   inscrire: (etudiantId, coursCode) =>
     api.post('/inscriptions', { etudiantId, coursCode }),
@@ -115,7 +174,8 @@ export const inscriptionsApi = {
 
 // Séances (/api/seances/**)
 export const seancesApi = {
-  list: () => api.get('/seances'),
+  list: (params) => api.get('/seances', { params }), // cursor, size (optionnels)
+  listAll: () => fetchAllPages('/seances'),
   getById: (id) => api.get(`/seances/${id}`),
   create: (data) => api.post('/seances', data),
   update: (id, data) => api.put(`/seances/${id}`, data),
@@ -131,7 +191,8 @@ export const seancesApi = {
 
 // Notes (/api/notes/**)
 export const notesApi = {
-  list: () => api.get('/notes'),
+  list: (params) => api.get('/notes', { params }), // cursor, size (optionnels)
+  listAll: () => fetchAllPages('/notes'),
   getById: (id) => api.get(`/notes/${id}`),
   attribuer: (etudiantId, coursCode, valeur) =>
     api.post('/notes', { etudiantId, coursCode, valeur }),
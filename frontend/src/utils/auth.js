@@ -14,6 +14,18 @@ export const removeToken = () => {
   localStorage.removeItem('token');
 };
 
+export const getRefreshToken = () => {
+  return localStorage.getItem('refreshToken');
+};
+
+export const setRefreshToken = (refreshToken) => {
+  localStorage.setItem('refreshToken', refreshToken);
+};
+
+export const removeRefreshToken = () => {
+  localStorage.removeItem('refreshToken');
+};
+
 export const getUser = () => {
   const userStr = localStorage.getItem('user');
   return userStr ? JSON.parse(userStr) : null;
@@ -38,6 +50,7 @@ export const hasRole = (role) => {
 
 export const logout = () => {
   removeToken();
+  removeRefreshToken();
   removeUser();
   window.location.href = '/login';
 };